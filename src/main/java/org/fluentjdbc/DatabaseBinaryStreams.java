@@ -0,0 +1,182 @@
+package org.fluentjdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Binds files and buffers as binary parameters with a known length and copies binary columns to
+ * channels, without reading the whole value into memory. Used by
+ * {@link DatabaseStatement#bindParameter} and {@link DatabaseRow#transferTo}
+ */
+class DatabaseBinaryStreams {
+
+    static final int BUFFER_SIZE = 64 * 1024;
+
+    private DatabaseBinaryStreams() {
+    }
+
+    /**
+     * Binds the contents of the file. The file is opened when the driver starts reading it and
+     * closed when the driver has read all of it
+     */
+    static void bindPath(PreparedStatement stmt, int index, Path path) throws SQLException {
+        try {
+            long length = Files.size(path);
+            stmt.setBinaryStream(index, new PathInputStream(path, length), length);
+        } catch (IOException e) {
+            throw new SQLException("Failed to read " + path, e);
+        }
+    }
+
+    /**
+     * Binds the contents of the channel from the current position to the end. The channel is not closed
+     */
+    static void bindFileChannel(PreparedStatement stmt, int index, FileChannel channel) throws SQLException {
+        try {
+            stmt.setBinaryStream(index, Channels.newInputStream(new UnclosedChannel(channel)), channel.size() - channel.position());
+        } catch (IOException e) {
+            throw new SQLException("Failed to read " + channel, e);
+        }
+    }
+
+    /**
+     * Binds the remaining bytes of the buffer without changing its position. Heap buffers are read
+     * directly from their backing array
+     */
+    static void bindByteBuffer(PreparedStatement stmt, int index, ByteBuffer buffer) throws SQLException {
+        if (buffer.hasArray()) {
+            stmt.setBinaryStream(index, new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining()), buffer.remaining());
+        } else {
+            stmt.setBinaryStream(index, new ByteBufferInputStream(buffer.duplicate()), buffer.remaining());
+        }
+    }
+
+    /**
+     * Copies all of input to target through a buffer of {@link #BUFFER_SIZE} bytes and returns the
+     * number of bytes copied
+     */
+    static long transfer(InputStream input, WritableByteChannel target) throws IOException {
+        byte[] bytes = new byte[BUFFER_SIZE];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long total = 0;
+        int count;
+        while ((count = input.read(bytes)) != -1) {
+            buffer.clear().limit(count);
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+            total += count;
+        }
+        return total;
+    }
+
+    private static class PathInputStream extends InputStream {
+        private final Path path;
+        private long remaining;
+        private InputStream delegate;
+
+        private PathInputStream(Path path, long length) {
+            this.path = path;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                close();
+                return -1;
+            }
+            if (delegate == null) {
+                delegate = Files.newInputStream(path);
+            }
+            int count = delegate.read(b, off, (int) Math.min(len, remaining));
+            if (count == -1) {
+                remaining = 0;
+            } else {
+                remaining -= count;
+            }
+            if (remaining <= 0) {
+                close();
+            }
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (delegate != null) {
+                delegate.close();
+                delegate = null;
+            }
+            remaining = 0;
+        }
+    }
+
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    /**
+     * Keeps the driver from closing a channel owned by the caller
+     */
+    private static class UnclosedChannel implements ReadableByteChannel {
+        private final FileChannel channel;
+
+        private UnclosedChannel(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return channel.read(dst);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -1,17 +1,13 @@
 package org.fluentjdbc;
 
-import org.fluentjdbc.util.ExceptionUtil;
-
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 import java.util.stream.IntStream;
 
-import static org.fluentjdbc.DatabaseStatement.addBatch;
-
 /**
  * Fluently generate a <code>DELETE ... WHERE ...</code> statement for a list of objects.
  * Create with a list of object and use {@link #where(String, Function)} to add a function
@@ -59,12 +55,8 @@ public class DatabaseBulkDeleteBuilder<T> implements DatabaseBulkQueryable<T, Da
      */
     public int execute(Connection connection) {
         String deleteStatement = "delete from " + table.getTableName() + " where " + String.join(" and ", whereConditions);
-        try (PreparedStatement statement = connection.prepareStatement(deleteStatement)) {
-            addBatch(statement, objects, whereParameters);
-            int[] counts = statement.executeBatch();
-            return IntStream.of(counts).sum();
-        } catch (SQLException e) {
-            throw ExceptionUtil.softenCheckedException(e);
-        }
+        int[] counts = table.newStatement("DELETE", deleteStatement, Collections.emptyList())
+                .executeBatch(connection, objects, whereParameters);
+        return IntStream.of(counts).sum();
     }
 }
@@ -1,19 +1,16 @@
 package org.fluentjdbc;
 
-import org.fluentjdbc.util.ExceptionUtil;
-
 import javax.annotation.CheckReturnValue;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import static org.fluentjdbc.DatabaseStatement.addBatch;
-
 /**
  * Fluently generate a <code>INSERT ...</code> statement for a list of objects. Crate with a list of object
  * and use {@link #setField(String, Function)} to pass in a function that will be called for each object
@@ -39,6 +36,10 @@ public class DatabaseBulkInsertBuilder<T> implements DatabaseBulkUpdatable<T, Da
     protected final List<String> updateFields = new ArrayList<>();
     protected final List<Function<T, ?>> updateParameters = new ArrayList<>();
 
+    private String allocatedKeyColumn;
+    private DatabaseIdAllocator idAllocator;
+    private BiConsumer<T, Long> allocatedKeyConsumer;
+
     DatabaseBulkInsertBuilder(DatabaseTable table, Iterable<T> objects) {
         this.table = table;
         this.objects = objects;
@@ -62,14 +63,53 @@ public class DatabaseBulkInsertBuilder<T> implements DatabaseBulkUpdatable<T, Da
      * @return the count of rows inserted
      */
     public int execute(Connection connection) {
+        if (idAllocator != null) {
+            return executeWithAllocatedKeys(connection);
+        }
         String insertStatement = table.createInsertSql(updateFields);
-        try (PreparedStatement statement = connection.prepareStatement(insertStatement)) {
-            addBatch(statement, objects, updateParameters);
-            int[] counts = statement.executeBatch();
-            return IntStream.of(counts).sum();
-        } catch (SQLException e) {
-            throw ExceptionUtil.softenCheckedException(e);
+        int[] counts = table.newStatement("INSERT", insertStatement, Collections.emptyList())
+                .executeBatch(connection, objects, updateParameters);
+        return IntStream.of(counts).sum();
+    }
+
+    /**
+     * Binds the rows by position rather than by object, so an object which occurs more than once
+     * gets a separate id for each row
+     */
+    private int executeWithAllocatedKeys(Connection connection) {
+        List<T> rows = new ArrayList<>();
+        objects.forEach(rows::add);
+        List<Long> ids = idAllocator.nextIds(connection, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            allocatedKeyConsumer.accept(rows.get(i), ids.get(i));
         }
+        List<String> fields = new ArrayList<>();
+        List<Function<Integer, ?>> parameters = new ArrayList<>();
+        fields.add(allocatedKeyColumn);
+        parameters.add(ids::get);
+        for (int i = 0; i < updateFields.size(); i++) {
+            Function<T, ?> parameter = updateParameters.get(i);
+            fields.add(updateFields.get(i));
+            parameters.add(row -> parameter.apply(rows.get(row)));
+        }
+        List<Integer> rowIndexes = IntStream.range(0, rows.size()).boxed().collect(Collectors.toList());
+        int[] counts = table.newStatement("INSERT", table.createInsertSql(fields), Collections.emptyList())
+                .executeBatch(connection, rowIndexes, parameters);
+        return IntStream.of(counts).sum();
+    }
+
+    /**
+     * When called, {@link #execute(Connection)} takes an id for each object from idAllocator,
+     * passes it to the consumer and inserts it into the primaryKeyColumn. As the ids are assigned
+     * before the rows are inserted, they can be used as foreign keys in a following bulk insert
+     * of child rows, without reading generated keys from the database
+     */
+    @CheckReturnValue
+    public DatabaseBulkInsertBuilder<T> allocatePrimaryKeys(String primaryKeyColumn, DatabaseIdAllocator idAllocator, BiConsumer<T, Long> consumer) {
+        this.allocatedKeyColumn = primaryKeyColumn;
+        this.idAllocator = idAllocator;
+        this.allocatedKeyConsumer = consumer;
+        return this;
     }
 
     /**
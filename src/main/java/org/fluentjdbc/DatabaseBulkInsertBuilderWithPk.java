@@ -1,17 +1,12 @@
 package org.fluentjdbc;
 
-import org.fluentjdbc.util.ExceptionUtil;
-
 import java.sql.Connection;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.SQLException;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
-import static org.fluentjdbc.DatabaseStatement.addBatch;
-
 /**
  * Variation of {@link DatabaseBulkInsertBuilder} which executes the statement with a request
  * to return generated primary keys from the database and calls the registered update function
@@ -44,22 +39,19 @@ public class DatabaseBulkInsertBuilderWithPk<T> {
 
     public void execute(Connection connection) {
         String insertStatement = table.createInsertSql(updateFields);
-        try (PreparedStatement statement = connection.prepareStatement(insertStatement, new String[] { primaryKeyColumn })) {
-            addBatch(statement, objects, updateParameters);
-            statement.executeBatch();
-
-            ResultSet generatedKeys = statement.getGeneratedKeys();
-            int i=0;
-            for (T object : objects) {
-                i++;
-                if (!generatedKeys.next()) {
-                    throw new IllegalStateException("Could not find generated keys for row: " + i);
-                }
-                primaryKeyCallback.accept(object, generatedKeys.getLong(1));
-            }
-        } catch (SQLException e) {
-            throw ExceptionUtil.softenCheckedException(e);
-        }
+        table.newStatement("INSERT", insertStatement, Collections.emptyList())
+                .executeBatch(connection, objects, updateParameters, new String[] { primaryKeyColumn }, statement -> {
+                    ResultSet generatedKeys = statement.getGeneratedKeys();
+                    int i=0;
+                    for (T object : objects) {
+                        i++;
+                        if (!generatedKeys.next()) {
+                            throw new IllegalStateException("Could not find generated keys for row: " + i);
+                        }
+                        primaryKeyCallback.accept(object, generatedKeys.getLong(1));
+                    }
+                    return null;
+                });
 
     }
 }
@@ -0,0 +1,267 @@
+package org.fluentjdbc;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Reads a query result column by column into typed arrays of a fixed number of rows instead of
+ * mapping each row to an object. The arrays are allocated once and refilled for each batch, so
+ * the memory used doesn't grow with the number of rows. String columns are dictionary encoded:
+ * each value is stored as an int code into {@link #getDictionary(String)}, which is shared by all
+ * batches so codes can be compared across batches.
+ *
+ * <pre>
+ * DatabaseColumnBatch batch = new DatabaseColumnBatch(10_000)
+ *         .addLongColumn("customer_id")
+ *         .addDoubleColumn("amount")
+ *         .addStringColumn("currency");
+ * table.where("year", 2024).forEachBatch(batch, b -&gt; {
+ *     long[] customers = b.getLongs("customer_id");
+ *     double[] amounts = b.getDoubles("amount");
+ *     for (int i = 0; i &lt; b.size(); i++) {
+ *         totals.merge(customers[i], amounts[i], Double::sum);
+ *     }
+ * });
+ * </pre>
+ *
+ * <p>The arrays are only valid inside the callback and should not be kept, as they are
+ * overwritten by the next batch. Null values are read as 0 (or code -1 for strings), use
+ * {@link #isNull(String, int)} to tell them apart.</p>
+ */
+@ParametersAreNonnullByDefault
+public class DatabaseColumnBatch {
+
+    private enum ColumnType {
+        LONG, INT, DOUBLE, STRING
+    }
+
+    private class Column {
+        private final String name;
+        private final ColumnType type;
+        private final BitSet nulls = new BitSet(capacity);
+        private long[] longs;
+        private int[] ints;
+        private double[] doubles;
+        private Map<String, Integer> codes;
+        private List<String> dictionary;
+        private int index;
+
+        private Column(String name, ColumnType type) {
+            this.name = name;
+            this.type = type;
+            switch (type) {
+                case LONG:
+                    longs = new long[capacity];
+                    break;
+                case DOUBLE:
+                    doubles = new double[capacity];
+                    break;
+                case INT:
+                    ints = new int[capacity];
+                    break;
+                case STRING:
+                    ints = new int[capacity];
+                    codes = new HashMap<>();
+                    dictionary = new ArrayList<>();
+                    break;
+            }
+        }
+
+        private void read(ResultSet resultSet, int row) throws SQLException {
+            switch (type) {
+                case LONG:
+                    longs[row] = resultSet.getLong(index);
+                    break;
+                case INT:
+                    ints[row] = resultSet.getInt(index);
+                    break;
+                case DOUBLE:
+                    doubles[row] = resultSet.getDouble(index);
+                    break;
+                case STRING:
+                    String value = resultSet.getString(index);
+                    ints[row] = value != null ? encode(value) : -1;
+                    break;
+            }
+            nulls.set(row, resultSet.wasNull());
+        }
+
+        private int encode(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = dictionary.size();
+                codes.put(value, code);
+                dictionary.add(value);
+            }
+            return code;
+        }
+    }
+
+    private final int capacity;
+    private final Map<String, Column> columns = new HashMap<>();
+    private final List<Column> columnList = new ArrayList<>();
+    private int size;
+
+    /**
+     * Creates a batch which holds up to capacity rows. The capacity is also used as the fetch
+     * size of the query
+     */
+    public DatabaseColumnBatch(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive, was " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Reads the column with {@link ResultSet#getLong(int)} into {@link #getLongs(String)}
+     */
+    @CheckReturnValue
+    public DatabaseColumnBatch addLongColumn(String column) {
+        return addColumn(column, ColumnType.LONG);
+    }
+
+    /**
+     * Reads the column with {@link ResultSet#getInt(int)} into {@link #getInts(String)}
+     */
+    @CheckReturnValue
+    public DatabaseColumnBatch addIntColumn(String column) {
+        return addColumn(column, ColumnType.INT);
+    }
+
+    /**
+     * Reads the column with {@link ResultSet#getDouble(int)} into {@link #getDoubles(String)}
+     */
+    @CheckReturnValue
+    public DatabaseColumnBatch addDoubleColumn(String column) {
+        return addColumn(column, ColumnType.DOUBLE);
+    }
+
+    /**
+     * Reads the column with {@link ResultSet#getString(int)} and stores each value as a code into
+     * {@link #getDictionary(String)} in {@link #getStringCodes(String)}
+     */
+    @CheckReturnValue
+    public DatabaseColumnBatch addStringColumn(String column) {
+        return addColumn(column, ColumnType.STRING);
+    }
+
+    private DatabaseColumnBatch addColumn(String name, ColumnType type) {
+        Column column = new Column(name, type);
+        if (columns.putIfAbsent(name.toUpperCase(), column) != null) {
+            throw new IllegalArgumentException("Duplicate column " + name);
+        }
+        columnList.add(column);
+        return this;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * The number of rows in the current batch. Only the first size elements of each array are valid
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the indexes of the rows in the current batch, for example to process them with
+     * {@link IntStream#parallel()}
+     */
+    @CheckReturnValue
+    public IntStream rows() {
+        return IntStream.range(0, size);
+    }
+
+    public long[] getLongs(String column) {
+        return getColumn(column, ColumnType.LONG).longs;
+    }
+
+    public int[] getInts(String column) {
+        return getColumn(column, ColumnType.INT).ints;
+    }
+
+    public double[] getDoubles(String column) {
+        return getColumn(column, ColumnType.DOUBLE).doubles;
+    }
+
+    /**
+     * Returns the index into {@link #getDictionary(String)} of the value of each row, or -1 for null
+     */
+    public int[] getStringCodes(String column) {
+        return getColumn(column, ColumnType.STRING).ints;
+    }
+
+    /**
+     * Returns all distinct values read from the column so far, in the order they were first read
+     */
+    public List<String> getDictionary(String column) {
+        return getColumn(column, ColumnType.STRING).dictionary;
+    }
+
+    @Nullable
+    public String getString(String column, int row) {
+        Column stringColumn = getColumn(column, ColumnType.STRING);
+        int code = stringColumn.ints[row];
+        return code >= 0 ? stringColumn.dictionary.get(code) : null;
+    }
+
+    public boolean isNull(String column, int row) {
+        return getColumn(column, null).nulls.get(row);
+    }
+
+    /**
+     * Returns the null bitmap of the column, where the bit of each row with a null value is set
+     */
+    public BitSet getNulls(String column) {
+        return getColumn(column, null).nulls;
+    }
+
+    private Column getColumn(String name, @Nullable ColumnType type) {
+        Column column = columns.get(name.toUpperCase());
+        if (column == null) {
+            throw new IllegalArgumentException("Column " + name + " not in batch");
+        } else if (type != null && column.type != type) {
+            throw new IllegalArgumentException("Column " + name + " is " + column.type + ", not " + type);
+        }
+        return column;
+    }
+
+    /**
+     * Reads all rows of the result into this batch, calling consumer each time the batch is
+     * full and with the remaining rows at the end
+     */
+    void readAll(DatabaseResult result, Consumer<DatabaseColumnBatch> consumer) throws SQLException {
+        if (columnList.isEmpty()) {
+            throw new IllegalStateException("No columns added to batch");
+        }
+        for (Column column : columnList) {
+            column.index = result.resultSet.findColumn(column.name);
+        }
+        size = 0;
+        while (result.next()) {
+            for (Column column : columnList) {
+                column.read(result.resultSet, size);
+            }
+            if (++size == capacity) {
+                consumer.accept(this);
+                size = 0;
+            }
+        }
+        if (size > 0) {
+            consumer.accept(this);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.fluentjdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Observer interface used to monitor when {@link DbContext} gets connections from and returns
+ * connections to the {@link DbContext.ConnectionSupplier}. Register with
+ * {@link DbContext#setConnectionReporter(DatabaseConnectionReporter)}
+ */
+public interface DatabaseConnectionReporter {
+    Logger logger = LoggerFactory.getLogger(DatabaseConnectionReporter.class);
+
+    DatabaseConnectionReporter LOGGING_REPORTER = new DatabaseConnectionReporter() {
+        @Override
+        public void connectionAcquired(long acquireNanos) {
+            logger.trace("time={}s acquire connection", acquireNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public void connectionReleased(long heldNanos) {
+            logger.trace("time={}s release connection", heldNanos / 1_000_000_000.0);
+        }
+
+        @Override
+        public void connectionReleased(long heldNanos, int statementCount) {
+            logger.trace("time={}s statements={} release connection", heldNanos / 1_000_000_000.0, statementCount);
+        }
+    };
+
+    /**
+     * Called when a connection has been returned from the {@link DbContext.ConnectionSupplier}
+     *
+     * @param acquireNanos The time spent waiting for the connection, for example from a pool
+     */
+    void connectionAcquired(long acquireNanos);
+
+    /**
+     * Called when a connection has been closed, returning it to the pool
+     *
+     * @param heldNanos The time from the connection was acquired until it was closed
+     */
+    void connectionReleased(long heldNanos);
+
+    /**
+     * Called by {@link DbContext} when a connection has been closed, with the number of statements
+     * executed while it was held. Statements are only counted for a reporter which has been set
+     * with {@link DbContext#setConnectionReporter(DatabaseConnectionReporter)}. Calls
+     * {@link #connectionReleased(long)} by default
+     *
+     * @param heldNanos The time from the connection was acquired until it was closed
+     * @param statementCount The number of statements executed with the connection
+     */
+    default void connectionReleased(long heldNanos, int statementCount) {
+        connectionReleased(heldNanos);
+    }
+}
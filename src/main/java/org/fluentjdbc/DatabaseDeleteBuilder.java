@@ -24,8 +24,15 @@ public class DatabaseDeleteBuilder {
     }
 
     public int execute(Connection connection) {
-        return table.newStatement("DELETE", "delete from " + table.getTableName() + whereClause.whereClause(), whereClause.getParameters())
-                .executeUpdate(connection);
+        return createStatement().executeUpdate(connection);
+    }
+
+    /**
+     * Creates the <code>DELETE FROM tableName WHERE ...</code> statement without executing it
+     */
+    @CheckReturnValue
+    DatabaseStatement createStatement() {
+        return table.newStatement("DELETE", "delete from " + table.getTableName() + whereClause.whereClause(), whereClause.getParameters());
     }
 
     @CheckReturnValue
@@ -0,0 +1,318 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.util.ExceptionUtil;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * The SQL variations between the databases supported by fluent-jdbc which are needed outside
+ * plain statements, such as how to get the execution plan of a query or compare row values. Use
+ * {@link #fromConnection(Connection)} to find the dialect of a connection.
+ */
+public enum DatabaseDialect {
+    /**
+     * <code>DROP TABLE</code> commits the current transaction, even for temporary tables, so
+     * temporary tables are not used inside transactions
+     */
+    H2("H2", "explain ", true, true, true, 10000, Integer.MAX_VALUE, true, "create local temporary table %s transactional as %s with no data", "select next value for %s") {
+        @Override
+        public boolean supportsTemporaryTablesInTransaction() {
+            return false;
+        }
+    },
+    POSTGRESQL("PostgreSQL", "explain ", true, true, true, 32767, 32767, true, "create temporary table %s as %s with no data", "select nextval('%s')"),
+    HSQLDB("HSQL Database Engine", "explain plan for ", true, true, false, 10000, Integer.MAX_VALUE, false, "declare local temporary table %s as (%s) with no data on commit preserve rows", "call next value for %s") {
+        @Override
+        public String getTemporaryTableName(String tableName) {
+            return "session." + tableName;
+        }
+    },
+    SQLITE("SQLite", "explain query plan ", true, false, true, 999, 999, false, "create temporary table %s as %s limit 0", null),
+    MYSQL("MySQL", "explain ", true, true, true, 10000, 65535, false, "create temporary table %s as %s limit 0", null) {
+        @Override
+        public String dropTemporaryTable(String tableName) {
+            return "drop temporary table " + tableName;
+        }
+    },
+    MARIADB("MariaDB", "explain ", true, true, true, 10000, 65535, false, "create temporary table %s as %s limit 0", "select next value for %s") {
+        @Override
+        public String dropTemporaryTable(String tableName) {
+            return "drop temporary table " + tableName;
+        }
+    },
+    /**
+     * <code>EXPLAIN PLAN</code> doesn't accept bind values, so {@link #explain} replaces the
+     * parameters with unbound bind variables and the plan doesn't depend on the parameter values
+     */
+    ORACLE("Oracle", "explain plan for ", false, true, true, 1000, 65535, false, null, "select %s.nextval from dual") {
+        @Override
+        public String explain(Connection connection, String sql, Collection<?> parameters) {
+            try {
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.execute(getExplainPrefix() + toNumberedBindVariables(sql));
+                }
+                try (PreparedStatement stmt = connection.prepareStatement("select plan_table_output from table(dbms_xplan.display())")) {
+                    return readPlan(stmt);
+                }
+            } catch (SQLException e) {
+                throw ExceptionUtil.softenCheckedException(e);
+            }
+        }
+    },
+    /**
+     * SQL Server requires <code>SET SHOWPLAN_TEXT ON</code> in a separate batch and doesn't allow
+     * parameters in the explained statement, so {@link #explain} is not supported
+     */
+    SQL_SERVER("Microsoft SQL Server", null, false, false, true, 2000, 2100, false, null, "select next value for %s"),
+    UNKNOWN(null, null, false, false, false, 1000, Integer.MAX_VALUE, false, null, null);
+
+    private final String productName;
+    private final String explainPrefix;
+    private final boolean rowValueComparison;
+    private final boolean rowValueInList;
+    private final boolean windowFunctions;
+    private final int maxInListParameters;
+    private final int maxStatementParameters;
+    private final boolean arrayParameters;
+    private final String temporaryTableFormat;
+    private final String nextSequenceValueFormat;
+
+    DatabaseDialect(@Nullable String productName, @Nullable String explainPrefix, boolean rowValueComparison, boolean rowValueInList, boolean windowFunctions, int maxInListParameters, int maxStatementParameters, boolean arrayParameters, @Nullable String temporaryTableFormat, @Nullable String nextSequenceValueFormat) {
+        this.productName = productName;
+        this.explainPrefix = explainPrefix;
+        this.rowValueComparison = rowValueComparison;
+        this.rowValueInList = rowValueInList;
+        this.windowFunctions = windowFunctions;
+        this.maxInListParameters = maxInListParameters;
+        this.maxStatementParameters = maxStatementParameters;
+        this.arrayParameters = arrayParameters;
+        this.temporaryTableFormat = temporaryTableFormat;
+        this.nextSequenceValueFormat = nextSequenceValueFormat;
+    }
+
+    /**
+     * Returns the dialect matching {@link java.sql.DatabaseMetaData#getDatabaseProductName()}
+     */
+    @CheckReturnValue
+    @Nonnull
+    public static DatabaseDialect fromConnection(Connection connection) {
+        try {
+            return fromProductName(connection.getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            throw ExceptionUtil.softenCheckedException(e);
+        }
+    }
+
+    @CheckReturnValue
+    @Nonnull
+    public static DatabaseDialect fromProductName(@Nullable String databaseProductName) {
+        if (databaseProductName != null) {
+            for (DatabaseDialect dialect : values()) {
+                if (dialect.productName != null && databaseProductName.startsWith(dialect.productName)) {
+                    return dialect;
+                }
+            }
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * The prefix which turns a statement into a statement returning the execution plan, or null
+     * if not supported
+     */
+    @Nullable
+    public String getExplainPrefix() {
+        return explainPrefix;
+    }
+
+    public boolean supportsExplain() {
+        return explainPrefix != null;
+    }
+
+    /**
+     * True if the database can compare row values, like <code>(a, b) &gt; (?, ?)</code>, which
+     * lets the database use a composite index for {@link DatabaseSelectBuilder#seekAfter}
+     */
+    public boolean supportsRowValueComparison() {
+        return rowValueComparison;
+    }
+
+    /**
+     * True if the database supports lists of row values, like <code>(a, b) IN ((?, ?), (?, ?))</code>,
+     * which {@link DatabaseQueryable#whereIn(List, Collection, DatabaseDialect)} uses for composite keys
+     */
+    public boolean supportsRowValueInList() {
+        return rowValueInList;
+    }
+
+    /**
+     * True if the database supports window functions, like <code>count(*) over ()</code>, which
+     * lets {@link DatabaseSelectBuilder#listWithTotal} read the total count with the page. Requires
+     * SQLite 3.25, MySQL 8 or MariaDB 10.2
+     */
+    public boolean supportsWindowFunctions() {
+        return windowFunctions;
+    }
+
+    /**
+     * The number of parameters to use in one <code>IN (?, ?, ...)</code> list. This is the limit for
+     * the list on Oracle (1000) and for the whole statement on SQLite (999) and SQL Server (2100, less
+     * room for other parameters). For other databases, it keeps statements at a reasonable size
+     */
+    public int getMaxInListParameters() {
+        return maxInListParameters;
+    }
+
+    /**
+     * The number of parameters the database or driver allows in one statement, such as 2100 for
+     * SQL Server and 999 for older versions of SQLite. {@link Integer#MAX_VALUE} if there is no
+     * practical limit
+     */
+    public int getMaxStatementParameters() {
+        return maxStatementParameters;
+    }
+
+    /**
+     * True if the database can compare a column with an array parameter, like
+     * <code>id = ANY(?)</code>, which lets {@link DatabaseInListStrategy#ARRAY} use the same
+     * statement for any number of values
+     */
+    public boolean supportsArrayParameters() {
+        return arrayParameters;
+    }
+
+    /**
+     * True if {@link #createTemporaryTable} is supported
+     */
+    public boolean supportsTemporaryTables() {
+        return temporaryTableFormat != null;
+    }
+
+    /**
+     * True if {@link #createTemporaryTable} and {@link #dropTemporaryTable} can be used inside a
+     * transaction without committing it
+     */
+    public boolean supportsTemporaryTablesInTransaction() {
+        return supportsTemporaryTables();
+    }
+
+    /**
+     * The name used to refer to a temporary table in statements
+     */
+    public String getTemporaryTableName(String tableName) {
+        return tableName;
+    }
+
+    /**
+     * Returns the statement which creates an empty temporary table for the current connection,
+     * with the columns of the query
+     *
+     * @throws UnsupportedOperationException if {@link #supportsTemporaryTables()} is false
+     */
+    @CheckReturnValue
+    public String createTemporaryTable(String tableName, String query) {
+        if (!supportsTemporaryTables()) {
+            throw new UnsupportedOperationException("Temporary tables not supported for " + this);
+        }
+        return String.format(temporaryTableFormat, tableName, query);
+    }
+
+    /**
+     * Returns the statement which drops a table created with {@link #createTemporaryTable}
+     */
+    @CheckReturnValue
+    public String dropTemporaryTable(String tableName) {
+        return "drop table " + tableName;
+    }
+
+    /**
+     * True if {@link #selectNextSequenceValue} is supported
+     */
+    public boolean supportsSequences() {
+        return nextSequenceValueFormat != null;
+    }
+
+    /**
+     * Returns the statement which selects the next value of a sequence as a single row and column
+     *
+     * @throws UnsupportedOperationException if {@link #supportsSequences()} is false
+     */
+    @CheckReturnValue
+    public String selectNextSequenceValue(String sequenceName) {
+        if (!supportsSequences()) {
+            throw new UnsupportedOperationException("Sequences not supported for " + this);
+        }
+        return String.format(nextSequenceValueFormat, sequenceName);
+    }
+
+    /**
+     * Returns the execution plan for the SQL statement with the parameters as text with one line
+     * per row. The statement itself is not executed
+     *
+     * @throws UnsupportedOperationException if {@link #supportsExplain()} is false
+     */
+    @CheckReturnValue
+    public String explain(Connection connection, String sql, Collection<?> parameters) {
+        if (!supportsExplain()) {
+            throw new UnsupportedOperationException("EXPLAIN not supported for " + this);
+        }
+        try (PreparedStatement stmt = connection.prepareStatement(explainPrefix + sql)) {
+            DatabaseStatement.bindParameters(stmt, parameters);
+            return readPlan(stmt);
+        } catch (SQLException e) {
+            throw ExceptionUtil.softenCheckedException(e);
+        }
+    }
+
+    /**
+     * Replaces each <code>?</code> outside of string literals and quoted identifiers with
+     * <code>:1</code>, <code>:2</code> and so on
+     */
+    static String toNumberedBindVariables(String sql) {
+        StringBuilder result = new StringBuilder(sql.length() + 16);
+        int parameter = 0;
+        char quote = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+                result.append(c);
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+                result.append(c);
+            } else if (c == '?') {
+                result.append(':').append(++parameter);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static String readPlan(PreparedStatement stmt) throws SQLException {
+        StringJoiner plan = new StringJoiner("\n");
+        try (ResultSet rs = stmt.executeQuery()) {
+            int columnCount = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                StringJoiner row = new StringJoiner(" ");
+                for (int i = 1; i <= columnCount; i++) {
+                    row.add(String.valueOf(rs.getObject(i)));
+                }
+                plan.add(row.toString());
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,128 @@
+package org.fluentjdbc;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Assembles consecutive rows with the same parent key into one parent with a list of children,
+ * for {@link DatabaseJoinedQueryBuilder#streamGrouped}. The parent mapper is only called for the
+ * first row of each group and only one group is held in memory at a time.
+ */
+@ParametersAreNonnullByDefault
+class DatabaseGroupingIterator<P, C, R> implements Iterator<R> {
+
+    private final Iterator<GroupedRow<P, C>> rows;
+    private final BiFunction<P, List<C>, R> combiner;
+    private GroupedRow<P, C> lookahead;
+
+    private DatabaseGroupingIterator(Iterator<GroupedRow<P, C>> rows, BiFunction<P, List<C>, R> combiner) {
+        this.rows = rows;
+        this.combiner = combiner;
+        this.lookahead = rows.hasNext() ? rows.next() : null;
+    }
+
+    /**
+     * Groups the rows of the query executed by executeQuery. The returned stream closes the
+     * underlying stream when closed
+     */
+    static <P, C, R> Stream<R> group(
+            DatabaseColumnReference parentKey,
+            DatabaseResult.RowMapper<P> parentMapper,
+            DatabaseResult.RowMapper<C> childMapper,
+            BiFunction<P, List<C>, R> combiner,
+            Function<DatabaseResult.RowMapper<GroupedRow<P, C>>, Stream<GroupedRow<P, C>>> executeQuery
+    ) {
+        Stream<GroupedRow<P, C>> rows = executeQuery.apply(new GroupedRowMapper<>(parentKey, parentMapper, childMapper));
+        try {
+            Iterator<R> iterator = new DatabaseGroupingIterator<>(rows.iterator(), combiner);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                    .onClose(rows::close);
+        } catch (RuntimeException e) {
+            rows.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return lookahead != null;
+    }
+
+    @Override
+    public R next() {
+        if (lookahead == null) {
+            throw new NoSuchElementException();
+        }
+        GroupedRow<P, C> first = lookahead;
+        List<C> children = new ArrayList<>();
+        GroupedRow<P, C> row = first;
+        while (true) {
+            if (row.child != null) {
+                children.add(row.child);
+            }
+            if (!rows.hasNext()) {
+                lookahead = null;
+                break;
+            }
+            row = rows.next();
+            if (!Objects.equals(row.key, first.key)) {
+                lookahead = row;
+                break;
+            }
+        }
+        return combiner.apply(first.parent, children);
+    }
+
+    static class GroupedRow<P, C> {
+        private final Object key;
+        private final P parent;
+        private final C child;
+
+        private GroupedRow(@Nullable Object key, @Nullable P parent, @Nullable C child) {
+            this.key = key;
+            this.parent = parent;
+            this.child = child;
+        }
+    }
+
+    /**
+     * Maps the parent only when the key differs from the previous row
+     */
+    private static class GroupedRowMapper<P, C> implements DatabaseResult.RowMapper<GroupedRow<P, C>> {
+        private final DatabaseColumnReference parentKey;
+        private final DatabaseResult.RowMapper<P> parentMapper;
+        private final DatabaseResult.RowMapper<C> childMapper;
+        private boolean first = true;
+        private Object previousKey;
+
+        private GroupedRowMapper(DatabaseColumnReference parentKey, DatabaseResult.RowMapper<P> parentMapper, DatabaseResult.RowMapper<C> childMapper) {
+            this.parentKey = parentKey;
+            this.parentMapper = parentMapper;
+            this.childMapper = childMapper;
+        }
+
+        @Override
+        public GroupedRow<P, C> mapRow(DatabaseRow row) throws SQLException {
+            Object key = row.table(parentKey.getTableAlias().getAlias()).getObject(parentKey.getColumnName());
+            P parent = null;
+            if (first || !Objects.equals(key, previousKey)) {
+                parent = parentMapper.mapRow(row);
+                first = false;
+                previousKey = key;
+            }
+            return new GroupedRow<>(key, parent, childMapper.mapRow(row));
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.util.ExceptionUtil;
+
+import javax.annotation.CheckReturnValue;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out <code>Long</code> primary keys from blocks reserved in the database, so the ids of new rows
+ * are known before they are inserted. This lets {@link DatabaseBulkInsertBuilder} insert parent
+ * and child rows in batches instead of reading the generated key of each parent row, and avoids a
+ * round trip to the database for all but one id in each block. Ids are handed out from memory with
+ * an atomic increment. Only the thread which finds the block used up reserves a new block.
+ *
+ * <p>Use {@link #fromSequence} with a sequence which increments by the block size:</p>
+ *
+ * <pre>
+ * // create sequence order_seq start with 1 increment by 100
+ * DatabaseIdAllocator orderIds = DatabaseIdAllocator.fromSequence("order_seq", 100);
+ * orderTable.bulkInsert(orders)
+ *      .allocatePrimaryKeys("id", orderIds, Order::setId)
+ *      .setField("customer_id", Order::getCustomerId)
+ *      .execute(connection);
+ * orderLineTable.bulkInsert(orderLines)
+ *      .setField("order_id", line -&gt; line.getOrder().getId())
+ *      ...
+ * </pre>
+ *
+ * <p>On databases without sequences, use {@link #fromHiLoTable} with a table with a row for each
+ * allocator. Ids which are handed out but not inserted, for example when the application is
+ * restarted, leave gaps in the keys.</p>
+ */
+public class DatabaseIdAllocator {
+
+    /**
+     * Reserves the block of blockSize ids starting with the returned value
+     */
+    @FunctionalInterface
+    public interface BlockReservation {
+        long reserveBlock(Connection connection, int blockSize) throws SQLException;
+    }
+
+    private final int blockSize;
+    private final BlockReservation reservation;
+    private final AtomicReference<Block> currentBlock = new AtomicReference<>(new Block(0, 0));
+
+    public DatabaseIdAllocator(int blockSize, BlockReservation reservation) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize must be positive, was " + blockSize);
+        }
+        this.blockSize = blockSize;
+        this.reservation = reservation;
+    }
+
+    /**
+     * Reserves blocks with the next value of the sequence, which must be created with
+     * <code>INCREMENT BY blockSize</code>. Uses the {@link DatabaseDialect} of the connection
+     * to select the next value
+     */
+    @CheckReturnValue
+    public static DatabaseIdAllocator fromSequence(String sequenceName, int blockSize) {
+        return new DatabaseIdAllocator(blockSize, (connection, size) -> {
+            try (PreparedStatement stmt = connection.prepareStatement(DatabaseDialect.fromConnection(connection).selectNextSequenceValue(sequenceName))) {
+                return readLong(stmt);
+            }
+        });
+    }
+
+    /**
+     * Reserves blocks by incrementing <code>next_value</code> in the row of tableName where
+     * <code>name</code> is keyName, creating the row if needed. Each block is reserved in a
+     * separate transaction with a connection from connectionSupplier, so the reservation is not
+     * rolled back with the transaction which inserts the rows. The table must be created with
+     * <code>create table tableName (name varchar(100) primary key, next_value bigint not null)</code>
+     */
+    @CheckReturnValue
+    public static DatabaseIdAllocator fromHiLoTable(DbContext.ConnectionSupplier connectionSupplier, String tableName, String keyName, int blockSize) {
+        return new DatabaseIdAllocator(blockSize, (ignored, size) -> {
+            try (Connection connection = connectionSupplier.getConnection()) {
+                boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    for (int attempt = 1; ; attempt++) {
+                        try {
+                            long start = reserveHiLoBlock(connection, tableName, keyName, size);
+                            connection.commit();
+                            return start;
+                        } catch (SQLException e) {
+                            connection.rollback();
+                            // another process may have created the row first
+                            if (attempt >= 2) {
+                                throw e;
+                            }
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+            }
+        });
+    }
+
+    private static long reserveHiLoBlock(Connection connection, String tableName, String keyName, int blockSize) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("update " + tableName + " set next_value = next_value + ? where name = ?")) {
+            stmt.setLong(1, blockSize);
+            stmt.setString(2, keyName);
+            if (stmt.executeUpdate() == 0) {
+                try (PreparedStatement insert = connection.prepareStatement("insert into " + tableName + " (name, next_value) values (?, ?)")) {
+                    insert.setString(1, keyName);
+                    insert.setLong(2, 1L + blockSize);
+                    insert.executeUpdate();
+                }
+                return 1L;
+            }
+        }
+        try (PreparedStatement stmt = connection.prepareStatement("select next_value from " + tableName + " where name = ?")) {
+            stmt.setString(1, keyName);
+            return readLong(stmt) - blockSize;
+        }
+    }
+
+    private static long readLong(PreparedStatement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            if (!rs.next()) {
+                throw new IllegalStateException("No value returned by " + stmt);
+            }
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Returns the next id, reserving a new block with connection if the current block is used up
+     */
+    @CheckReturnValue
+    public long nextId(Connection connection) {
+        while (true) {
+            Block block = currentBlock.get();
+            long id = block.next.getAndIncrement();
+            if (id < block.end) {
+                return id;
+            }
+            synchronized (this) {
+                if (currentBlock.get() == block) {
+                    currentBlock.set(reserveBlock(connection));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the next count ids
+     */
+    @CheckReturnValue
+    public List<Long> nextIds(Connection connection, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(nextId(connection));
+        }
+        return ids;
+    }
+
+    private Block reserveBlock(Connection connection) {
+        try {
+            long start = reservation.reserveBlock(connection, blockSize);
+            return new Block(start, start + blockSize);
+        } catch (SQLException e) {
+            throw ExceptionUtil.softenCheckedException(e);
+        }
+    }
+
+    private static class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package org.fluentjdbc;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+
+import static org.fluentjdbc.DatabaseStatement.parameterString;
+
+/**
+ * How {@link DatabaseQueryable#whereIn(String, Collection, DatabaseDialect)} turns a collection of
+ * values into a <code>WHERE</code>-expression. With one <code>?</code> per value, each size of the
+ * collection gives a different SQL statement, which defeats the statement cache of the driver and
+ * the plan cache of the database, and large collections exceed the parameter limits of Oracle and
+ * SQL Server. {@link #forDialect} chooses the best strategy for the database and the values.
+ * Splitting into several <code>IN</code>-lists only helps with the per-list limit of Oracle: If
+ * the parameters exceed {@link DatabaseDialect#getMaxStatementParameters()}, as with more than 2100
+ * values for SQL Server, an {@link IllegalArgumentException} is thrown instead of creating a
+ * statement which can't be executed. Use {@link DatabaseTableQueryBuilder#listWhereIn} (or
+ * {@link DatabaseTableQueryBuilder#listByKeys} for composite keys) to run separate queries for
+ * such collections.
+ *
+ * <pre>
+ * DatabaseDialect dialect = DatabaseDialect.fromConnection(connection);
+ * table.whereIn("id", ids, dialect).list(connection, row -&gt; row.getLong("id"));
+ * </pre>
+ */
+public enum DatabaseInListStrategy {
+    /**
+     * <code>fieldName IN (?, ?, ?)</code> with one parameter per value
+     */
+    EXPANDED {
+        @Override
+        public DatabaseQueryParameter createParameter(String fieldName, Collection<?> values, DatabaseDialect dialect) {
+            return checkParameterCount(inList(fieldName, new ArrayList<>(values), values.size()), dialect);
+        }
+    },
+    /**
+     * <code>fieldName IN (?, ?, ?, ?)</code> with the number of parameters rounded up to a power of
+     * two by repeating the last value, so the number of distinct statements grows with the logarithm
+     * of the collection size. Collections larger than {@link DatabaseDialect#getMaxInListParameters()}
+     * are split into several lists, combined as <code>(fieldName IN (...) OR fieldName IN (...))</code>
+     */
+    PADDED {
+        @Override
+        public DatabaseQueryParameter createParameter(String fieldName, Collection<?> values, DatabaseDialect dialect) {
+            return checkParameterCount(inList(fieldName, new ArrayList<>(values), dialect.getMaxInListParameters()), dialect);
+        }
+    },
+    /**
+     * <code>fieldName = ANY(?)</code> with all values bound as one SQL array, which gives the same
+     * statement for all collection sizes. Requires {@link DatabaseDialect#supportsArrayParameters()}
+     * and values of type Integer, Long, String or UUID
+     */
+    ARRAY {
+        @Override
+        public DatabaseQueryParameter createParameter(String fieldName, Collection<?> values, DatabaseDialect dialect) {
+            return new DatabaseQueryParameter("(" + fieldName + " = ANY(?))", Collections.singletonList(new ArrayList<>(values)));
+        }
+    };
+
+    /**
+     * Returns the <code>WHERE</code>-expression and parameters matching rows where fieldName is
+     * one of the values. The collection must not be empty
+     */
+    @CheckReturnValue
+    public abstract DatabaseQueryParameter createParameter(String fieldName, Collection<?> values, DatabaseDialect dialect);
+
+    /**
+     * Returns {@link #ARRAY} if the database {@link DatabaseDialect#supportsArrayParameters()} and
+     * all the values can be bound as an array, otherwise {@link #PADDED}
+     */
+    @CheckReturnValue
+    @Nonnull
+    public static DatabaseInListStrategy forDialect(DatabaseDialect dialect, Collection<?> values) {
+        if (dialect.supportsArrayParameters() && !values.isEmpty() && isArrayType(values)) {
+            return ARRAY;
+        }
+        return PADDED;
+    }
+
+    /**
+     * Returns the <code>WHERE</code>-expression and parameters matching rows where the columns
+     * equal one of the tuples, as <code>(a, b) IN ((?, ?), (?, ?))</code> if the database
+     * {@link DatabaseDialect#supportsRowValueInList()}, otherwise as
+     * <code>((a = ? AND b = ?) OR (a = ? AND b = ?))</code>. Row value lists longer than
+     * {@link DatabaseDialect#getMaxInListParameters()} are split into several lists combined with
+     * <code>OR</code>. The collection must not be empty
+     *
+     * @throws IllegalArgumentException if the parameters exceed {@link DatabaseDialect#getMaxStatementParameters()}
+     */
+    @CheckReturnValue
+    public static DatabaseQueryParameter rowValues(List<String> columns, Collection<? extends List<?>> tuples, DatabaseDialect dialect) {
+        List<Object> parameters = new ArrayList<>();
+        for (List<?> tuple : tuples) {
+            if (tuple.size() != columns.size()) {
+                throw new IllegalArgumentException("Expected " + columns.size() + " values for " + columns + ", was " + tuple);
+            }
+            parameters.addAll(tuple);
+        }
+        StringJoiner expression = new StringJoiner(" OR ", "(", ")");
+        if (dialect.supportsRowValueInList()) {
+            String rowValue = "(" + parameterString(columns.size()) + ")";
+            int chunkSize = Math.max(1, dialect.getMaxInListParameters() / columns.size());
+            for (int start = 0; start < tuples.size(); start += chunkSize) {
+                StringJoiner rowValues = new StringJoiner(", ", "(" + String.join(", ", columns) + ") IN (", ")");
+                for (int i = start; i < Math.min(tuples.size(), start + chunkSize); i++) {
+                    rowValues.add(rowValue);
+                }
+                expression.add(rowValues.toString());
+            }
+        } else {
+            StringJoiner rowValue = new StringJoiner(" AND ", "(", ")");
+            columns.forEach(column -> rowValue.add(column + " = ?"));
+            for (int i = 0; i < tuples.size(); i++) {
+                expression.add(rowValue.toString());
+            }
+        }
+        return checkParameterCount(new DatabaseQueryParameter(expression.toString(), parameters), dialect);
+    }
+
+    private static DatabaseQueryParameter checkParameterCount(DatabaseQueryParameter parameter, DatabaseDialect dialect) {
+        if (parameter.getParameters().size() > dialect.getMaxStatementParameters()) {
+            throw new IllegalArgumentException(parameter.getParameters().size() + " parameters exceeds the limit of "
+                    + dialect.getMaxStatementParameters() + " for " + dialect + ", use listWhereIn (or listByKeys for composite keys) to split into several queries");
+        }
+        return parameter;
+    }
+
+    private static boolean isArrayType(Collection<?> values) {
+        Class<?> type = null;
+        for (Object value : values) {
+            if (value == null) {
+                return false;
+            } else if (type == null) {
+                type = value.getClass();
+                if (type != Integer.class && type != Long.class && type != String.class && type != UUID.class) {
+                    return false;
+                }
+            } else if (type != value.getClass()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static DatabaseQueryParameter inList(String fieldName, List<?> values, int chunkSize) {
+        List<Object> parameters = new ArrayList<>();
+        StringJoiner expression = new StringJoiner(" OR ", "(", ")");
+        for (int start = 0; start < values.size(); start += chunkSize) {
+            List<?> chunk = values.subList(start, Math.min(values.size(), start + chunkSize));
+            int size = Math.min(bucketSize(chunk.size()), chunkSize);
+            parameters.addAll(chunk);
+            for (int i = chunk.size(); i < size; i++) {
+                parameters.add(chunk.get(chunk.size() - 1));
+            }
+            expression.add(fieldName + " IN (" + parameterString(size) + ")");
+        }
+        return new DatabaseQueryParameter(expression.toString(), parameters);
+    }
+
+    /**
+     * The smallest power of two which is at least size
+     */
+    static int bucketSize(int size) {
+        return size <= 1 ? 1 : Integer.highestOneBit(size - 1) << 1;
+    }
+}
@@ -88,9 +88,15 @@ public class DatabaseInsertBuilder implements DatabaseUpdatable<DatabaseInsertBu
      * to bind parameters and execute statement
      */
     public int execute(Connection connection) {
-        return table
-                .newStatement("INSERT", createInsertStatement(), getParameters())
-                .executeUpdate(connection);
+        return createStatement().executeUpdate(connection);
+    }
+
+    /**
+     * Creates the <code>INSERT</code> statement without executing it
+     */
+    @CheckReturnValue
+    DatabaseStatement createStatement() {
+        return table.newStatement("INSERT", createInsertStatement(), getParameters());
     }
 
     /**
@@ -9,10 +9,12 @@ import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -26,7 +28,8 @@ import java.util.stream.Stream;
  * as this is used to calculate column indexes for aliased tables. This includes PostgreSQL, H2, HSQLDB, and SQLite,
  * but not Oracle or SQL Server.</p>
  *
- * <p>Pull requests are welcome for a substitute for SQL Server and Oracle.</p>
+ * <p>With {@link #select(DatabaseColumnReference...)}, only the specified columns are selected, and
+ * the column indexes are calculated from the select list instead, which works with all drivers.</p>
  *
  * <h2>Usage example:</h2>
  *
@@ -52,6 +55,7 @@ public class DatabaseJoinedQueryBuilder implements
     protected final List<JoinedTable> joinedTables = new ArrayList<>();
     protected final DatabaseWhereBuilder whereBuilder = new DatabaseWhereBuilder();
     protected final List<String> orderByClauses = new ArrayList<>();
+    protected final List<DatabaseColumnReference> selectColumns = new ArrayList<>();
     protected Integer offset;
     protected Integer rowCount;
 
@@ -60,6 +64,34 @@ public class DatabaseJoinedQueryBuilder implements
         this.tableAlias = tableAlias;
     }
 
+    /**
+     * Selects only the specified columns instead of <code>select *</code>, as
+     * <code>select p.name as p__name, o.id as o__id ...</code>. The rows can still be read with
+     * <code>row.table(p).getString("name")</code>. The first joined column of each joined table is
+     * always selected, to tell if an outer join returned a row. Example:
+     *
+     * <pre>
+     * m.join(m.column("person_id"), p.column("id"))
+     *      .select(p.column("name"), m.column("status"))
+     *      .list(connection, row -&gt; row.table(p).getString("name") + " " + row.table(m).getString("status"));
+     * </pre>
+     *
+     * @throws IllegalArgumentException if a column is from a table alias which is not joined yet
+     */
+    @CheckReturnValue
+    public DatabaseJoinedQueryBuilder select(DatabaseColumnReference... columns) {
+        for (DatabaseColumnReference column : columns) {
+            String alias = column.getTableAlias().getAlias();
+            boolean joined = tableAlias.getAlias().equalsIgnoreCase(alias)
+                    || joinedTables.stream().anyMatch(t -> t.joinedTable.getAlias().equalsIgnoreCase(alias));
+            if (!joined) {
+                throw new IllegalArgumentException("Table alias " + alias + " of column " + column.getColumnName() + " is not part of the query");
+            }
+        }
+        selectColumns.addAll(Arrays.asList(columns));
+        return this;
+    }
+
     /**
      * If you haven't called {@link #orderBy}, the results of {@link DatabaseListableQueryBuilder#list}
      * will be unpredictable. Call <code>unordered()</code> if you are okay with this.
@@ -222,6 +254,44 @@ public class DatabaseJoinedQueryBuilder implements
         return list(connection, mapper).stream();
     }
 
+    /**
+     * Streams one object per parent row of a one-to-many join, with the children from all the
+     * rows of the parent. The rows must be ordered so the rows of each parent are consecutive, if
+     * no {@link #orderBy} is specified, the query is ordered by parentKey. Rows are grouped as they
+     * are read, so only one parent and its children are held in memory. The parentMapper is called
+     * for the first row of each parent, and the childMapper for each row; return null from
+     * the childMapper for outer joined rows without a child. Example:
+     *
+     * <pre>
+     * Stream&lt;Order&gt; orders = o.leftJoin(o.column("id"), l.column("order_id"))
+     *     .streamGrouped(connection, o.column("id"),
+     *          row -&gt; toOrder(row.table(o)),
+     *          row -&gt; row.table(l, OrderLine::new).orElse(null),
+     *          Order::withLines);
+     * </pre>
+     *
+     * <p>The stream holds the {@link java.sql.ResultSet} open until it is consumed or closed.</p>
+     */
+    @CheckReturnValue
+    public <P, C, R> Stream<R> streamGrouped(
+            Connection connection,
+            DatabaseColumnReference parentKey,
+            DatabaseResult.RowMapper<P> parentMapper,
+            DatabaseResult.RowMapper<C> childMapper,
+            BiFunction<P, List<C>, R> combiner
+    ) {
+        if (orderByClauses.isEmpty()) {
+            orderBy(parentKey);
+        }
+        if (!selectColumns.isEmpty() && selectColumns.stream().noneMatch(c -> c.getQualifiedColumnName().equalsIgnoreCase(parentKey.getQualifiedColumnName()))) {
+            selectColumns.add(parentKey);
+        }
+        return DatabaseGroupingIterator.group(
+                parentKey, parentMapper, childMapper, combiner,
+                groupedRowMapper -> createSelect().stream(connection, this::createResult, groupedRowMapper)
+        );
+    }
+
     /**
      * Execute the query and map each return value over the {@link DatabaseResult.RowMapper} function to return a list. Example:
      * <pre>
@@ -246,6 +316,36 @@ public class DatabaseJoinedQueryBuilder implements
         });
     }
 
+    /**
+     * Returns the rows from offset to offset + limit together with the total number of rows matched
+     * by the query. If the database {@link DatabaseDialect#supportsWindowFunctions()}, the total is
+     * read from <code>count(*) over ()</code> in the same query, otherwise the rows are counted
+     * with a separate <code>select count(*)</code> on the same connection
+     *
+     * @see DatabaseSelectBuilder#listWithTotal
+     */
+    @CheckReturnValue
+    public <T> DatabasePage<T> listWithTotal(Connection connection, int offset, int limit, DatabaseResult.RowMapper<T> mapper) {
+        skipAndLimit(offset, limit);
+        if (!DatabaseDialect.fromConnection(connection).supportsWindowFunctions()) {
+            int totalCount = getCount(connection);
+            return new DatabasePage<>(offset < totalCount ? list(connection, mapper) : new ArrayList<>(), offset, totalCount);
+        }
+        List<String> columns = new ArrayList<>();
+        if (selectColumns.isEmpty()) {
+            columns.add(tableAlias.getAlias() + ".*");
+            joinedTables.forEach(joined -> columns.add(joined.getAlias().getAlias() + ".*"));
+        } else {
+            columns.add(selectList());
+        }
+        columns.add("count(*) over () as " + DatabasePage.TOTAL_COUNT_COLUMN);
+        String selectStatement = createSelectStatement(String.join(", ", columns));
+        DatabasePage.TotalCountMapper<T> totalCountMapper = new DatabasePage.TotalCountMapper<>(mapper);
+        List<T> items = table.newStatement("SELECT", selectStatement, whereBuilder.getParameters())
+                .query(connection, this::createResult, result -> result.list(totalCountMapper));
+        return totalCountMapper.toPage(items, offset, () -> getCount(connection));
+    }
+
     /**
      * Executes <code>SELECT count(*) FROM ...</code> on the query and returns the result
      */
@@ -263,6 +363,9 @@ public class DatabaseJoinedQueryBuilder implements
      */
     @CheckReturnValue
     protected DatabaseResult createResult(@Nonnull PreparedStatement statement) throws SQLException {
+        if (!selectColumns.isEmpty()) {
+            return createProjectedResult(statement);
+        }
         List<DatabaseTableAlias> aliases = new ArrayList<>();
         aliases.add(tableAlias);
         joinedTables.stream().map(JoinedTable::getAlias).forEach(aliases::add);
@@ -276,6 +379,10 @@ public class DatabaseJoinedQueryBuilder implements
         // Unfortunately, even though the database should know the alias for each table, JDBC doesn't reveal it
         ResultSetMetaData metaData = resultSet.getMetaData();
         for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (metaData.getColumnLabel(i).equalsIgnoreCase(DatabasePage.TOTAL_COUNT_COLUMN)) {
+                columnIndexes.put(DatabasePage.TOTAL_COUNT_COLUMN.toUpperCase(), i);
+                continue;
+            }
             while (!metaData.getTableName(i).equalsIgnoreCase(aliases.get(index).getTableName())) {
                 index++;
                 if (index == aliases.size()) {
@@ -304,9 +411,73 @@ public class DatabaseJoinedQueryBuilder implements
         return new DatabaseResult(statement, resultSet, columnIndexes, aliasColumnIndexes, keys);
     }
 
+    /**
+     * Executes the <code>SELECT p.name as p__name ...</code> statement from {@link #select(DatabaseColumnReference...)}
+     * and calculates column indexes from the position of each column in the select list
+     */
+    @CheckReturnValue
+    protected DatabaseResult createProjectedResult(@Nonnull PreparedStatement statement) throws SQLException {
+        Map<String, Integer> columnIndexes = new HashMap<>();
+        Map<String, Map<String, Integer>> aliasColumnIndexes = new HashMap<>();
+        aliasColumnIndexes.put(tableAlias.getAlias().toUpperCase(), new HashMap<>());
+        joinedTables.forEach(t -> aliasColumnIndexes.put(t.joinedTable.getAlias().toUpperCase(), new HashMap<>()));
+
+        List<DatabaseColumnReference> projection = projection();
+        for (int i = 0; i < projection.size(); i++) {
+            DatabaseColumnReference column = projection.get(i);
+            String columnName = column.getColumnName().toUpperCase();
+            aliasColumnIndexes.get(column.getTableAlias().getAlias().toUpperCase()).putIfAbsent(columnName, i + 1);
+            columnIndexes.putIfAbsent(columnName, i + 1);
+        }
+        ResultSet resultSet = statement.executeQuery();
+        ResultSetMetaData metaData = resultSet.getMetaData();
+        for (int i = projection.size() + 1; i <= metaData.getColumnCount(); i++) {
+            columnIndexes.put(metaData.getColumnLabel(i).toUpperCase(), i);
+        }
+
+        Map<DatabaseTableAlias, Integer> keys = new HashMap<>();
+        for (JoinedTable table : joinedTables) {
+            String tableAlias = table.joinedTable.getAlias().toUpperCase();
+            keys.put(table.joinedTable, aliasColumnIndexes.get(tableAlias).get(table.rightFields.get(0).toUpperCase()));
+        }
+        return new DatabaseResult(statement, resultSet, columnIndexes, aliasColumnIndexes, keys);
+    }
+
+    /**
+     * The columns from {@link #select(DatabaseColumnReference...)} and the first joined column of
+     * each joined table, if not already selected
+     */
+    @CheckReturnValue
+    protected List<DatabaseColumnReference> projection() {
+        List<DatabaseColumnReference> projection = new ArrayList<>(selectColumns);
+        for (JoinedTable joinedTable : joinedTables) {
+            String key = joinedTable.rightFields.get(0);
+            boolean selected = projection.stream().anyMatch(column ->
+                    column.getTableAlias().getAlias().equalsIgnoreCase(joinedTable.joinedTable.getAlias())
+                    && column.getColumnName().equalsIgnoreCase(key)
+            );
+            if (!selected) {
+                projection.add(joinedTable.joinedTable.column(key));
+            }
+        }
+        return projection;
+    }
+
+    @CheckReturnValue
+    protected String selectList() {
+        return projection().stream()
+                .map(c -> c.getQualifiedColumnName() + " as " + c.getTableAlias().getAlias() + "__" + c.getColumnName())
+                .collect(Collectors.joining(", "));
+    }
+
     @CheckReturnValue
     protected String createSelectStatement() {
-        return "select *" + fromClause() + whereBuilder.whereClause() + orderByClause() + fetchClause();
+        return createSelectStatement(selectColumns.isEmpty() ? "*" : selectList());
+    }
+
+    @CheckReturnValue
+    protected String createSelectStatement(String columns) {
+        return "select " + columns + fromClause() + whereBuilder.whereClause() + orderByClause() + fetchClause();
     }
 
     @CheckReturnValue
@@ -326,11 +497,7 @@ public class DatabaseJoinedQueryBuilder implements
     }
 
     private <T> T query(Connection connection, DatabaseResult.DatabaseResultMapper<T> resultMapper) {
-        return createSelect().execute(connection, stmt -> {
-            try (DatabaseResult result = createResult(stmt)) {
-                return resultMapper.apply(result);
-            }
-        });
+        return createSelect().query(connection, this::createResult, resultMapper);
     }
 
     public DatabaseStatement createSelect() {
@@ -0,0 +1,110 @@
+package org.fluentjdbc;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Walks through all rows of a query page by page with {@link DatabaseSelectBuilder#seekAfter(List, List)},
+ * using the key columns of the last row of each page to start the next. Each call to {@link #next()}
+ * executes one query, so rows which are inserted or deleted while iterating are only seen if they
+ * sort after the current page.
+ */
+@ParametersAreNonnullByDefault
+class DatabaseKeysetIterator<T> implements Iterator<List<T>> {
+
+    private final Supplier<DatabaseSelectBuilder> query;
+    private final List<String> keyColumns;
+    private final int pageSize;
+    private final DatabaseDialect dialect;
+    private final DatabaseResult.RowMapper<T> mapper;
+    private final BiFunction<DatabaseSelectBuilder, DatabaseResult.RowMapper<KeyedRow<T>>, List<KeyedRow<T>>> fetch;
+    private List<Object> lastKey;
+    private List<T> nextPage;
+    private boolean lastPage = false;
+
+    /**
+     * @param query Creates the query for each page, which is then restricted with {@link DatabaseSelectBuilder#seekAfter}
+     * @param fetch Executes the query for a page, for example <code>(select, mapper) -&gt; select.list(connection, mapper)</code>
+     */
+    DatabaseKeysetIterator(
+            Supplier<DatabaseSelectBuilder> query,
+            List<String> keyColumns,
+            int pageSize,
+            DatabaseDialect dialect,
+            DatabaseResult.RowMapper<T> mapper,
+            BiFunction<DatabaseSelectBuilder, DatabaseResult.RowMapper<KeyedRow<T>>, List<KeyedRow<T>>> fetch
+    ) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive, was " + pageSize);
+        }
+        this.query = query;
+        this.keyColumns = keyColumns;
+        this.pageSize = pageSize;
+        this.dialect = dialect;
+        this.mapper = mapper;
+        this.fetch = fetch;
+    }
+
+    Stream<List<T>> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextPage == null && !lastPage) {
+            fetchNextPage();
+        }
+        return nextPage != null;
+    }
+
+    @Override
+    public List<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<T> result = nextPage;
+        nextPage = null;
+        return result;
+    }
+
+    private void fetchNextPage() {
+        DatabaseSelectBuilder select = query.get().seekAfter(keyColumns, lastKey, dialect).limit(pageSize);
+        List<KeyedRow<T>> rows = fetch.apply(select, row -> {
+            List<Object> key = new ArrayList<>();
+            for (String keyColumn : keyColumns) {
+                String column = DatabaseSelectBuilder.seekColumn(keyColumn);
+                key.add(row.getObject(column.substring(column.lastIndexOf('.') + 1)));
+            }
+            return new KeyedRow<>(key, mapper.mapRow(row));
+        });
+        lastPage = rows.size() < pageSize;
+        if (rows.isEmpty()) {
+            return;
+        }
+        lastKey = rows.get(rows.size() - 1).key;
+        List<T> page = new ArrayList<>();
+        for (KeyedRow<T> row : rows) {
+            page.add(row.value);
+        }
+        nextPage = page;
+    }
+
+    static class KeyedRow<T> {
+        private final List<Object> key;
+        private final T value;
+
+        KeyedRow(List<Object> key, T value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+}
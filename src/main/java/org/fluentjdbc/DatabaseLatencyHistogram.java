@@ -0,0 +1,140 @@
+package org.fluentjdbc;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the count and latency of the queries for one table and operation in a log-linear
+ * histogram: each power of two is split into {@link #SUB_BUCKETS} linear buckets, giving
+ * percentiles with a relative error of at most 12.5% over the whole range from 1 nanosecond
+ * to {@link #MAX_TRACKABLE_NANOS}. Each bucket is a {@link LongAdder}, which spreads concurrent
+ * updates over striped cells, so recording never blocks and threads running queries against
+ * the same table rarely contend. Buckets are allocated the first time they are used.
+ *
+ * <p>Used by {@link DatabaseMetricsReporter}. A snapshot taken while queries are recorded may
+ * miss some of the concurrent updates, but never blocks them.</p>
+ */
+@ParametersAreNonnullByDefault
+public class DatabaseLatencyHistogram implements DatabaseTableOperationReporter {
+
+    static final int SUB_BUCKET_BITS = 3;
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 42;
+    /**
+     * Latencies above this value (about 146 minutes) are counted in the last bucket
+     */
+    public static final long MAX_TRACKABLE_NANOS = (1L << (MAX_EXPONENT + 1)) - 1;
+    static final int BUCKET_COUNT = bucketIndex(MAX_TRACKABLE_NANOS) + 1;
+
+    private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<>(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    @Override
+    public void reportQuery(DatabaseStatement query, long timing) {
+        record(timing * 1_000_000L);
+    }
+
+    @Override
+    public void reportQuery(DatabaseStatement query, DatabaseQueryExecution execution) {
+        record(execution.getTotalNanos());
+    }
+
+    /**
+     * Records one operation which took the specified number of nanoseconds
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        bucket(bucketIndex(Math.min(value, MAX_TRACKABLE_NANOS))).increment();
+        count.increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    /**
+     * Returns the current count and latency distribution
+     */
+    @CheckReturnValue
+    @Nonnull
+    public DatabaseLatencySnapshot snapshot() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            LongAdder bucket = buckets.get(i);
+            counts[i] = bucket != null ? bucket.sum() : 0;
+        }
+        return new DatabaseLatencySnapshot(count.sum(), totalNanos.sum(), maxNanos.get(), counts);
+    }
+
+    /**
+     * Returns the current count and latency distribution and starts recording from zero
+     */
+    @Nonnull
+    public DatabaseLatencySnapshot snapshotAndReset() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            LongAdder bucket = buckets.get(i);
+            counts[i] = bucket != null ? bucket.sumThenReset() : 0;
+        }
+        return new DatabaseLatencySnapshot(count.sumThenReset(), totalNanos.sumThenReset(), maxNanos.getThenReset(), counts);
+    }
+
+    /**
+     * Discards all recorded operations
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            LongAdder bucket = buckets.get(i);
+            if (bucket != null) {
+                bucket.reset();
+            }
+        }
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+
+    private LongAdder bucket(int index) {
+        LongAdder bucket = buckets.get(index);
+        if (bucket == null) {
+            buckets.compareAndSet(index, null, new LongAdder());
+            bucket = buckets.get(index);
+        }
+        return bucket;
+    }
+
+    /**
+     * Values below {@link #SUB_BUCKETS} have a bucket each. Larger values are grouped by the
+     * position of their highest bit and the {@link #SUB_BUCKET_BITS} bits after it
+     */
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * The smallest value which is counted in the bucket with the specified index
+     */
+    static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * The largest value which is counted in the bucket with the specified index
+     */
+    static long bucketUpperBound(int index) {
+        return index + 1 < BUCKET_COUNT ? bucketLowerBound(index + 1) - 1 : Long.MAX_VALUE;
+    }
+}
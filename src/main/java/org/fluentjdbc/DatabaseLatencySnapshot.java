@@ -0,0 +1,109 @@
+package org.fluentjdbc;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The count and latency distribution recorded by a {@link DatabaseLatencyHistogram} at one point
+ * in time. Percentiles are reported as the upper bound of the histogram bucket containing the
+ * percentile, but never more than the largest recorded value.
+ */
+public class DatabaseLatencySnapshot {
+
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long[] bucketCounts;
+
+    DatabaseLatencySnapshot(long count, long totalNanos, long maxNanos, long[] bucketCounts) {
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.bucketCounts = bucketCounts;
+    }
+
+    /**
+     * The number of operations recorded
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * The sum of the latency of all recorded operations
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * The average latency of the recorded operations, or 0 if nothing was recorded
+     */
+    public long getMeanNanos() {
+        return count > 0 ? totalNanos / count : 0;
+    }
+
+    /**
+     * The largest recorded latency
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * The latency which the specified fraction of the operations were faster than or equal to,
+     * for example <code>getPercentileNanos(0.99)</code> for the 99th percentile. Returns 0 if
+     * nothing was recorded
+     */
+    public long getPercentileNanos(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("quantile must be between 0 and 1, was " + quantile);
+        }
+        long total = 0;
+        for (long bucketCount : bucketCounts) {
+            total += bucketCount;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                return Math.min(DatabaseLatencyHistogram.bucketUpperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * The median latency
+     */
+    public long getP50Nanos() {
+        return getPercentileNanos(0.5);
+    }
+
+    /**
+     * The 99th percentile latency
+     */
+    public long getP99Nanos() {
+        return getPercentileNanos(0.99);
+    }
+
+    /**
+     * The 99.9th percentile latency
+     */
+    public long getP999Nanos() {
+        return getPercentileNanos(0.999);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{count=" + count
+               + ", mean=" + TimeUnit.NANOSECONDS.toMicros(getMeanNanos()) + "us"
+               + ", p50=" + TimeUnit.NANOSECONDS.toMicros(getP50Nanos()) + "us"
+               + ", p99=" + TimeUnit.NANOSECONDS.toMicros(getP99Nanos()) + "us"
+               + ", p999=" + TimeUnit.NANOSECONDS.toMicros(getP999Nanos()) + "us"
+               + ", max=" + TimeUnit.NANOSECONDS.toMicros(maxNanos) + "us}";
+    }
+}
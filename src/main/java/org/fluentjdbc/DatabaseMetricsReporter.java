@@ -0,0 +1,146 @@
+package org.fluentjdbc;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * A {@link DatabaseReporter} which keeps the count and a latency histogram for each table and
+ * operation in memory, without any dependencies. Recording a query only increments
+ * {@link java.util.concurrent.atomic.LongAdder}s, so the reporter adds negligible overhead and
+ * contention even when many threads query the same table.
+ *
+ * <pre>
+ * DatabaseMetricsReporter metrics = new DatabaseMetricsReporter();
+ * DbContext context = new DbContext(new DatabaseStatementFactory(metrics), DatabaseTransactionReporter.LOGGING_REPORTER);
+ * context.setConnectionReporter(metrics);
+ * ...
+ * for (Map.Entry&lt;String, DatabaseLatencySnapshot&gt; entry : metrics.snapshotAndReset().entrySet()) {
+ *     logger.info("{}: {}", entry.getKey(), entry.getValue());
+ * }
+ * </pre>
+ *
+ * @see DatabaseLatencyHistogram
+ */
+@ParametersAreNonnullByDefault
+public class DatabaseMetricsReporter implements DatabaseReporter, DatabaseConnectionReporter {
+
+    private final ConcurrentMap<String, ConcurrentMap<String, DatabaseLatencyHistogram>> histograms = new ConcurrentHashMap<>();
+    private final DatabaseLatencyHistogram connectionAcquireHistogram = new DatabaseLatencyHistogram();
+    private final DatabaseLatencyHistogram connectionHoldHistogram = new DatabaseLatencyHistogram();
+    private final LongAdder connectionStatements = new LongAdder();
+
+    @Nonnull
+    @Override
+    public DatabaseTableReporter table(String tableName) {
+        ConcurrentMap<String, DatabaseLatencyHistogram> tableHistograms = getOrCreate(histograms, tableName, name -> new ConcurrentHashMap<>());
+        return operation -> getOrCreate(tableHistograms, operation, name -> new DatabaseLatencyHistogram());
+    }
+
+    @Override
+    public void connectionAcquired(long acquireNanos) {
+        connectionAcquireHistogram.record(acquireNanos);
+    }
+
+    @Override
+    public void connectionReleased(long heldNanos) {
+        connectionHoldHistogram.record(heldNanos);
+    }
+
+    @Override
+    public void connectionReleased(long heldNanos, int statementCount) {
+        connectionReleased(heldNanos);
+        connectionStatements.add(statementCount);
+    }
+
+    /**
+     * The time spent waiting for connections from the {@link DbContext.ConnectionSupplier}, when
+     * this reporter is set with {@link DbContext#setConnectionReporter(DatabaseConnectionReporter)}
+     */
+    @Nonnull
+    public DatabaseLatencyHistogram getConnectionAcquireHistogram() {
+        return connectionAcquireHistogram;
+    }
+
+    /**
+     * The time from connections were acquired until they were returned to the
+     * {@link DbContext.ConnectionSupplier}
+     */
+    @Nonnull
+    public DatabaseLatencyHistogram getConnectionHoldHistogram() {
+        return connectionHoldHistogram;
+    }
+
+    /**
+     * The average number of statements executed each time a connection was acquired
+     */
+    public double getMeanStatementsPerConnection() {
+        long connections = connectionHoldHistogram.snapshot().getCount();
+        return connections > 0 ? connectionStatements.sum() / (double) connections : 0;
+    }
+
+    /**
+     * Returns the histogram for the specified table and operation, or null if no such operation
+     * has been performed
+     */
+    @CheckReturnValue
+    @Nullable
+    public DatabaseLatencyHistogram getHistogram(String tableName, String operation) {
+        Map<String, DatabaseLatencyHistogram> tableHistograms = histograms.get(tableName);
+        return tableHistograms != null ? tableHistograms.get(operation) : null;
+    }
+
+    /**
+     * Returns the count and latency distribution for each table and operation, keyed as
+     * <code>"table/OPERATION"</code>
+     */
+    @CheckReturnValue
+    @Nonnull
+    public SortedMap<String, DatabaseLatencySnapshot> snapshot() {
+        return collect(DatabaseLatencyHistogram::snapshot);
+    }
+
+    /**
+     * Returns the count and latency distribution for each table and operation, keyed as
+     * <code>"table/OPERATION"</code>, and starts recording from zero
+     */
+    @Nonnull
+    public SortedMap<String, DatabaseLatencySnapshot> snapshotAndReset() {
+        return collect(DatabaseLatencyHistogram::snapshotAndReset);
+    }
+
+    /**
+     * Discards all recorded operations
+     */
+    public void reset() {
+        histograms.values().forEach(tableHistograms -> tableHistograms.values().forEach(DatabaseLatencyHistogram::reset));
+        connectionAcquireHistogram.reset();
+        connectionHoldHistogram.reset();
+        connectionStatements.reset();
+    }
+
+    private SortedMap<String, DatabaseLatencySnapshot> collect(Function<DatabaseLatencyHistogram, DatabaseLatencySnapshot> f) {
+        SortedMap<String, DatabaseLatencySnapshot> result = new TreeMap<>();
+        histograms.forEach((tableName, tableHistograms) -> tableHistograms.forEach(
+                (operation, histogram) -> result.put(tableName + "/" + operation, f.apply(histogram))
+        ));
+        return result;
+    }
+
+    /**
+     * Avoids {@link ConcurrentHashMap#computeIfAbsent} for existing keys, as it locks even when the
+     * key is present on Java 8
+     */
+    private static <T> T getOrCreate(ConcurrentMap<String, T> map, String key, Function<String, T> create) {
+        T value = map.get(key);
+        return value != null ? value : map.computeIfAbsent(key, create);
+    }
+}
@@ -0,0 +1,97 @@
+package org.fluentjdbc;
+
+import javax.annotation.Nonnull;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * One page of the rows of a query together with the number of rows the query matches in total,
+ * as returned by {@link DatabaseSelectBuilder#listWithTotal}.
+ *
+ * @param <T> The type each row is mapped to
+ */
+public class DatabasePage<T> {
+
+    /**
+     * The column with <code>count(*) over ()</code> which is added to the query by
+     * {@link DatabaseSelectBuilder#listWithTotal}
+     */
+    static final String TOTAL_COUNT_COLUMN = "fluentjdbc_total_count";
+
+    protected final List<T> items;
+    protected final int offset;
+    protected final int totalCount;
+
+    protected DatabasePage(List<T> items, int offset, int totalCount) {
+        this.items = items;
+        this.offset = offset;
+        this.totalCount = totalCount;
+    }
+
+    /**
+     * Returns the mapped rows of this page
+     */
+    @Nonnull
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Returns the number of rows skipped before this page
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the number of rows matched by the query, ignoring offset and limit
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns true if there are rows after this page
+     */
+    public boolean hasMore() {
+        return offset + items.size() < totalCount;
+    }
+
+    /**
+     * Maps each row with the mapper and reads the total count from {@link #TOTAL_COUNT_COLUMN}
+     * of the first row
+     */
+    static class TotalCountMapper<T> implements DatabaseResult.RowMapper<T> {
+        private final DatabaseResult.RowMapper<T> mapper;
+        private Integer totalCount;
+
+        TotalCountMapper(DatabaseResult.RowMapper<T> mapper) {
+            this.mapper = mapper;
+        }
+
+        @Override
+        public T mapRow(DatabaseRow row) throws SQLException {
+            if (totalCount == null) {
+                totalCount = row.getInt(TOTAL_COUNT_COLUMN);
+            }
+            return mapper.mapRow(row);
+        }
+
+        /**
+         * When the page is empty, the total is only known to be zero if the offset is zero.
+         * Otherwise, the rows are counted with countQuery
+         */
+        DatabasePage<T> toPage(List<T> items, int offset, IntSupplier countQuery) {
+            if (totalCount != null) {
+                return new DatabasePage<>(items, offset, totalCount);
+            }
+            return new DatabasePage<>(items, offset, offset == 0 ? 0 : countQuery.getAsInt());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{offset=" + offset + ", items=" + items.size() + ", totalCount=" + totalCount + "}";
+    }
+}
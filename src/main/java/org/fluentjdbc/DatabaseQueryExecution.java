@@ -0,0 +1,217 @@
+package org.fluentjdbc;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Timing and size information about one execution of a {@link DatabaseStatement}, passed to
+ * {@link DatabaseTableOperationReporter#reportQuery(DatabaseStatement, DatabaseQueryExecution)}.
+ * All timings are measured with {@link System#nanoTime()} and split into the phases of the
+ * execution: preparing the statement, binding parameters, executing the statement and, for queries,
+ * fetching the result. For streamed queries, the execution completes when the stream is fully
+ * consumed or closed. Phases which were not reached, for example because the statement failed,
+ * report 0.
+ *
+ * <p>For queries, the execution reports the number of rows fetched and an estimate of the bytes
+ * in these rows, based on the column types. For updates, it reports the number of rows affected
+ * and, for JDBC batches, the number of parameter sets in the batch.</p>
+ */
+@ParametersAreNonnullByDefault
+public class DatabaseQueryExecution {
+
+    private final Consumer<DatabaseQueryExecution> onComplete;
+    private final int largeResultThreshold;
+    private final Runnable onLargeResult;
+    private final long startTime = System.nanoTime();
+    private long preparedTime;
+    private long boundTime;
+    private long executedTime;
+    private long firstRowTime;
+    private long completedTime;
+    private int rowCount = 0;
+    private int estimatedRowSize = 0;
+    private int updateCount = -1;
+    private int batchSize = 0;
+    private Map<Class<?>, Object> attachments;
+
+    /**
+     * Calls onLargeResult once if the query fetches more than largeResultThreshold rows. A threshold
+     * of 0 or less is disabled
+     */
+    DatabaseQueryExecution(Consumer<DatabaseQueryExecution> onComplete, int largeResultThreshold, Runnable onLargeResult) {
+        this.onComplete = onComplete;
+        this.largeResultThreshold = largeResultThreshold;
+        this.onLargeResult = onLargeResult;
+    }
+
+    void prepared() {
+        preparedTime = System.nanoTime();
+    }
+
+    void bound() {
+        boundTime = System.nanoTime();
+    }
+
+    void executed() {
+        if (executedTime == 0) {
+            executedTime = System.nanoTime();
+        }
+    }
+
+    void rowFetched() {
+        if (firstRowTime == 0) {
+            firstRowTime = System.nanoTime();
+        }
+        rowCount++;
+        if (rowCount == largeResultThreshold + 1 && largeResultThreshold > 0) {
+            onLargeResult.run();
+        }
+    }
+
+    void setEstimatedRowSize(int estimatedRowSize) {
+        this.estimatedRowSize = estimatedRowSize;
+    }
+
+    void updated(int updateCount) {
+        this.updateCount = updateCount;
+    }
+
+    void batchExecuted(int batchSize, int[] updateCounts) {
+        this.batchSize = batchSize;
+        this.updateCount = Arrays.stream(updateCounts).filter(count -> count >= 0).sum();
+    }
+
+    /**
+     * Marks the execution as completed and notifies the listener the first time it is called
+     */
+    void complete() {
+        if (completedTime == 0) {
+            completedTime = System.nanoTime();
+            onComplete.accept(this);
+        }
+    }
+
+    /**
+     * The time spent in {@link java.sql.Connection#prepareStatement(String)}
+     */
+    public long getPrepareNanos() {
+        return elapsed(startTime, preparedTime);
+    }
+
+    /**
+     * The time spent binding the parameters to the {@link java.sql.PreparedStatement}
+     */
+    public long getBindNanos() {
+        return elapsed(preparedTime, boundTime);
+    }
+
+    /**
+     * The time spent executing the statement, not including reading the result of a query
+     */
+    public long getExecuteNanos() {
+        return elapsed(boundTime, executedTime);
+    }
+
+    /**
+     * The time from the start of the execution until the first row of a query was available, or -1
+     * if no rows were returned
+     */
+    public long getTimeToFirstRowNanos() {
+        return firstRowTime != 0 ? firstRowTime - startTime : -1;
+    }
+
+    /**
+     * The time spent reading the result of a query after the statement was executed
+     */
+    public long getFetchNanos() {
+        return elapsed(executedTime, completedTime);
+    }
+
+    /**
+     * The total time from the start of the execution until the statement or result was closed
+     */
+    public long getTotalNanos() {
+        return elapsed(startTime, completedTime);
+    }
+
+    /**
+     * {@link #getTotalNanos()} in milliseconds
+     */
+    public long getTotalMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(getTotalNanos());
+    }
+
+    /**
+     * The number of rows read from the {@link java.sql.ResultSet} of a query
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * An estimate of the number of bytes in the rows read from the result, based on the
+     * {@link java.sql.ResultSetMetaData} of each column. Variable length columns are counted
+     * with their declared size, capped at {@link DatabaseResult#MAX_ESTIMATED_COLUMN_SIZE}
+     */
+    public long getEstimatedBytes() {
+        return (long) rowCount * estimatedRowSize;
+    }
+
+    /**
+     * The number of rows affected by an update, or the sum for all statements in a batch where
+     * the driver reported the count. Returns -1 for queries
+     */
+    public int getUpdateCount() {
+        return updateCount;
+    }
+
+    /**
+     * The number of parameter sets sent with {@link java.sql.PreparedStatement#executeBatch()},
+     * or 0 if the statement was not executed as a batch
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Stores a value of the type with the execution, so a {@link DatabaseTableOperationReporter} can
+     * pass state from {@link DatabaseTableOperationReporter#startQuery} to
+     * {@link DatabaseTableOperationReporter#reportQuery(DatabaseStatement, DatabaseQueryExecution)}
+     * without a shared map. A null value removes the attachment
+     */
+    public <T> void setAttachment(Class<T> type, @Nullable T value) {
+        if (value != null) {
+            if (attachments == null) {
+                attachments = new HashMap<>(2);
+            }
+            attachments.put(type, value);
+        } else if (attachments != null) {
+            attachments.remove(type);
+        }
+    }
+
+    /**
+     * The value stored with {@link #setAttachment} for the type, or null
+     */
+    @Nullable
+    public <T> T getAttachment(Class<T> type) {
+        return attachments != null ? type.cast(attachments.get(type)) : null;
+    }
+
+    private static long elapsed(long from, long to) {
+        return from != 0 && to != 0 ? to - from : 0;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{prepare=" + getPrepareNanos() + "ns, bind=" + getBindNanos()
+               + "ns, execute=" + getExecuteNanos() + "ns, firstRow=" + getTimeToFirstRowNanos()
+               + "ns, fetch=" + getFetchNanos() + "ns, total=" + getTotalNanos() + "ns, rows=" + rowCount
+               + ", estimatedBytes=" + getEstimatedBytes() + ", updateCount=" + updateCount + ", batchSize=" + batchSize + "}";
+    }
+}
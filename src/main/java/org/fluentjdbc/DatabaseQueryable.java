@@ -124,6 +124,67 @@ public interface DatabaseQueryable<T extends DatabaseQueryable<T>> {
         return whereIn(fieldName.getQualifiedColumnName(), parameters);
     }
 
+    /**
+     * Adds "<code>WHERE fieldName in (...)</code>" to the query using the
+     * {@link DatabaseInListStrategy#forDialect best strategy} for the database: Either
+     * <code>fieldName = ANY(?)</code> with the values as an array, or an <code>IN</code>-list padded
+     * to a power of two and split into several lists if there are too many values. This keeps the
+     * number of distinct statements low. If the parameter list is empty, instead adds
+     * <code>WHERE fieldName &lt;&gt; fieldName</code>, resulting in no rows being returned.
+     *
+     * @throws IllegalArgumentException if the values need more parameters than
+     * {@link DatabaseDialect#getMaxStatementParameters()}, e.g. more than 2100 values on SQL Server.
+     * Use {@link DatabaseTableQueryBuilder#listWhereIn} instead, which runs several queries
+     */
+    @CheckReturnValue
+    default T whereIn(String fieldName, Collection<?> parameters, DatabaseDialect dialect) {
+        if (parameters.isEmpty()) {
+            return whereExpression(fieldName + " <> " + fieldName);
+        }
+        return where(DatabaseInListStrategy.forDialect(dialect, parameters).createParameter(fieldName, parameters, dialect));
+    }
+
+    /**
+     * Adds "<code>WHERE fieldName in (...)</code>" to the query using the
+     * {@link DatabaseInListStrategy#forDialect best strategy} for the database
+     *
+     * @see #whereIn(String, Collection, DatabaseDialect)
+     */
+    @CheckReturnValue
+    default T whereIn(DatabaseColumnReference fieldName, Collection<?> parameters, DatabaseDialect dialect) {
+        return whereIn(fieldName.getQualifiedColumnName(), parameters, dialect);
+    }
+
+    /**
+     * Adds "<code>WHERE (a = ? AND b = ?) OR (a = ? AND b = ?) ...</code>" to the query to match
+     * rows where the columns equal one of the tuples, e.g. to look up rows by a composite key.
+     * If the tuple list is empty, no rows are returned.
+     *
+     * @see #whereIn(List, Collection, DatabaseDialect)
+     */
+    @CheckReturnValue
+    default T whereIn(List<String> columns, Collection<? extends List<?>> tuples) {
+        return whereIn(columns, tuples, DatabaseDialect.UNKNOWN);
+    }
+
+    /**
+     * Adds "<code>WHERE (a, b) IN ((?, ?), (?, ?) ...)</code>" to the query if the database
+     * {@link DatabaseDialect#supportsRowValueInList()}, otherwise
+     * "<code>WHERE (a = ? AND b = ?) OR ...</code>", to match rows where the columns equal one of
+     * the tuples. If the tuple list is empty, no rows are returned. Example:
+     *
+     * <pre>
+     * table.whereIn(Arrays.asList("order_id", "line_number"), Arrays.asList(Arrays.asList(1, 1), Arrays.asList(1, 2)), dialect)
+     * </pre>
+     */
+    @CheckReturnValue
+    default T whereIn(List<String> columns, Collection<? extends List<?>> tuples, DatabaseDialect dialect) {
+        if (tuples.isEmpty()) {
+            return whereExpression(columns.get(0) + " <> " + columns.get(0));
+        }
+        return where(DatabaseInListStrategy.rowValues(columns, tuples, dialect));
+    }
+
     /**
      * For each field adds "<code>WHERE fieldName = value</code>" to the query
      */
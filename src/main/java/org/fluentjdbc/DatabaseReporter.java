@@ -20,6 +20,12 @@ import javax.annotation.Nonnull;
  * DbContext context = new DbContext(new DatabaseStatementFactory(reporter));
  * </pre>
  *
+ * <p>{@link DatabaseMetricsReporter} keeps counts and latency percentiles for each table and
+ * operation without any extra dependencies.</p>
+ *
+ * <p>For nanosecond timings of each phase of the query, override
+ * {@link DatabaseTableOperationReporter#reportQuery(DatabaseStatement, DatabaseQueryExecution)}.</p>
+ *
  */
 @FunctionalInterface
 public interface DatabaseReporter {
@@ -6,12 +6,14 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -33,6 +35,11 @@ public class DatabaseResult implements AutoCloseable {
 
     protected final static Logger logger = LoggerFactory.getLogger(DatabaseResult.class);
 
+    /**
+     * The largest size in bytes used for a single column in {@link DatabaseQueryExecution#getEstimatedBytes()}
+     */
+    public static final int MAX_ESTIMATED_COLUMN_SIZE = 4000;
+
     /**
      * Used to execute statements on the whole DatabaseResult. Like
      * {@link java.util.function.Function}, but allows {@link SQLException} to be
@@ -71,6 +78,8 @@ public class DatabaseResult implements AutoCloseable {
     protected final Map<String, Integer> columnIndexes;
     protected final Map<String, Map<String, Integer>> tableColumnIndexes;
     protected final Map<DatabaseTableAlias, Integer> keys;
+    @Nullable
+    private DatabaseQueryExecution execution;
 
     DatabaseResult(PreparedStatement statement, ResultSet resultSet, Map<String, Integer> columnIndexes, Map<String, Map<String, Integer>> aliasColumnIndexes, Map<DatabaseTableAlias, Integer> keys) {
         this.statement = statement;
@@ -84,6 +93,70 @@ public class DatabaseResult implements AutoCloseable {
         this(statement, statement.executeQuery());
     }
 
+    /**
+     * Executes the statement and records the time of execution and of the first row in the
+     * {@link DatabaseQueryExecution}. The execution is completed when a result stream or iterator is closed
+     */
+    DatabaseResult(PreparedStatement statement, DatabaseQueryExecution execution) throws SQLException {
+        this(statement, executeQuery(statement, execution));
+        track(execution);
+    }
+
+    /**
+     * Records the rows fetched from this result in the {@link DatabaseQueryExecution} and completes
+     * the execution when a result stream or iterator is closed
+     */
+    void track(DatabaseQueryExecution execution) throws SQLException {
+        this.execution = execution;
+        execution.setEstimatedRowSize(estimateRowSize(resultSet.getMetaData()));
+    }
+
+    private static int estimateRowSize(ResultSetMetaData metaData) throws SQLException {
+        int size = 0;
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            switch (metaData.getColumnType(i)) {
+                case Types.BIT:
+                case Types.BOOLEAN:
+                case Types.TINYINT:
+                    size += 1;
+                    break;
+                case Types.SMALLINT:
+                    size += 2;
+                    break;
+                case Types.INTEGER:
+                case Types.REAL:
+                    size += 4;
+                    break;
+                case Types.BIGINT:
+                case Types.DOUBLE:
+                case Types.FLOAT:
+                case Types.DATE:
+                case Types.TIME:
+                    size += 8;
+                    break;
+                case Types.TIMESTAMP:
+                case Types.TIMESTAMP_WITH_TIMEZONE:
+                case Types.TIME_WITH_TIMEZONE:
+                    size += 12;
+                    break;
+                case Types.DECIMAL:
+                case Types.NUMERIC:
+                    size += 16;
+                    break;
+                default:
+                    int declaredSize = metaData.getColumnDisplaySize(i);
+                    size += declaredSize > 0 ? Math.min(declaredSize, MAX_ESTIMATED_COLUMN_SIZE) : MAX_ESTIMATED_COLUMN_SIZE;
+            }
+        }
+        return size;
+    }
+
+    private static ResultSet executeQuery(PreparedStatement statement, DatabaseQueryExecution execution) throws SQLException {
+        ResultSet resultSet = statement.executeQuery();
+        execution.executed();
+        return resultSet;
+    }
+
     public DatabaseResult(PreparedStatement statement, ResultSet resultSet) throws SQLException {
         this(statement, resultSet, new HashMap<>(), new HashMap<>(), new HashMap<>());
         ResultSetMetaData metaData = resultSet.getMetaData();
@@ -119,7 +192,11 @@ public class DatabaseResult implements AutoCloseable {
      */
     @CheckReturnValue
     public boolean next() throws SQLException {
-        return resultSet.next();
+        boolean hasNext = resultSet.next();
+        if (hasNext && execution != null) {
+            execution.rowFetched();
+        }
+        return hasNext;
     }
 
     /**
@@ -140,8 +217,9 @@ public class DatabaseResult implements AutoCloseable {
 
     /**
      * Returns a {@link Stream} which iterates over all rows in the {@link ResultSet} and apply a
-     * {@link RowMapper} to each.
-     * 
+     * {@link RowMapper} to each. The {@link ResultSet} and {@link PreparedStatement} are closed when
+     * the stream is fully consumed or closed.
+     *
      * @see DatabaseTableQueryBuilder#stream(Connection, RowMapper)
      *
      * @param mapper Function to be called for each row
@@ -149,7 +227,15 @@ public class DatabaseResult implements AutoCloseable {
      */
     @CheckReturnValue
     public <T> Stream<T> stream(RowMapper<T> mapper, String query) throws SQLException {
-        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(mapper, query), 0), false);
+        Iterator<T> iterator = new Iterator<>(mapper, query);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, 0), false)
+                .onClose(() -> {
+                    try {
+                        iterator.close();
+                    } catch (SQLException e) {
+                        throw ExceptionUtil.softenCheckedException(e);
+                    }
+                });
     }
 
     /**
@@ -220,7 +306,10 @@ public class DatabaseResult implements AutoCloseable {
             this.mapper = mapper;
             this.startTime = System.currentTimeMillis();
             this.query = query;
-            hasNext = resultSet.next();
+            hasNext = DatabaseResult.this.next();
+            if (!hasNext) {
+                close();
+            }
         }
 
         @Override
@@ -232,7 +321,7 @@ public class DatabaseResult implements AutoCloseable {
         public T next() {
             try {
                 T o = mapper.mapRow(row());
-                hasNext = resultSet.next();
+                hasNext = DatabaseResult.this.next();
                 if (!hasNext) {
                     logger.debug("time={}s query=\"{}\"", (System.currentTimeMillis()- startTime)/1000.0, query);
                     close();
@@ -244,8 +333,14 @@ public class DatabaseResult implements AutoCloseable {
         }
 
         protected void close() throws SQLException {
-            resultSet.close();
-            statement.close();
+            try {
+                resultSet.close();
+                statement.close();
+            } finally {
+                if (execution != null) {
+                    execution.complete();
+                }
+            }
         }
 
         @SuppressWarnings("deprecation")
@@ -1,9 +1,14 @@
 package org.fluentjdbc;
 
 import javax.annotation.CheckReturnValue;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.sql.Array;
 import java.sql.Date;
 import java.sql.ResultSet;
@@ -197,6 +202,45 @@ public class DatabaseRow {
         return rs.getBinaryStream(getColumnIndex(fieldName));
     }
 
+    /**
+     * Copies the value of the specified BLOB or bytea column on this row to target through a fixed
+     * size buffer, without reading the whole value into memory, and returns the number of bytes
+     * copied, or -1 if the value is null. Example:
+     *
+     * <pre>
+     * attachments.where("id", id).singleObject(connection, row -&gt; row.transferTo("content", Channels.newChannel(response.getOutputStream())));
+     * </pre>
+     *
+     * @see #getColumnIndex
+     */
+    public long transferTo(String fieldName, WritableByteChannel target) throws SQLException {
+        try (InputStream input = getInputStream(fieldName)) {
+            return input == null ? -1 : DatabaseBinaryStreams.transfer(input, target);
+        } catch (IOException e) {
+            throw new SQLException("Failed to transfer " + fieldName, e);
+        }
+    }
+
+    /**
+     * Writes the value of the specified BLOB or bytea column on this row to the file, replacing
+     * any existing file, and returns the number of bytes written, or -1 if the value is null,
+     * in which case no file is written
+     *
+     * @see #transferTo(String, WritableByteChannel)
+     */
+    public long transferTo(String fieldName, Path target) throws SQLException {
+        try (InputStream input = getInputStream(fieldName)) {
+            if (input == null) {
+                return -1;
+            }
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                return DatabaseBinaryStreams.transfer(input, channel);
+            }
+        } catch (IOException e) {
+            throw new SQLException("Failed to write " + fieldName + " to " + target, e);
+        }
+    }
+
     /**
      * Returns the value of the specified column on this row as a reader. Used with
      * CLOB (Character Large Objects) and text (PostgreSQL) data types
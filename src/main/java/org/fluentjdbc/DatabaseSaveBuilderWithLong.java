@@ -1,23 +1,41 @@
 package org.fluentjdbc;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.sql.Connection;
 import java.sql.SQLException;
 
 /**
  * Subclass of {@link DatabaseSaveBuilder} which uses
  * {@link DatabaseInsertBuilder#setPrimaryKey(String, Object)} in order to
- * autogenerate primary key field
+ * autogenerate primary key field, or takes the primary key from a {@link DatabaseIdAllocator}
  */
 public class DatabaseSaveBuilderWithLong extends DatabaseSaveBuilder<Long> {
 
+    @Nullable
+    private final DatabaseIdAllocator idAllocator;
+
     DatabaseSaveBuilderWithLong(DatabaseTable table, String idField, Long id) {
+        this(table, idField, id, null);
+    }
+
+    DatabaseSaveBuilderWithLong(DatabaseTable table, String idField, Long id, @Nullable DatabaseIdAllocator idAllocator) {
         super(table, idField, id);
+        this.idAllocator = idAllocator;
     }
 
     @Override
     @Nonnull
     protected Long insert(@Nonnull Connection connection) {
+        if (idValue == null && idAllocator != null) {
+            long id = idAllocator.nextId(connection);
+            table.insert()
+                .setField(idField, id)
+                .setFields(fields, values)
+                .setFields(uniqueKeyFields, uniqueKeyValues)
+                .execute(connection);
+            return id;
+        }
         return table.insert()
             .setPrimaryKey(idField, idValue)
             .setFields(fields, values)
@@ -9,22 +9,28 @@ import java.sql.SQLException;
 import java.util.UUID;
 
 /**
- * Subclass of {@link DatabaseSaveBuilder} which uses {@link UUID#randomUUID()} to generate primary
- * key values
+ * Subclass of {@link DatabaseSaveBuilder} which uses a {@link DatabaseUUIDGenerator} to generate primary
+ * key values, by default {@link UUID#randomUUID()}
  */
 @ParametersAreNonnullByDefault
 public class DatabaseSaveBuilderWithUUID extends DatabaseSaveBuilder<UUID> {
 
+    protected final DatabaseUUIDGenerator uuidGenerator;
 
     public DatabaseSaveBuilderWithUUID(DatabaseTableImpl table, String idField, @Nullable UUID idValue) {
+        this(table, idField, idValue, table.getUUIDGenerator());
+    }
+
+    public DatabaseSaveBuilderWithUUID(DatabaseTable table, String idField, @Nullable UUID idValue, DatabaseUUIDGenerator uuidGenerator) {
         super(table, idField, idValue);
+        this.uuidGenerator = uuidGenerator;
     }
 
     @Override
     @Nullable
     protected UUID insert(@Nonnull Connection connection) {
         return insertWithId(
-                this.idValue != null ? this.idValue : UUID.randomUUID(),
+                this.idValue != null ? this.idValue : uuidGenerator.generate(),
                 connection
         );
     }
@@ -1,16 +1,22 @@
 package org.fluentjdbc;
 
+import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 /**
  * Used to construct SQL SELECT statements in a flexible way with {@link #where(String, Object)}
  * clauses, {@link #select(String...)} column names, {@link #from(String)} table statement,
- * {@link #groupBy(String...)}, {@link #orderBy(String)} and {@link #skipAndLimit(int, int)}.
+ * {@link #groupBy(String...)}, {@link #orderBy(String)}, {@link #skipAndLimit(int, int)} and
+ * {@link #seekAfter(List, List)}.
  *
  * <h2>Example:</h2>
  *
@@ -36,6 +42,7 @@ public class DatabaseSelectBuilder implements DatabaseQueryBuilder<DatabaseSelec
     protected final List<String> orderByClauses = new ArrayList<>();
     protected Integer offset;
     protected Integer rowCount;
+    protected DatabaseQueryParameter seekParameter;
 
     public DatabaseSelectBuilder(DatabaseStatementFactory factory) {
         this(factory, new DatabaseWhereBuilder());
@@ -120,6 +127,114 @@ public class DatabaseSelectBuilder implements DatabaseQueryBuilder<DatabaseSelec
         return this;
     }
 
+    /**
+     * Adds <code>FETCH FIRST ... ROWS ONLY</code> clause to the <code>SELECT</code> statement
+     */
+    public DatabaseSelectBuilder limit(int rowCount) {
+        return skipAndLimit(0, rowCount);
+    }
+
+    /**
+     * Keyset pagination: orders the query by orderColumns and returns only the rows after the row
+     * where the columns had lastValues. Unlike {@link #skipAndLimit(int, int)}, the database can
+     * use an index on the columns to go directly to the start of the page, so deep pages are as
+     * fast as the first. The columns must uniquely identify a row and must not be null. Add
+     * <code>" desc"</code> to a column to sort it in descending order. If lastValues is null or
+     * empty, the first page is returned. Example:
+     *
+     * <pre>
+     * table.query().seekAfter(List.of("created_at", "id"), List.of(last.getCreatedAt(), last.getId())).limit(100)
+     * </pre>
+     *
+     * <p>Generates <code>(created_at &gt; ?) or (created_at = ? and id &gt; ?)</code>, which works
+     * with all databases. Use {@link #seekAfter(List, List, DatabaseDialect)} to use a row value
+     * comparison where supported</p>
+     */
+    public DatabaseSelectBuilder seekAfter(List<String> orderColumns, @Nullable List<?> lastValues) {
+        return seekAfter(orderColumns, lastValues, DatabaseDialect.UNKNOWN);
+    }
+
+    /**
+     * Like {@link #seekAfter(List, List)}, but generates <code>(created_at, id) &gt; (?, ?)</code>
+     * if all columns are sorted the same direction and
+     * {@link DatabaseDialect#supportsRowValueComparison()}
+     */
+    public DatabaseSelectBuilder seekAfter(List<String> orderColumns, @Nullable List<?> lastValues, DatabaseDialect dialect) {
+        orderBy(orderColumns);
+        this.seekParameter = lastValues == null || lastValues.isEmpty() ? null : seekPredicate(orderColumns, lastValues, dialect);
+        return this;
+    }
+
+    static DatabaseQueryParameter seekPredicate(List<String> orderColumns, List<?> lastValues, DatabaseDialect dialect) {
+        if (orderColumns.size() != lastValues.size()) {
+            throw new IllegalArgumentException("Expected " + orderColumns.size() + " values for " + orderColumns + ", was " + lastValues);
+        }
+        List<String> columns = new ArrayList<>();
+        List<Boolean> descending = new ArrayList<>();
+        for (String orderColumn : orderColumns) {
+            columns.add(seekColumn(orderColumn));
+            descending.add(orderColumn.trim().toLowerCase(Locale.ROOT).endsWith(" desc"));
+        }
+        if (dialect.supportsRowValueComparison() && !descending.contains(!descending.get(0))) {
+            String placeholders = String.join(", ", Collections.nCopies(columns.size(), "?"));
+            String operator = descending.get(0) ? " < " : " > ";
+            return new DatabaseQueryParameter("(" + String.join(", ", columns) + ")" + operator + "(" + placeholders + ")", lastValues);
+        }
+        List<String> alternatives = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            List<String> conditions = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                conditions.add(columns.get(j) + " = ?");
+                parameters.add(lastValues.get(j));
+            }
+            conditions.add(columns.get(i) + (descending.get(i) ? " < ?" : " > ?"));
+            parameters.add(lastValues.get(i));
+            alternatives.add("(" + String.join(" and ", conditions) + ")");
+        }
+        return new DatabaseQueryParameter("(" + String.join(" or ", alternatives) + ")", parameters);
+    }
+
+    /**
+     * Returns the rows from offset to offset + limit together with the total number of rows matched
+     * by the query. If the database {@link DatabaseDialect#supportsWindowFunctions()}, the total is
+     * read from <code>count(*) over ()</code> in the same query, otherwise the rows are counted
+     * with a separate <code>select count(*)</code> on the same connection. Example:
+     *
+     * <pre>
+     * DatabasePage&lt;Person&gt; page = table.where("status", status).orderBy("name")
+     *      .listWithTotal(connection, 40, 20, Person::fromRow);
+     * </pre>
+     */
+    @CheckReturnValue
+    public <T> DatabasePage<T> listWithTotal(Connection connection, int offset, int limit, DatabaseResult.RowMapper<T> mapper) {
+        skipAndLimit(offset, limit);
+        if (!DatabaseDialect.fromConnection(connection).supportsWindowFunctions()) {
+            int totalCount = getCount(connection);
+            return new DatabasePage<>(offset < totalCount ? list(connection, mapper) : new ArrayList<>(), offset, totalCount);
+        }
+        // Oracle doesn't allow other columns after an unqualified *
+        String columns = !this.columns.isEmpty() ? String.join(", ", this.columns)
+                : fromStatement.matches("[\\w.$]+") ? fromStatement + ".*" : "*";
+        String selectStatement = createSelectStatement(columns + ", count(*) over () as " + DatabasePage.TOTAL_COUNT_COLUMN);
+        DatabasePage.TotalCountMapper<T> totalCountMapper = new DatabasePage.TotalCountMapper<>(mapper);
+        List<T> items = factory.newStatement(fromStatement, "SELECT", selectStatement, getParameters())
+                .list(connection, totalCountMapper);
+        return totalCountMapper.toPage(items, offset, () -> getCount(connection));
+    }
+
+    /**
+     * Returns the column name of an <code>ORDER BY</code> expression, without <code>asc</code> or <code>desc</code>
+     */
+    static String seekColumn(String orderColumn) {
+        String column = orderColumn.trim();
+        String lowerCase = column.toLowerCase(Locale.ROOT);
+        if (lowerCase.endsWith(" desc") || lowerCase.endsWith(" asc")) {
+            return column.substring(0, column.lastIndexOf(' ')).trim();
+        }
+        return column;
+    }
+
     /**
      * If the query returns no rows, returns {@link SingleRow#absent}, if exactly one row is returned, maps it and return it,
      * if more than one is returned, throws `IllegalStateException`
@@ -155,6 +270,16 @@ public class DatabaseSelectBuilder implements DatabaseQueryBuilder<DatabaseSelec
         getDatabaseStatement().forEach(connection, consumer);
     }
 
+    /**
+     * Executes the <code>SELECT * FROM ...</code> statement and reads the result into the columns
+     * of batch, calling consumer for each full batch
+     *
+     * @see DatabaseStatement#forEachBatch(Connection, DatabaseColumnBatch, Consumer)
+     */
+    public void forEachBatch(Connection connection, DatabaseColumnBatch batch, Consumer<DatabaseColumnBatch> consumer) {
+        getDatabaseStatement().forEachBatch(connection, batch, consumer);
+    }
+
     /**
      * Executes <code>SELECT count(*) FROM ...</code> on the query and returns the result
      */
@@ -162,9 +287,9 @@ public class DatabaseSelectBuilder implements DatabaseQueryBuilder<DatabaseSelec
     public int getCount(Connection connection) {
         String selectStatement = "select count(*) as count "
                 + (" from " + fromStatement)
-                + whereBuilder.whereClause()
+                + whereClause()
                 + (groupByClauses.isEmpty() ? "" : " group by " + String.join(", ", groupByClauses));
-        return factory.newStatement(fromStatement, "COUNT", selectStatement, whereBuilder.getParameters())
+        return factory.newStatement(fromStatement, "COUNT", selectStatement, getParameters())
                 .singleObject(connection, row -> row.getInt("count"))
                 .orElseThrow();
     }
@@ -182,19 +307,46 @@ public class DatabaseSelectBuilder implements DatabaseQueryBuilder<DatabaseSelec
      * with this expression and the same parameters as this builder
      */
     public DatabaseQueryParameter asNestedSelectOn(String column) {
-        return new DatabaseQueryParameter(column + " in (" + createSelectStatement() + ")", whereBuilder.getParameters());
+        return new DatabaseQueryParameter(column + " in (" + createSelectStatement() + ")", getParameters());
     }
 
+    /**
+     * Returns the {@link DatabaseStatement} which executes this query
+     */
     @Nonnull
-    protected DatabaseStatement getDatabaseStatement() {
-        return factory.newStatement(fromStatement, "SELECT", createSelectStatement(), whereBuilder.getParameters());
+    public DatabaseStatement getDatabaseStatement() {
+        return factory.newStatement(fromStatement, "SELECT", createSelectStatement(), getParameters());
+    }
+
+    /**
+     * The <code>WHERE</code> clause from the where builder, combined with the predicate from
+     * {@link #seekAfter(List, List)}. The seek predicate is kept out of the where builder, as it
+     * may be shared with the {@link DatabaseTableQueryBuilder} which created this builder
+     */
+    protected String whereClause() {
+        String whereClause = whereBuilder.whereClause();
+        if (seekParameter == null) {
+            return whereClause;
+        }
+        return (whereClause.isEmpty() ? " WHERE " : whereClause + " AND ") + seekParameter.getWhereExpression();
+    }
+
+    protected List<Object> getParameters() {
+        List<Object> parameters = whereBuilder.getParameters();
+        if (seekParameter != null) {
+            parameters.addAll(seekParameter.getParameters());
+        }
+        return parameters;
     }
 
     protected String createSelectStatement() {
-        String columns = this.columns.isEmpty() ? "*" : String.join(", ", this.columns);
+        return createSelectStatement(this.columns.isEmpty() ? "*" : String.join(", ", this.columns));
+    }
+
+    protected String createSelectStatement(String columns) {
         return "select " + columns
                 + (" from " + fromStatement)
-                + whereBuilder.whereClause()
+                + whereClause()
                 + (groupByClauses.isEmpty() ? "" : " group by " + String.join(", ", groupByClauses))
                 + (orderByClauses.isEmpty() ? "" : " order by " + String.join(", ", orderByClauses))
                 + (rowCount == null ? "" : " offset " + offset + " rows fetch first " + rowCount + " rows only");
@@ -0,0 +1,82 @@
+package org.fluentjdbc;
+
+import javax.annotation.Nullable;
+import java.util.List;
+
+/**
+ * A query which took longer than the threshold of {@link DatabaseSlowQueryReporter}, with the
+ * parameters after redaction, the code which executed it and, if sampled, the execution plan
+ */
+public class DatabaseSlowQuery {
+
+    private final String tableName;
+    private final String operation;
+    private final String statement;
+    private final List<Object> parameters;
+    private final StackTraceElement callSite;
+    private final DatabaseQueryExecution execution;
+    private final String plan;
+
+    DatabaseSlowQuery(String tableName, String operation, String statement, List<Object> parameters, @Nullable StackTraceElement callSite, DatabaseQueryExecution execution, @Nullable String plan) {
+        this.tableName = tableName;
+        this.operation = operation;
+        this.statement = statement;
+        this.parameters = parameters;
+        this.callSite = callSite;
+        this.execution = execution;
+        this.plan = plan;
+    }
+
+    DatabaseSlowQuery withPlan(String plan) {
+        return new DatabaseSlowQuery(tableName, operation, statement, parameters, callSite, execution, plan);
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    /**
+     * The parameterized SQL statement
+     */
+    public String getStatement() {
+        return statement;
+    }
+
+    /**
+     * The parameters bound to the statement, as returned by {@link DatabaseSlowQueryReporter.ParameterRedactor}
+     */
+    public List<Object> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * The first stack frame outside fluent-jdbc when the query completed, or null if not found
+     */
+    @Nullable
+    public StackTraceElement getCallSite() {
+        return callSite;
+    }
+
+    public DatabaseQueryExecution getExecution() {
+        return execution;
+    }
+
+    /**
+     * The execution plan from {@link DatabaseDialect#explain}, or null if the query was not sampled
+     */
+    @Nullable
+    public String getPlan() {
+        return plan;
+    }
+
+    @Override
+    public String toString() {
+        return "time=" + execution.getTotalMillis() / 1000.0 + "s table=" + tableName + " operation=" + operation
+               + " at=" + callSite + " query=\"" + statement + "\" parameters=" + parameters
+               + (plan != null ? "\nplan:\n" + plan : "");
+    }
+}
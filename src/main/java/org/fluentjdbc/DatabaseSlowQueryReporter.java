@@ -0,0 +1,205 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.DbContext.ConnectionSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * A {@link DatabaseReporter} which reports queries that take longer than a threshold to a
+ * {@link Consumer} of {@link DatabaseSlowQuery}, by default logging them as warnings. Each slow
+ * query includes the parameters, passed through a {@link ParameterRedactor}, and the first
+ * stack frame outside fluent-jdbc. All queries are also passed to the delegate reporter.
+ *
+ * <p>With {@link #setExplainSampling(ConnectionSupplier, double, Executor)}, a fraction of the slow
+ * queries are explained with {@link DatabaseDialect#explain} on a separate connection on the
+ * executor, and reported with the plan when it is ready. Only one plan is fetched at a time, and
+ * slow queries arriving meanwhile are reported without a plan. Only <code>SELECT</code> and
+ * <code>COUNT</code> operations are explained.</p>
+ *
+ * <pre>
+ * DatabaseSlowQueryReporter reporter = new DatabaseSlowQueryReporter(DatabaseReporter.LOGGING_REPORTER, 500)
+ *      .setParameterRedactor(DatabaseSlowQueryReporter.REDACT_STRINGS)
+ *      .setExplainSampling(dataSource::getConnection, 0.1, executor);
+ * DbContext context = new DbContext(new DatabaseStatementFactory(reporter), DatabaseTransactionReporter.LOGGING_REPORTER);
+ * </pre>
+ */
+@ParametersAreNonnullByDefault
+public class DatabaseSlowQueryReporter implements DatabaseReporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseSlowQueryReporter.class);
+
+    /**
+     * Decides how the value of each parameter of a slow query is reported
+     */
+    @FunctionalInterface
+    public interface ParameterRedactor {
+        /**
+         * Returns the value to report for the parameter at the zero-based index of the statement
+         */
+        @Nullable
+        Object redact(DatabaseStatement statement, int index, @Nullable Object value);
+    }
+
+    public static final ParameterRedactor NO_REDACTION = (statement, index, value) -> value;
+
+    public static final ParameterRedactor REDACT_ALL = (statement, index, value) -> value != null ? "***" : null;
+
+    /**
+     * Replaces strings and byte arrays, which are likely to contain personal data, but keeps
+     * numbers, dates and booleans
+     */
+    public static final ParameterRedactor REDACT_STRINGS = (statement, index, value) ->
+            value instanceof CharSequence || value instanceof byte[] ? "***" : value;
+
+    public static final Consumer<DatabaseSlowQuery> LOGGING_LISTENER = slowQuery -> logger.warn("Slow query {}", slowQuery);
+
+    private final DatabaseReporter delegate;
+    private final long thresholdNanos;
+    private ParameterRedactor parameterRedactor = NO_REDACTION;
+    private Consumer<DatabaseSlowQuery> listener = LOGGING_LISTENER;
+    private ConnectionSupplier explainConnection;
+    private double explainSampleRate;
+    private Executor explainExecutor;
+    private volatile DatabaseDialect dialect;
+    private final AtomicBoolean explaining = new AtomicBoolean();
+
+    public DatabaseSlowQueryReporter(DatabaseReporter delegate, long thresholdMillis) {
+        this.delegate = delegate;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    public DatabaseSlowQueryReporter setParameterRedactor(ParameterRedactor parameterRedactor) {
+        this.parameterRedactor = parameterRedactor;
+        return this;
+    }
+
+    /**
+     * Sets the consumer which is called with each slow query. Slow queries which are explained
+     * are reported on the explain {@link Executor}
+     */
+    public DatabaseSlowQueryReporter setListener(Consumer<DatabaseSlowQuery> listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Explains the given fraction (between 0 and 1) of the slow queries on a connection from
+     * connectionSupplier, running on executor
+     */
+    public DatabaseSlowQueryReporter setExplainSampling(ConnectionSupplier connectionSupplier, double sampleRate, Executor executor) {
+        this.explainConnection = connectionSupplier;
+        this.explainSampleRate = sampleRate;
+        this.explainExecutor = executor;
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public DatabaseTableReporter table(String tableName) {
+        DatabaseTableReporter tableReporter = delegate.table(tableName);
+        return operation -> {
+            DatabaseTableOperationReporter operationReporter = tableReporter.operation(operation);
+            return new DatabaseTableOperationReporter() {
+                @Override
+                public void startQuery(DatabaseStatement query, DatabaseQueryExecution execution) {
+                    operationReporter.startQuery(query, execution);
+                }
+
+                @Override
+                public void reportQuery(DatabaseStatement query, long timing) {
+                    operationReporter.reportQuery(query, timing);
+                }
+
+                @Override
+                public void reportQuery(DatabaseStatement query, DatabaseQueryExecution execution) {
+                    operationReporter.reportQuery(query, execution);
+                    if (execution.getTotalNanos() >= thresholdNanos) {
+                        reportSlowQuery(tableName, operation, query, execution);
+                    }
+                }
+            };
+        };
+    }
+
+    private void reportSlowQuery(String tableName, String operation, DatabaseStatement query, DatabaseQueryExecution execution) {
+        List<Object> parameters = new ArrayList<>();
+        for (Object parameter : query.getParameters()) {
+            parameters.add(parameterRedactor.redact(query, parameters.size(), parameter));
+        }
+        DatabaseSlowQuery slowQuery = new DatabaseSlowQuery(
+                tableName, operation, query.getStatement(), parameters, findCallSite(), execution, null
+        );
+        if (shouldExplain(operation, execution) && explaining.compareAndSet(false, true)) {
+            try {
+                explainExecutor.execute(() -> explainAndReport(slowQuery, query));
+            } catch (RuntimeException e) {
+                explaining.set(false);
+                listener.accept(slowQuery);
+            }
+        } else {
+            listener.accept(slowQuery);
+        }
+    }
+
+    /**
+     * Only queries are explained, as explaining an update could bind parameters like
+     * {@link java.io.InputStream} which can only be read once a second time
+     */
+    private boolean shouldExplain(String operation, DatabaseQueryExecution execution) {
+        return explainConnection != null
+               && (operation.equals("SELECT") || operation.equals("COUNT"))
+               && execution.getUpdateCount() < 0 && execution.getBatchSize() == 0
+               && ThreadLocalRandom.current().nextDouble() < explainSampleRate;
+    }
+
+    private void explainAndReport(DatabaseSlowQuery slowQuery, DatabaseStatement query) {
+        DatabaseSlowQuery result = slowQuery;
+        try (Connection connection = explainConnection.getConnection()) {
+            if (dialect == null) {
+                dialect = DatabaseDialect.fromConnection(connection);
+            }
+            if (dialect.supportsExplain()) {
+                result = slowQuery.withPlan(dialect.explain(connection, query.getStatement(), query.getParameters()));
+            }
+        } catch (Exception e) {
+            logger.debug("Failed to explain {}", query.getStatement(), e);
+        } finally {
+            explaining.set(false);
+        }
+        listener.accept(result);
+    }
+
+    /**
+     * Returns the first stack frame which is not in fluent-jdbc or the JDK
+     */
+    @Nullable
+    static StackTraceElement findCallSite() {
+        for (StackTraceElement element : new Throwable().getStackTrace()) {
+            if (!isLibraryFrame(element.getClassName())) {
+                return element;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isLibraryFrame(String className) {
+        if (className.startsWith("org.fluentjdbc.")) {
+            String name = className.substring("org.fluentjdbc.".length());
+            return name.indexOf('.') < 0 || name.startsWith("util.") || name.startsWith("opt.");
+        }
+        return className.startsWith("java.") || className.startsWith("javax.")
+               || className.startsWith("jdk.") || className.startsWith("sun.");
+    }
+}
@@ -10,6 +10,9 @@ import javax.annotation.ParametersAreNonnullByDefault;
 import java.io.InputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.Date;
 import java.sql.PreparedStatement;
@@ -23,6 +26,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -43,24 +47,60 @@ public class DatabaseStatement {
         T apply(PreparedStatement stmt) throws SQLException;
     }
 
+    /**
+     * Called when a query returns more rows than the configured threshold, see
+     * {@link DatabaseStatementFactory#setLargeResultThreshold(int, LargeResultHandler)}
+     */
+    @FunctionalInterface
+    public interface LargeResultHandler {
+        /**
+         * Called once, on the thread reading the result, when the query has fetched more than threshold rows
+         */
+        void onLargeResult(DatabaseStatement statement, int threshold);
+    }
+
 
     protected static final Logger logger = LoggerFactory.getLogger(DatabaseStatement.class);
+
+    public static final LargeResultHandler LOGGING_LARGE_RESULT_HANDLER = (statement, threshold) ->
+            logger.warn("Query returned more than {} rows: {}", threshold, statement.getStatement());
+
     protected final String tableName;
     protected final String statement;
     protected final Collection<?> parameters;
     protected final DatabaseTableOperationReporter reporter;
+    protected final int largeResultThreshold;
+    protected final LargeResultHandler largeResultHandler;
 
     public DatabaseStatement(String tableName, String statement, Collection<?> parameters, DatabaseTableOperationReporter reporter) {
+        this(tableName, statement, parameters, reporter, 0, LOGGING_LARGE_RESULT_HANDLER);
+    }
+
+    /**
+     * Creates a statement which calls largeResultHandler if a query fetches more than largeResultThreshold
+     * rows. A largeResultThreshold of 0 turns off the check
+     */
+    public DatabaseStatement(String tableName, String statement, Collection<?> parameters, DatabaseTableOperationReporter reporter, int largeResultThreshold, LargeResultHandler largeResultHandler) {
         this.tableName = tableName;
         this.statement = statement;
         this.parameters = parameters;
         this.reporter = reporter;
+        this.largeResultThreshold = largeResultThreshold;
+        this.largeResultHandler = largeResultHandler;
     }
 
     public String getStatement() {
         return statement;
     }
 
+    public Collection<?> getParameters() {
+        return parameters;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
     /**
      * sets all parameters on the statement, calling {@link #bindParameter(PreparedStatement, int, Object)} to
      * convert each one
@@ -84,7 +124,9 @@ public class DatabaseStatement {
     /**
      * Calls the correct {@link PreparedStatement} <code>setXXX</code> method based on the type of the parameter.
      * Supports {@link Instant}, {@link ZonedDateTime}, {@link OffsetDateTime}, {@link LocalDate}, {@link String},
-     * {@link List} of String or Integer, {@link Enum}, {@link UUID}, {@link Double}
+     * {@link List} of String, Integer, Long or UUID, {@link Enum}, {@link UUID}, {@link Double}. {@link Path},
+     * {@link FileChannel} (from the current position) and {@link ByteBuffer} (the remaining bytes) are bound
+     * as binary streams with a known length, without reading the contents into memory
      */
     public static void bindParameter(PreparedStatement stmt, int index, @Nullable Object parameter) throws SQLException {
         if (parameter instanceof Instant) {
@@ -108,11 +150,21 @@ public class DatabaseStatement {
                 stmt.setArray(index, stmt.getConnection().createArrayOf(null, elements));
             } else if (elements[0] instanceof Integer) {
                 stmt.setArray(index, stmt.getConnection().createArrayOf("integer", elements));
+            } else if (elements[0] instanceof Long) {
+                stmt.setArray(index, stmt.getConnection().createArrayOf("bigint", elements));
             } else if (elements[0] instanceof String) {
                 stmt.setArray(index, stmt.getConnection().createArrayOf("varchar", elements));
+            } else if (elements[0] instanceof UUID) {
+                stmt.setArray(index, stmt.getConnection().createArrayOf("uuid", elements));
             } else {
                 throw new IllegalArgumentException("Not supported: Arrays of " + elements[0].getClass());
             }
+        } else if (parameter instanceof Path) {
+            DatabaseBinaryStreams.bindPath(stmt, index, (Path) parameter);
+        } else if (parameter instanceof FileChannel) {
+            DatabaseBinaryStreams.bindFileChannel(stmt, index, (FileChannel) parameter);
+        } else if (parameter instanceof ByteBuffer) {
+            DatabaseBinaryStreams.bindByteBuffer(stmt, index, (ByteBuffer) parameter);
         } else if (parameter instanceof InputStream) {
             stmt.setBinaryStream(index, ((InputStream) parameter));
         } else if (parameter instanceof Reader) {
@@ -191,7 +243,103 @@ public class DatabaseStatement {
      * and executes the statement
      */
     public int executeUpdate(Connection connection) {
-        return execute(connection, PreparedStatement::executeUpdate);
+        DatabaseQueryExecution execution = newExecution();
+        return execute(connection, execution, null, stmt -> {
+            int updateCount = stmt.executeUpdate();
+            execution.executed();
+            execution.updated(updateCount);
+            return updateCount;
+        });
+    }
+
+    /**
+     * Calls {@link Connection#prepareStatement(String)} with the statement, uses
+     * {@link #addBatch(PreparedStatement, Iterable, Collection)} to bind the values extracted from each
+     * object and executes the batch. The batch size and total update count are reported to the
+     * {@link DatabaseTableOperationReporter}
+     *
+     * @return the update count for each object
+     */
+    public <T> int[] executeBatch(Connection connection, Iterable<T> objects, Collection<Function<T, ?>> columnValueExtractors) {
+        return executeBatchWithResult(connection, objects, columnValueExtractors, null, stmt -> null).updateCounts;
+    }
+
+    /**
+     * Like {@link #executeBatch(Connection, Iterable, Collection)}, but calls
+     * {@link Connection#prepareStatement(String, String[])} with the columnNames and then calls
+     * generatedKeysFunction with the statement after executing the batch to read
+     * {@link PreparedStatement#getGeneratedKeys()}
+     */
+    public <T, RESULT> RESULT executeBatch(Connection connection, Iterable<T> objects, Collection<Function<T, ?>> columnValueExtractors, String[] columnNames, PreparedStatementFunction<RESULT> generatedKeysFunction) {
+        return executeBatchWithResult(connection, objects, columnValueExtractors, columnNames, generatedKeysFunction).result;
+    }
+
+    private <T, RESULT> BatchResult<RESULT> executeBatchWithResult(Connection connection, Iterable<T> objects, Collection<Function<T, ?>> columnValueExtractors, @Nullable String[] columnNames, PreparedStatementFunction<RESULT> afterExecute) {
+        DatabaseQueryExecution execution = newExecution();
+        return execute(connection, execution, columnNames, stmt -> {
+            int batchSize = 0;
+            for (T object : objects) {
+                int columnIndex = 1;
+                for (Function<T, ?> f : columnValueExtractors) {
+                    bindParameter(stmt, columnIndex++, f.apply(object));
+                }
+                stmt.addBatch();
+                batchSize++;
+            }
+            execution.bound();
+            int[] updateCounts = stmt.executeBatch();
+            execution.executed();
+            execution.batchExecuted(batchSize, updateCounts);
+            return new BatchResult<>(updateCounts, afterExecute.apply(stmt));
+        });
+    }
+
+    private static class BatchResult<RESULT> {
+        private final int[] updateCounts;
+        private final RESULT result;
+
+        private BatchResult(int[] updateCounts, RESULT result) {
+            this.updateCounts = updateCounts;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Executes statements which all have the same SQL as a single JDBC batch by binding the parameters of
+     * each statement and calling {@link PreparedStatement#addBatch()}, and returns the update count of
+     * each statement. Some drivers return {@link java.sql.Statement#SUCCESS_NO_INFO} instead of the count
+     *
+     * @throws IllegalArgumentException if the statements have different SQL
+     */
+    public static int[] executeBatch(Connection connection, List<? extends DatabaseStatement> statements) {
+        if (statements.isEmpty()) {
+            return new int[0];
+        }
+        DatabaseStatement first = statements.get(0);
+        for (DatabaseStatement statement : statements) {
+            if (!statement.statement.equals(first.statement)) {
+                throw new IllegalArgumentException("Can't batch different statements: " + first.statement + " and " + statement.statement);
+            }
+        }
+        DatabaseQueryExecution execution = first.newExecution();
+        logger.trace(first.statement);
+        try (PreparedStatement stmt = connection.prepareStatement(first.statement)) {
+            execution.prepared();
+            for (DatabaseStatement statement : statements) {
+                bindParameters(stmt, statement.parameters);
+                stmt.addBatch();
+            }
+            execution.bound();
+            int[] updateCounts = stmt.executeBatch();
+            execution.executed();
+            execution.batchExecuted(statements.size(), updateCounts);
+            return updateCounts;
+        } catch (SQLException e) {
+            MDC.put("fluentjdbc.tablename", first.tableName);
+            throw ExceptionUtil.softenCheckedException(e);
+        } finally {
+            execution.complete();
+        }
     }
 
     /**
@@ -262,6 +410,24 @@ public class DatabaseStatement {
     }
 
 
+    /**
+     * Execute the query and read the result into the columns of batch, calling consumer each time
+     * batch is full and with the remaining rows at the end. Uses the capacity of the batch as
+     * {@link PreparedStatement#setFetchSize(int)}
+     *
+     * @see DatabaseColumnBatch
+     */
+    public void forEachBatch(Connection connection, DatabaseColumnBatch batch, Consumer<DatabaseColumnBatch> consumer) {
+        DatabaseQueryExecution execution = newExecution();
+        execute(connection, execution, null, stmt -> {
+            stmt.setFetchSize(batch.getCapacity());
+            try (DatabaseResult result = new DatabaseResult(stmt, execution)) {
+                batch.readAll(result, consumer);
+            }
+            return null;
+        });
+    }
+
     /**
      * Execute the query and map each return value over the {@link DatabaseResult.RowMapper} function to return a stream. Example:
      * <pre>
@@ -269,16 +435,31 @@ public class DatabaseStatement {
      * </pre>
      */
     public <OBJECT> Stream<OBJECT> stream(Connection connection, DatabaseResult.RowMapper<OBJECT> mapper) {
-        long startTime = System.currentTimeMillis();
+        return stream(connection, mapper, 0);
+    }
+
+    /**
+     * Like {@link #stream(Connection, DatabaseResult.RowMapper)}, but calls {@link PreparedStatement#setFetchSize(int)}
+     * so the driver retrieves fetchSize rows at a time from the database as the stream is consumed.
+     * Some databases, like PostgreSQL, only use the fetch size when auto-commit is turned off.
+     * A fetchSize of 0 uses the default of the driver
+     */
+    public <OBJECT> Stream<OBJECT> stream(Connection connection, DatabaseResult.RowMapper<OBJECT> mapper, int fetchSize) {
+        DatabaseQueryExecution execution = newExecution();
         try {
-            PreparedStatement stmt = prepareStatement(connection);
-            DatabaseResult result = new DatabaseResult(stmt);
+            PreparedStatement stmt = prepareStatement(connection, execution, null);
+            if (fetchSize > 0) {
+                stmt.setFetchSize(fetchSize);
+            }
+            DatabaseResult result = new DatabaseResult(stmt, execution);
             return result.stream(mapper, statement);
         } catch (SQLException e) {
             MDC.put("fluentjdbc.tablename", tableName);
+            execution.complete();
             throw ExceptionUtil.softenCheckedException(e);
-        } finally {
-            reporter.reportQuery(this, System.currentTimeMillis() - startTime);
+        } catch (RuntimeException e) {
+            execution.complete();
+            throw e;
         }
     }
 
@@ -293,20 +474,39 @@ public class DatabaseStatement {
         return stmt;
     }
 
+    private PreparedStatement prepareStatement(Connection connection, DatabaseQueryExecution execution, @Nullable String[] columnNames) throws SQLException {
+        logger.trace(statement);
+        PreparedStatement stmt = columnNames != null
+                ? connection.prepareStatement(statement, columnNames)
+                : connection.prepareStatement(statement);
+        execution.prepared();
+        bindParameters(stmt, parameters);
+        execution.bound();
+        return stmt;
+    }
+
     /**
      * Calls {@link Connection#prepareStatement(String)} with the statement,
      * {@link #bindParameters(PreparedStatement, Collection)}, converting each parameter in the process
      * and executes the argument function with the statement
      */
     public <T> T execute(Connection connection, PreparedStatementFunction<T> f) {
-        long startTime = System.currentTimeMillis();
-        try (PreparedStatement stmt = prepareStatement(connection)) {
+        DatabaseQueryExecution execution = newExecution();
+        return execute(connection, execution, null, stmt -> {
+            T result = f.apply(stmt);
+            execution.executed();
+            return result;
+        });
+    }
+
+    private <T> T execute(Connection connection, DatabaseQueryExecution execution, @Nullable String[] columnNames, PreparedStatementFunction<T> f) {
+        try (PreparedStatement stmt = prepareStatement(connection, execution, columnNames)) {
             return f.apply(stmt);
         } catch (SQLException e) {
             MDC.put("fluentjdbc.tablename", tableName);
             throw ExceptionUtil.softenCheckedException(e);
         } finally {
-            reporter.reportQuery(this, System.currentTimeMillis() - startTime);
+            execution.complete();
         }
     }
 
@@ -316,27 +516,88 @@ public class DatabaseStatement {
      * and executes the argument function with the statement
      */
     public <T> T execute(Connection connection, PreparedStatementFunction<T> f, String[] columnNames) {
-        long startTime = System.currentTimeMillis();
-        logger.trace(statement);
-        try (PreparedStatement stmt = connection.prepareStatement(statement, columnNames)) {
-            bindParameters(stmt, parameters);
-            return f.apply(stmt);
-        } catch (SQLException e) {
-            MDC.put("fluentjdbc.tablename", tableName);
-            throw ExceptionUtil.softenCheckedException(e);
-        } finally {
-            reporter.reportQuery(this, System.currentTimeMillis() - startTime);
-        }
+        DatabaseQueryExecution execution = newExecution();
+        return execute(connection, execution, columnNames, stmt -> {
+            T result = f.apply(stmt);
+            execution.executed();
+            return result;
+        });
     }
 
     public <T> T query(Connection connection, DatabaseResult.DatabaseResultMapper<T> resultMapper) {
-        return execute(connection, stmt -> {
-            try (DatabaseResult result = new DatabaseResult(stmt)) {
+        DatabaseQueryExecution execution = newExecution();
+        return execute(connection, execution, null, stmt -> {
+            try (DatabaseResult result = new DatabaseResult(stmt, execution)) {
                 return resultMapper.apply(result);
             }
         });
     }
 
+    /**
+     * Like {@link #query(Connection, DatabaseResult.DatabaseResultMapper)}, but uses createResult to
+     * execute the statement and create the {@link DatabaseResult}
+     */
+    <T> T query(Connection connection, PreparedStatementFunction<DatabaseResult> createResult, DatabaseResult.DatabaseResultMapper<T> resultMapper) {
+        DatabaseQueryExecution execution = newExecution();
+        return execute(connection, execution, null, stmt -> {
+            try (DatabaseResult result = createResult.apply(stmt)) {
+                execution.executed();
+                result.track(execution);
+                return resultMapper.apply(result);
+            }
+        });
+    }
+
+    /**
+     * Like {@link #stream(Connection, DatabaseResult.RowMapper)}, but uses createResult to execute
+     * the statement and create the {@link DatabaseResult}
+     */
+    <T> Stream<T> stream(Connection connection, PreparedStatementFunction<DatabaseResult> createResult, DatabaseResult.RowMapper<T> mapper) {
+        DatabaseQueryExecution execution = newExecution();
+        PreparedStatement stmt = null;
+        try {
+            stmt = prepareStatement(connection, execution, null);
+            DatabaseResult result = createResult.apply(stmt);
+            execution.executed();
+            result.track(execution);
+            return result.stream(mapper, statement);
+        } catch (SQLException | RuntimeException e) {
+            execution.complete();
+            closeQuietly(stmt);
+            if (e instanceof SQLException) {
+                MDC.put("fluentjdbc.tablename", tableName);
+            }
+            throw ExceptionUtil.softenCheckedException(e);
+        }
+    }
+
+    private static void closeQuietly(@Nullable PreparedStatement stmt) {
+        if (stmt != null) {
+            try {
+                stmt.close();
+            } catch (SQLException e) {
+                logger.debug("Failed to close statement", e);
+            }
+        }
+    }
+
+    /**
+     * Creates a {@link DatabaseQueryExecution} and calls
+     * {@link DatabaseTableOperationReporter#startQuery(DatabaseStatement, DatabaseQueryExecution)}. The execution calls
+     * {@link DatabaseTableOperationReporter#reportQuery(DatabaseStatement, DatabaseQueryExecution)} when completed
+     * and {@link LargeResultHandler#onLargeResult(DatabaseStatement, int)} if the query returns more
+     * than {@link #largeResultThreshold} rows
+     */
+    private DatabaseQueryExecution newExecution() {
+        DatabaseQueryExecution execution = new DatabaseQueryExecution(
+                completed -> reporter.reportQuery(this, completed),
+                largeResultThreshold,
+                () -> largeResultHandler.onLargeResult(this, largeResultThreshold)
+        );
+        reporter.startQuery(this, execution);
+        return execution;
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + "{statement=" + statement + ", parameters=" + parameters + '}';
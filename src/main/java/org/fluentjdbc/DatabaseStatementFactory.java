@@ -2,28 +2,104 @@ package org.fluentjdbc;
 
 import java.sql.PreparedStatement;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Controls the creation of {@link DatabaseStatement} objects, which allows for fine custom interception
- * that affects all database operations.
- *
- * <p><strong>Currently not used for the bulk operations {@link DatabaseBulkDeleteBuilder},
- * {@link DatabaseBulkUpdatable}, {@link DatabaseBulkInsertBuilder} and {@link DbContext} variations of these</strong></p>
+ * that affects all database operations, including the bulk operations {@link DatabaseBulkDeleteBuilder},
+ * {@link DatabaseBulkUpdatable}, {@link DatabaseBulkInsertBuilder} and {@link DbContext} variations of these.
  */
 public class DatabaseStatementFactory {
 
     protected final DatabaseReporter reporter;
+    private int largeResultThreshold = 0;
+    private DatabaseStatement.LargeResultHandler largeResultHandler = DatabaseStatement.LOGGING_LARGE_RESULT_HANDLER;
+    private final List<Consumer<DatabaseStatement>> executionListeners = new CopyOnWriteArrayList<>();
+    private DatabaseUUIDGenerator uuidGenerator = DatabaseUUIDGenerator.RANDOM;
 
     public DatabaseStatementFactory(DatabaseReporter reporter) {
         this.reporter = reporter;
     }
 
+    /**
+     * Logs a warning when a single query, for example a <code>list()</code>, fetches more than
+     * maxRows rows. A maxRows of 0 turns off the warning
+     */
+    public DatabaseStatementFactory setLargeResultThreshold(int maxRows) {
+        return setLargeResultThreshold(maxRows, DatabaseStatement.LOGGING_LARGE_RESULT_HANDLER);
+    }
+
+    /**
+     * Calls handler when a single query, for example a <code>list()</code>, fetches more than
+     * maxRows rows. A maxRows of 0 turns off the check
+     */
+    public DatabaseStatementFactory setLargeResultThreshold(int maxRows, DatabaseStatement.LargeResultHandler handler) {
+        this.largeResultThreshold = maxRows;
+        this.largeResultHandler = handler;
+        return this;
+    }
+
+    /**
+     * Generates the primary keys for {@link DatabaseSaveBuilderWithUUID} of tables using this factory
+     * with uuidGenerator, unless the table has its own {@link DatabaseTableImpl#setUUIDGenerator}.
+     * Default is {@link DatabaseUUIDGenerator#RANDOM}
+     */
+    public DatabaseStatementFactory setUUIDGenerator(DatabaseUUIDGenerator uuidGenerator) {
+        this.uuidGenerator = uuidGenerator;
+        return this;
+    }
+
+    public DatabaseUUIDGenerator getUUIDGenerator() {
+        return uuidGenerator;
+    }
+
+    /**
+     * Calls the listener on the executing thread each time a statement from this factory starts executing
+     */
+    void addExecutionListener(Consumer<DatabaseStatement> listener) {
+        executionListeners.add(listener);
+    }
+
+    void removeExecutionListener(Consumer<DatabaseStatement> listener) {
+        executionListeners.remove(listener);
+    }
+
+    int getExecutionListenerCount() {
+        return executionListeners.size();
+    }
+
     /**
      * Creates a new {@link DatabaseStatement}, giving the context of tableName and operation for logging
      * and reporting purposes. The sql parameter is passed to {@link java.sql.Connection#prepareStatement(String)}
      * and the parameters are bound with {@link DatabaseStatement#bindParameter(PreparedStatement, int, Object)}
      */
     public DatabaseStatement newStatement(String tableName, String operation, String sql, Collection<?> parameters) {
-        return new DatabaseStatement(tableName, sql, parameters, reporter.table(tableName).operation(operation));
+        return new DatabaseStatement(tableName, sql, parameters, createReporter(tableName, operation), largeResultThreshold, largeResultHandler);
+    }
+
+    private DatabaseTableOperationReporter createReporter(String tableName, String operation) {
+        DatabaseTableOperationReporter operationReporter = reporter.table(tableName).operation(operation);
+        if (executionListeners.isEmpty()) {
+            return operationReporter;
+        }
+        return new DatabaseTableOperationReporter() {
+            @Override
+            public void startQuery(DatabaseStatement query, DatabaseQueryExecution execution) {
+                executionListeners.forEach(listener -> listener.accept(query));
+                operationReporter.startQuery(query, execution);
+            }
+
+            @Override
+            public void reportQuery(DatabaseStatement query, long timing) {
+                operationReporter.reportQuery(query, timing);
+            }
+
+            @Override
+            public void reportQuery(DatabaseStatement query, DatabaseQueryExecution execution) {
+                operationReporter.reportQuery(query, execution);
+            }
+        };
     }
 }
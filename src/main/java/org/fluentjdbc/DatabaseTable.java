@@ -79,7 +79,7 @@ public interface DatabaseTable extends DatabaseQueryable<DatabaseTableQueryBuild
     /**
      * Creates a {@link DatabaseSaveBuilder} which creates a <code>INSERT</code> or <code>UPDATE</code>
      * statement, depending on whether the row already exists in the database.
-     * Generates UUID.randomUUID if idValue is null and row with matching unique keys does not already exist
+     * Generates a UUID with the {@link DatabaseUUIDGenerator} of the table if idValue is null and row with matching unique keys does not already exist
      */
     @CheckReturnValue
     DatabaseSaveBuilder<UUID> newSaveBuilderWithUUID(String fieldName, @Nullable UUID uuid);
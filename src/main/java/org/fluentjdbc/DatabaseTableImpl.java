@@ -30,6 +30,8 @@ public class DatabaseTableImpl implements DatabaseTable {
 
     private final String tableName;
     private final DatabaseStatementFactory factory;
+    private DatabaseUUIDGenerator uuidGenerator;
+    private DatabaseIdAllocator idAllocator;
 
     public DatabaseTableImpl(String tableName) {
         this(tableName, new DatabaseStatementFactory(DatabaseReporter.LOGGING_REPORTER));
@@ -40,6 +42,31 @@ public class DatabaseTableImpl implements DatabaseTable {
         this.factory = factory;
     }
 
+    /**
+     * Generates the primary keys for {@link #newSaveBuilderWithUUID} with uuidGenerator instead of
+     * the {@link DatabaseStatementFactory#getUUIDGenerator()} of the factory
+     */
+    public DatabaseTableImpl setUUIDGenerator(DatabaseUUIDGenerator uuidGenerator) {
+        this.uuidGenerator = uuidGenerator;
+        return this;
+    }
+
+    /**
+     * Takes the primary keys for new rows in {@link #newSaveBuilder} from idAllocator instead of
+     * reading the keys generated by the database
+     */
+    public DatabaseTableImpl setIdAllocator(DatabaseIdAllocator idAllocator) {
+        this.idAllocator = idAllocator;
+        return this;
+    }
+
+    /**
+     * The generator used for primary keys by {@link #newSaveBuilderWithUUID}
+     */
+    public DatabaseUUIDGenerator getUUIDGenerator() {
+        return uuidGenerator != null ? uuidGenerator : factory.getUUIDGenerator();
+    }
+
     @Override
     public DatabaseTableQueryBuilder where(DatabaseQueryParameter parameter) {
         return query().where(parameter);
@@ -80,13 +107,14 @@ public class DatabaseTableImpl implements DatabaseTable {
     /**
      * Creates a {@link DatabaseSaveBuilder} which creates a <code>INSERT</code> or <code>UPDATE</code>
      * statement, depending on whether the row already exists in the database. If idValue is null,
-     * {@link DatabaseSaveBuilder} will attempt to use the table's autogeneration of primary keys
-     * if there is no row with matching unique keys
+     * {@link DatabaseSaveBuilder} will attempt to use the table's autogeneration of primary keys,
+     * or the {@link #setIdAllocator id allocator} of the table, if there is no row with matching
+     * unique keys
      */
     @Override
     @CheckReturnValue
     public DatabaseSaveBuilder<Long> newSaveBuilder(String idField, @Nullable Long id) {
-        return new DatabaseSaveBuilderWithLong(this, idField, id);
+        return new DatabaseSaveBuilderWithLong(this, idField, id, idAllocator);
     }
 
     /**
@@ -112,7 +140,7 @@ public class DatabaseTableImpl implements DatabaseTable {
     /**
      * Creates a {@link DatabaseSaveBuilder} which creates a <code>INSERT</code> or <code>UPDATE</code>
      * statement, depending on whether the row already exists in the database.
-     * Generates UUID.randomUUID if idValue is null and row with matching unique keys does not already exist
+     * Generates a UUID with {@link #getUUIDGenerator()} if idValue is null and row with matching unique keys does not already exist
      */
     @Override
     @CheckReturnValue
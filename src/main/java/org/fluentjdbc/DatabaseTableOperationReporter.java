@@ -12,8 +12,17 @@ import org.slf4j.LoggerFactory;
 public interface DatabaseTableOperationReporter {
     Logger logger = LoggerFactory.getLogger(DatabaseTableOperationReporter.class);
 
-    DatabaseTableOperationReporter LOGGING_OPERATION_REPORTER =
-            (query, timing) -> logger.debug("time={}s query=\"{}\"", timing/1000.0, query.getStatement());
+    DatabaseTableOperationReporter LOGGING_OPERATION_REPORTER = new DatabaseTableOperationReporter() {
+        @Override
+        public void reportQuery(DatabaseStatement query, long timing) {
+            logger.debug("time={}s query=\"{}\"", timing/1000.0, query.getStatement());
+        }
+
+        @Override
+        public void reportQuery(DatabaseStatement query, DatabaseQueryExecution execution) {
+            logger.debug("time={}s query=\"{}\"", execution.getTotalNanos()/1_000_000_000.0, query.getStatement());
+        }
+    };
 
     /**
      * Called when the operation is performed on the table
@@ -21,4 +30,28 @@ public interface DatabaseTableOperationReporter {
      * @param timing The duration the query took in millis
      */
     void reportQuery(DatabaseStatement query, long timing);
+
+    /**
+     * Called when the execution of the query starts, before the statement is prepared. Together with
+     * {@link #reportQuery(DatabaseStatement, DatabaseQueryExecution)}, which is called with the same
+     * execution, this lets a reporter record the query as a span in time. Does nothing by default
+     *
+     * @param query The parameterized SQL query that will be executed to the database
+     * @param execution The execution which will be passed to {@link #reportQuery(DatabaseStatement, DatabaseQueryExecution)}
+     */
+    default void startQuery(DatabaseStatement query, DatabaseQueryExecution execution) {
+    }
+
+    /**
+     * Called when the operation is performed on the table with nanosecond timings for each phase
+     * of the execution. For streamed queries, this is called when the stream is consumed or closed.
+     * Override to get more detail than {@link #reportQuery(DatabaseStatement, long)}, which this
+     * method calls by default
+     *
+     * @param query The parameterized SQL query that was executed to the database
+     * @param execution The timing of each phase of the execution
+     */
+    default void reportQuery(DatabaseStatement query, DatabaseQueryExecution execution) {
+        reportQuery(query, execution.getTotalMillis());
+    }
 }
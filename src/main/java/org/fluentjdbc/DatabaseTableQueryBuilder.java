@@ -1,10 +1,26 @@
 package org.fluentjdbc;
 
+import org.fluentjdbc.util.ExceptionUtil;
+
+import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 /**
@@ -25,6 +41,12 @@ public class DatabaseTableQueryBuilder implements
         DatabaseListableQueryBuilder<DatabaseTableQueryBuilder>
 {
 
+    /**
+     * Gives each temporary key table a name of its own, so a table which failed to be dropped
+     * doesn't break later calls on the same connection
+     */
+    private static final AtomicLong temporaryTableCounter = new AtomicLong();
+
     protected final DatabaseTable table;
     protected final DatabaseWhereBuilder whereBuilder = new DatabaseWhereBuilder();
     protected final List<String> orderByClauses = new ArrayList<>();
@@ -72,7 +94,15 @@ public class DatabaseTableQueryBuilder implements
      */
     @Override
     public int delete(Connection connection) {
-        return table.delete().where(whereBuilder).execute(connection);
+        return createDeleteBuilder().execute(connection);
+    }
+
+    /**
+     * Creates a {@link DatabaseDeleteBuilder} for <code>DELETE FROM tableName WHERE ....</code>
+     */
+    @CheckReturnValue
+    DatabaseDeleteBuilder createDeleteBuilder() {
+        return table.delete().where(whereBuilder);
     }
 
     /**
@@ -113,6 +143,223 @@ public class DatabaseTableQueryBuilder implements
         return createSelectBuilder().skipAndLimit(offset, rowCount);
     }
 
+    /**
+     * Restricts the query to rows after lastValues when ordered by orderColumns, to fetch the next
+     * page of a keyset (seek) pagination. See {@link DatabaseSelectBuilder#seekAfter(List, List)}
+     */
+    @CheckReturnValue
+    public DatabaseSelectBuilder seekAfter(List<String> orderColumns, @Nullable List<?> lastValues) {
+        return createSelectBuilder().seekAfter(orderColumns, lastValues);
+    }
+
+    /**
+     * Returns all rows of the query as pages of at most pageSize rows ordered by keyColumns, where
+     * each page is fetched with {@link DatabaseSelectBuilder#seekAfter} from the last row of the
+     * previous page. The keyColumns must identify a row uniquely. Example:
+     * <pre>
+     *     table.where("status", status)
+     *          .pages(connection, Arrays.asList("created_at", "id"), 1000, row -&gt; row.getUUID("id"))
+     *          .forEach(ids -&gt; process(ids));
+     * </pre>
+     */
+    @CheckReturnValue
+    public <T> Stream<List<T>> pages(Connection connection, List<String> keyColumns, int pageSize, DatabaseResult.RowMapper<T> mapper) {
+        return new DatabaseKeysetIterator<>(
+                this::createSelectBuilder, keyColumns, pageSize, DatabaseDialect.fromConnection(connection), mapper,
+                (select, keyMapper) -> select.list(connection, keyMapper)
+        ).stream();
+    }
+
+    /**
+     * Returns the rows from offset to offset + limit together with the total number of rows matched
+     * by the query, using <code>count(*) over ()</code> where supported. See
+     * {@link DatabaseSelectBuilder#listWithTotal}
+     */
+    @CheckReturnValue
+    public <T> DatabasePage<T> listWithTotal(Connection connection, int offset, int limit, DatabaseResult.RowMapper<T> mapper) {
+        return createSelectBuilder().listWithTotal(connection, offset, limit, mapper);
+    }
+
+    /**
+     * Loads the rows where foreignKey is one of keys with as few <code>WHERE foreignKey IN (...)</code>
+     * queries as {@link DatabaseDialect#getMaxInListParameters()} allows, and returns the mapped rows
+     * for each key. The map has an entry for every key in the order of keys, with an empty list for
+     * keys without rows. Use it to load the children of a list of parents instead of one query per
+     * parent. Example:
+     *
+     * <pre>
+     * List&lt;Order&gt; orders = orderTable.where("customer_id", customerId).list(connection, Order::new);
+     * Map&lt;Long, List&lt;OrderLine&gt;&gt; lines = orderLineTable.query().orderBy("line_number")
+     *      .prefetch(connection, "order_id", orders.stream().map(Order::getId).collect(toList()), OrderLine::new);
+     * </pre>
+     *
+     * <p>The foreign key is read from each row as the same type as the keys (Long, Integer, String,
+     * UUID or as returned by the driver), so the keys must match the column type.</p>
+     */
+    @CheckReturnValue
+    public <K, V> Map<K, List<V>> prefetch(Connection connection, String foreignKey, Collection<K> keys, DatabaseResult.RowMapper<V> mapper) {
+        Map<K, List<V>> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            result.putIfAbsent(Objects.requireNonNull(key, "keys must not contain null"), new ArrayList<>());
+        }
+        if (result.isEmpty()) {
+            return result;
+        }
+        List<K> distinctKeys = new ArrayList<>(result.keySet());
+        Class<?> keyType = distinctKeys.get(0).getClass();
+        int chunkSize = Math.max(1, DatabaseDialect.fromConnection(connection).getMaxInListParameters() - whereBuilder.getParameters().size());
+        for (int i = 0; i < distinctKeys.size(); i += chunkSize) {
+            List<K> chunk = distinctKeys.subList(i, Math.min(i + chunkSize, distinctKeys.size()));
+            createSelectBuilder(new DatabaseWhereBuilder().whereIn(foreignKey, chunk)).forEach(connection, row -> {
+                Object key = readKey(row, foreignKey, keyType);
+                List<V> children = result.get(key);
+                if (children == null) {
+                    throw new IllegalStateException("Unexpected " + foreignKey + " " + key + " (" + (key != null ? key.getClass().getName() : null) + ") for keys of " + keyType);
+                }
+                children.add(mapper.mapRow(row));
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Returns the rows where fieldName is one of values, with one query per chunk of values if
+     * they don't fit within {@link DatabaseDialect#getMaxStatementParameters()}, such as more than
+     * 2100 values on SQL Server or 999 on SQLite. Each query uses
+     * {@link #whereIn(String, Collection, DatabaseDialect)}, and the results are concatenated, so
+     * the rows are only ordered within each chunk. Example:
+     *
+     * <pre>
+     * List&lt;Order&gt; orders = orderTable.query().listWhereIn(connection, "id", orderIds, Order::new);
+     * </pre>
+     */
+    @CheckReturnValue
+    public <T> List<T> listWhereIn(Connection connection, String fieldName, Collection<?> values, DatabaseResult.RowMapper<T> mapper) {
+        return listWhereIn(connection, fieldName, values, DatabaseDialect.fromConnection(connection), mapper);
+    }
+
+    <T> List<T> listWhereIn(Connection connection, String fieldName, Collection<?> values, DatabaseDialect dialect, DatabaseResult.RowMapper<T> mapper) {
+        List<Object> distinctValues = new ArrayList<>(new LinkedHashSet<>(values));
+        if (distinctValues.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int chunkSize = distinctValues.size();
+        if (DatabaseInListStrategy.forDialect(dialect, distinctValues) != DatabaseInListStrategy.ARRAY
+                && dialect.getMaxStatementParameters() != Integer.MAX_VALUE) {
+            // A power of two within one IN-list, so padding the last chunk doesn't exceed the limit
+            int available = dialect.getMaxStatementParameters() - whereBuilder.getParameters().size();
+            chunkSize = Integer.highestOneBit(Math.max(1, Math.min(dialect.getMaxInListParameters(), available)));
+        }
+        List<T> result = new ArrayList<>();
+        for (int i = 0; i < distinctValues.size(); i += chunkSize) {
+            List<Object> chunk = distinctValues.subList(i, Math.min(i + chunkSize, distinctValues.size()));
+            result.addAll(createSelectBuilder(new DatabaseWhereBuilder().whereIn(fieldName, chunk, dialect)).list(connection, mapper));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the rows where the columns equal one of the tuples, such as the rows for a list of
+     * composite keys, choosing the strategy by the number of keys and the database:
+     *
+     * <ul>
+     *     <li>If the parameters fit within {@link DatabaseDialect#getMaxInListParameters()},
+     *     one query with {@link #whereIn(List, Collection, DatabaseDialect)}</li>
+     *     <li>Otherwise, if the database {@link DatabaseDialect#supportsTemporaryTables()} (or
+     *     {@link DatabaseDialect#supportsTemporaryTablesInTransaction()} when auto-commit is off), inserts
+     *     the keys into a temporary table in batch, and selects the rows with a matching key with
+     *     <code>EXISTS</code>. The temporary table is dropped afterwards</li>
+     *     <li>Otherwise one query per chunk of keys, in which case the rows are only ordered
+     *     within each chunk</li>
+     * </ul>
+     *
+     * <pre>
+     * List&lt;OrderLine&gt; lines = orderLineTable.query().listByKeys(
+     *      connection, Arrays.asList("order_id", "line_number"), keys, OrderLine::new
+     * );
+     * </pre>
+     */
+    @CheckReturnValue
+    public <T> List<T> listByKeys(Connection connection, List<String> columns, Collection<? extends List<?>> tuples, DatabaseResult.RowMapper<T> mapper) {
+        List<List<?>> keys = new ArrayList<>(new LinkedHashSet<>(tuples));
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        DatabaseDialect dialect = DatabaseDialect.fromConnection(connection);
+        int chunkSize = Math.max(1, (dialect.getMaxInListParameters() - whereBuilder.getParameters().size()) / columns.size());
+        if (keys.size() <= chunkSize) {
+            return createSelectBuilder(new DatabaseWhereBuilder().whereIn(columns, keys, dialect)).list(connection, mapper);
+        } else if (useTemporaryTable(connection, dialect)) {
+            return listByTemporaryKeyTable(connection, columns, keys, dialect, mapper);
+        }
+        List<T> result = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i += chunkSize) {
+            List<List<?>> chunk = keys.subList(i, Math.min(i + chunkSize, keys.size()));
+            result.addAll(createSelectBuilder(new DatabaseWhereBuilder().whereIn(columns, chunk, dialect)).list(connection, mapper));
+        }
+        return result;
+    }
+
+    private static boolean useTemporaryTable(Connection connection, DatabaseDialect dialect) {
+        try {
+            return connection.getAutoCommit() ? dialect.supportsTemporaryTables() : dialect.supportsTemporaryTablesInTransaction();
+        } catch (SQLException e) {
+            throw ExceptionUtil.softenCheckedException(e);
+        }
+    }
+
+    private <T> List<T> listByTemporaryKeyTable(Connection connection, List<String> columns, List<List<?>> keys, DatabaseDialect dialect, DatabaseResult.RowMapper<T> mapper) {
+        String keyTable = dialect.getTemporaryTableName("fluentjdbc_keys_" + temporaryTableCounter.incrementAndGet());
+        String columnList = String.join(", ", columns);
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate(dialect.createTemporaryTable(keyTable, "select " + columnList + " from " + table.getTableName()));
+        } catch (SQLException e) {
+            throw ExceptionUtil.softenCheckedException(e);
+        }
+        List<T> result;
+        try {
+            try (PreparedStatement stmt = connection.prepareStatement("insert into " + keyTable + " (" + columnList + ") values (" + DatabaseStatement.parameterString(columns.size()) + ")")) {
+                for (List<?> key : keys) {
+                    DatabaseStatement.bindParameters(stmt, key);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+            StringJoiner matchingKey = new StringJoiner(" and ", "exists (select 1 from " + keyTable + " where ", ")");
+            for (String column : columns) {
+                matchingKey.add(keyTable + "." + column + " = " + table.getTableName() + "." + column);
+            }
+            result = createSelectBuilder(new DatabaseWhereBuilder().whereExpression(matchingKey.toString())).list(connection, mapper);
+        } catch (SQLException | RuntimeException e) {
+            // In PostgreSQL, the drop fails if the error aborted the transaction, so keep the original error
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate(dialect.dropTemporaryTable(keyTable));
+            } catch (SQLException dropFailure) {
+                e.addSuppressed(dropFailure);
+            }
+            throw ExceptionUtil.softenCheckedException(e);
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate(dialect.dropTemporaryTable(keyTable));
+        } catch (SQLException e) {
+            throw ExceptionUtil.softenCheckedException(e);
+        }
+        return result;
+    }
+
+    private static Object readKey(DatabaseRow row, String column, Class<?> keyType) throws SQLException {
+        if (keyType == Long.class) {
+            return row.getLong(column);
+        } else if (keyType == Integer.class) {
+            return row.getInt(column);
+        } else if (keyType == String.class) {
+            return row.getString(column);
+        } else if (keyType == UUID.class) {
+            return row.getUUID(column);
+        }
+        return row.getObject(column);
+    }
+
     /**
      * If the query returns no rows, returns {@link SingleRow#absent}, if exactly one row is returned, maps it and return it,
      * if more than one is returned, throws `IllegalStateException`
@@ -148,6 +395,16 @@ public class DatabaseTableQueryBuilder implements
         createSelectBuilder().forEach(connection, consumer);
     }
 
+    /**
+     * Executes the <code>SELECT * FROM ...</code> statement and reads the result into the columns
+     * of batch, calling consumer for each full batch
+     *
+     * @see DatabaseStatement#forEachBatch(Connection, DatabaseColumnBatch, Consumer)
+     */
+    public void forEachBatch(Connection connection, DatabaseColumnBatch batch, Consumer<DatabaseColumnBatch> consumer) {
+        createSelectBuilder().forEachBatch(connection, batch, consumer);
+    }
+
     /**
      * Executes <code>SELECT count(*) FROM ...</code> on the query and returns the result
      */
@@ -164,6 +421,19 @@ public class DatabaseTableQueryBuilder implements
         return this;
     }
 
+    /**
+     * Creates a select builder with the conditions of this builder and additionalConditions,
+     * without adding the additionalConditions to this builder
+     */
+    DatabaseSelectBuilder createSelectBuilder(DatabaseWhereBuilder additionalConditions) {
+        DatabaseWhereBuilder conditions = new DatabaseWhereBuilder();
+        whereBuilder.getQueryParameters().forEach(conditions::where);
+        additionalConditions.getQueryParameters().forEach(conditions::where);
+        return new DatabaseSelectBuilder(table.getFactory(), conditions)
+                .orderBy(orderByClauses)
+                .from(table.getTableName());
+    }
+
     public DatabaseSelectBuilder createSelectBuilder() {
         return new DatabaseSelectBuilder(table.getFactory(), whereBuilder)
                 .orderBy(orderByClauses)
@@ -3,6 +3,8 @@ package org.fluentjdbc;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.TimeUnit;
+
 public interface DatabaseTransactionReporter {
     Logger logger = LoggerFactory.getLogger(DatabaseTransactionReporter.class);
 
@@ -16,5 +18,21 @@ public interface DatabaseTransactionReporter {
         doLog(true, timing);
     }
 
+    /**
+     * Called when a transaction is rolled back with the duration of the rollback in nanoseconds.
+     * Calls {@link #logRollback(long)} with millis by default
+     */
+    default void logRollbackNanos(long nanos) {
+        logRollback(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * Called when a transaction is committed with the duration of the commit in nanoseconds.
+     * Calls {@link #logCommit(long)} with millis by default
+     */
+    default void logCommitNanos(long nanos) {
+        logCommit(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
     void doLog(boolean commit, long timing);
 }
@@ -0,0 +1,74 @@
+package org.fluentjdbc;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Generates primary key values for {@link DatabaseSaveBuilderWithUUID}. {@link #RANDOM} uses
+ * {@link UUID#randomUUID()}, which spreads inserts over the whole primary key index. With large
+ * tables, this gives random page splits and poor cache locality. {@link #TIME_ORDERED} generates
+ * version 7 UUIDs, which are ordered by creation time, so new rows are added at the end of the index.
+ *
+ * <p>Select the generator for all tables of a {@link DbContext} with
+ * {@link DatabaseStatementFactory#setUUIDGenerator} or for a single table with
+ * {@link DatabaseTableImpl#setUUIDGenerator}:</p>
+ *
+ * <pre>
+ * DbContext context = new DbContext(
+ *      new DatabaseStatementFactory(reporter).setUUIDGenerator(DatabaseUUIDGenerator.TIME_ORDERED),
+ *      DatabaseTransactionReporter.LOGGING_REPORTER
+ * );
+ * </pre>
+ */
+@FunctionalInterface
+public interface DatabaseUUIDGenerator {
+
+    /**
+     * Generates random (version 4) UUIDs with {@link UUID#randomUUID()}
+     */
+    DatabaseUUIDGenerator RANDOM = UUID::randomUUID;
+
+    /**
+     * Generates time-ordered (version 7) UUIDs
+     */
+    DatabaseUUIDGenerator TIME_ORDERED = new TimeOrdered();
+
+    @CheckReturnValue
+    @Nonnull
+    UUID generate();
+
+    /**
+     * Generates version 7 UUIDs as described in RFC 9562: 48 bits of milliseconds since the
+     * epoch, followed by a 12-bit counter and 62 random bits. The timestamp and counter are
+     * updated with a single compare-and-set, so the UUIDs are strictly increasing across threads,
+     * also when many UUIDs are generated within the same millisecond or the clock goes backwards.
+     * If the counter overflows, the timestamp is advanced by one millisecond. The random bits
+     * use {@link ThreadLocalRandom} and are not suitable when the UUIDs must be unguessable.
+     */
+    class TimeOrdered implements DatabaseUUIDGenerator {
+        private final LongSupplier clock;
+        private final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+        public TimeOrdered() {
+            this(System::currentTimeMillis);
+        }
+
+        public TimeOrdered(LongSupplier clock) {
+            this.clock = clock;
+        }
+
+        @Nonnull
+        @Override
+        public UUID generate() {
+            long now = clock.getAsLong() << 12;
+            long timestampAndCounter = lastTimestampAndCounter.updateAndGet(last -> Math.max(now, last + 1));
+            long mostSignificantBits = (timestampAndCounter >>> 12) << 16 | 0x7000L | (timestampAndCounter & 0xFFFL);
+            long leastSignificantBits = ThreadLocalRandom.current().nextLong() >>> 2 | 0x8000000000000000L;
+            return new UUID(mostSignificantBits, leastSignificantBits);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.fluentjdbc;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 import java.sql.Connection;
 import java.util.ArrayList;
@@ -77,13 +78,23 @@ public class DatabaseUpdateBuilder implements DatabaseUpdatable<DatabaseUpdateBu
      * Will generate <code>UPDATE</code> statements, set parameters and execute to database
      */
     public int execute(Connection connection) {
+        DatabaseStatement statement = createStatement();
+        return statement != null ? statement.executeUpdate(connection) : 0;
+    }
+
+    /**
+     * Creates the <code>UPDATE</code> statement without executing it, or returns null if no fields are updated
+     */
+    @Nullable
+    @CheckReturnValue
+    DatabaseStatement createStatement() {
         if (updateParameters.isEmpty()) {
-            return 0;
+            return null;
         }
         List<Object> parameters = new ArrayList<>();
         updateParameters.values().forEach(p -> parameters.addAll(p.getParameters()));
         parameters.addAll(whereClause.getParameters());
-        return table.newStatement("UPDATE", createUpdateStatement(), parameters).executeUpdate(connection);
+        return table.newStatement("UPDATE", createUpdateStatement(), parameters);
     }
 
     private String createUpdateStatement() {
@@ -1,16 +1,34 @@
 package org.fluentjdbc;
 
 import org.fluentjdbc.util.ExceptionUtil;
+import org.fluentjdbc.util.ExecutorUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.sql.DataSource;
+import java.lang.ref.WeakReference;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <p>Provides a starting point for for context oriented database operation. Create one DbContext for your
@@ -41,8 +59,20 @@ public class DbContext {
     
     private static final Logger logger = LoggerFactory.getLogger(DbContext.class);
 
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
     private final DatabaseStatementFactory factory;
     private final DatabaseTransactionReporter transactionReporter;
+    private boolean connectionPerStatement = false;
+    private Executor executor;
+    private DatabaseConnectionReporter connectionReporter = DatabaseConnectionReporter.LOGGING_REPORTER;
+    private int repeatedQueryThreshold = 0;
+    private RepeatedQueryHandler repeatedQueryHandler = RepeatedQueryHandler.LOGGING_HANDLER;
+    private long connectionHoldThresholdNanos = 0;
+    private ExecutionCounter executionCounter;
 
     public DbContext() {
         this(new DatabaseStatementFactory(DatabaseReporter.LOGGING_REPORTER), DatabaseTransactionReporter.LOGGING_REPORTER);
@@ -86,6 +116,251 @@ public class DbContext {
         return factory;
     }
 
+    /**
+     * When set, operations outside {@link #ensureTransaction()} borrow a connection from the
+     * {@link ConnectionSupplier} for each statement and return it as soon as the statement has
+     * completed, instead of keeping it from first use until the {@link DbContextConnection} is closed.
+     * Streams keep their connection until they are closed or fully consumed. Use this with a
+     * connection pool to serve more concurrent requests when most of the work is done outside the
+     * database.
+     */
+    public void setConnectionPerStatement(boolean connectionPerStatement) {
+        this.connectionPerStatement = connectionPerStatement;
+    }
+
+    public boolean isConnectionPerStatement() {
+        return connectionPerStatement;
+    }
+
+    /**
+     * Sets the {@link Executor} used to run operations on other threads, for example with
+     * {@link #parallel()} and {@link #async(Supplier)}
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Returns the {@link Executor} used to run operations on other threads. Unless
+     * {@link #setExecutor(Executor)} has been called, this is {@link ExecutorUtil#newTaskExecutor(String)},
+     * which uses virtual threads where available
+     */
+    public synchronized Executor getExecutor() {
+        if (executor == null) {
+            executor = ExecutorUtil.newTaskExecutor("fluentjdbc");
+        }
+        return executor;
+    }
+
+    /**
+     * Sets the {@link DatabaseConnectionReporter} which is notified when connections are acquired from
+     * and returned to the {@link ConnectionSupplier}, with the time spent waiting for the connection,
+     * the time it was held and the number of statements executed with it
+     */
+    public void setConnectionReporter(DatabaseConnectionReporter connectionReporter) {
+        this.connectionReporter = connectionReporter;
+        updateExecutionCounting();
+    }
+
+    public DatabaseConnectionReporter getConnectionReporter() {
+        return connectionReporter;
+    }
+
+    /**
+     * Logs a warning when a connection is returned to the {@link ConnectionSupplier} more than
+     * maxMillis after it was acquired, with the number of statements executed and where the
+     * connection was acquired. A maxMillis of 0 turns off the warning
+     */
+    public void setConnectionHoldThreshold(long maxMillis) {
+        this.connectionHoldThresholdNanos = TimeUnit.MILLISECONDS.toNanos(maxMillis);
+        updateExecutionCounting();
+    }
+
+    /**
+     * Logs a warning when statements with the same SQL, ignoring literal values and the length of
+     * <code>in</code>-lists, are executed more than maxExecutions times within one
+     * {@link DbContextConnection}. This usually means that the statement is executed in a loop, for
+     * example to look up the parent of each row, and should be replaced with a single query. A
+     * maxExecutions of 0 turns off the check
+     */
+    public void setRepeatedQueryThreshold(int maxExecutions) {
+        setRepeatedQueryThreshold(maxExecutions, RepeatedQueryHandler.LOGGING_HANDLER);
+    }
+
+    /**
+     * Like {@link #setRepeatedQueryThreshold(int)}, but calls handler instead of logging
+     */
+    public synchronized void setRepeatedQueryThreshold(int maxExecutions, RepeatedQueryHandler handler) {
+        this.repeatedQueryThreshold = maxExecutions;
+        this.repeatedQueryHandler = handler;
+        updateExecutionCounting();
+    }
+
+    /**
+     * Counts the statements executed by each {@link DbContextConnection} only while a threshold or
+     * a connection reporter other than {@link DatabaseConnectionReporter#LOGGING_REPORTER} needs it,
+     * as the listener is called for every statement from the {@link DatabaseStatementFactory}.
+     * Setting the thresholds to 0 and the reporter back to the default removes the listener
+     */
+    private synchronized void updateExecutionCounting() {
+        boolean needed = repeatedQueryThreshold > 0 || connectionHoldThresholdNanos > 0
+                || connectionReporter != DatabaseConnectionReporter.LOGGING_REPORTER;
+        if (needed && executionCounter == null) {
+            executionCounter = new ExecutionCounter(this);
+            factory.addExecutionListener(executionCounter);
+        } else if (!needed && executionCounter != null) {
+            factory.removeExecutionListener(executionCounter);
+            executionCounter = null;
+        }
+    }
+
+    /**
+     * Only weakly references the {@link DbContext}, so a factory which is shared between contexts
+     * doesn't keep discarded contexts reachable. The listener removes itself after the context is
+     * collected
+     */
+    private static class ExecutionCounter implements Consumer<DatabaseStatement> {
+        private final WeakReference<DbContext> context;
+        private final DatabaseStatementFactory factory;
+
+        private ExecutionCounter(DbContext context) {
+            this.context = new WeakReference<>(context);
+            this.factory = context.factory;
+        }
+
+        @Override
+        public void accept(DatabaseStatement statement) {
+            DbContext dbContext = context.get();
+            if (dbContext != null) {
+                dbContext.countExecution(statement);
+            } else {
+                factory.removeExecutionListener(this);
+            }
+        }
+    }
+
+    private void countExecution(DatabaseStatement statement) {
+        TopLevelDbContextConnection connection = currentConnection.get();
+        if (connection != null) {
+            connection.statementCount++;
+            if (repeatedQueryThreshold > 0) {
+                connection.countExecution(normalizeStatement(statement.getStatement()), repeatedQueryThreshold, repeatedQueryHandler);
+            }
+        }
+    }
+
+    /**
+     * Replaces literal values with <code>?</code> and lists of parameters with <code>?, ...</code>,
+     * so that statements which only differ in values get the same text
+     */
+    static String normalizeStatement(String sql) {
+        String result = STRING_LITERAL.matcher(sql).replaceAll("?");
+        result = NUMBER_LITERAL.matcher(result).replaceAll("?");
+        result = PARAMETER_LIST.matcher(result).replaceAll("?, ...");
+        return WHITESPACE.matcher(result).replaceAll(" ").trim();
+    }
+
+    /**
+     * Runs the operation asynchronously on {@link #getExecutor()} with its own connection from the
+     * {@link ConnectionSupplier} of the current thread. The connection is closed when the operation
+     * completes. Example:
+     * <code>CompletableFuture&lt;Integer&gt; count = dbContext.async(() -&gt; table.query().getCount())</code>
+     *
+     * @throws IllegalStateException if called inside {@link #ensureTransaction()}
+     * @see #captureContext()
+     */
+    @CheckReturnValue
+    public <T> CompletableFuture<T> async(Supplier<T> operation) {
+        return async(operation, getExecutor());
+    }
+
+    /**
+     * Runs the operation asynchronously on the executor with its own connection from the
+     * {@link ConnectionSupplier} of the current thread
+     *
+     * @see #async(Supplier)
+     */
+    @CheckReturnValue
+    public <T> CompletableFuture<T> async(Supplier<T> operation, Executor executor) {
+        return CompletableFuture.supplyAsync(captureContext().wrapSupplier(operation), executor);
+    }
+
+    /**
+     * Creates a {@link DbContextParallelBuilder} to run independent read-only queries concurrently,
+     * each on a separate connection
+     */
+    @CheckReturnValue
+    public DbContextParallelBuilder parallel() {
+        return new DbContextParallelBuilder(this);
+    }
+
+    /**
+     * Runs independent read-only queries concurrently, each on a separate connection, and returns
+     * the results in the same order as the queries, e.g.
+     * <code>List&lt;Integer&gt; counts = dbContext.parallel(() -&gt; orders.query().getCount(), () -&gt; products.query().getCount())</code>
+     *
+     * @see DbContextParallelBuilder
+     */
+    @SafeVarargs
+    public final <T> List<T> parallel(Supplier<? extends T>... queries) {
+        return parallel().list(Arrays.asList(queries));
+    }
+
+    /**
+     * Queues the <code>INSERT</code>, <code>UPDATE</code> and <code>DELETE</code> statements executed
+     * by the operations and sends them to the database together when the operations complete,
+     * grouping consecutive statements with the same SQL into JDBC batches. Inside the batch,
+     * update and insert builders, {@link DbContextTableQueryBuilder#executeDelete()} and
+     * {@link DbContextStatement#executeUpdate()} return {@link Statement#SUCCESS_NO_INFO}.
+     * Queries, inserts with generated keys and other operations which need the database
+     * first send the queued statements, so they see the result of earlier statements. Example:
+     *
+     * <pre>
+     * try (DbTransaction tx = dbContext.ensureTransaction()) {
+     *     DbContextBatchResult result = dbContext.batch(() -&gt; {
+     *         orderTable.where("id", orderId).update().setField("status", "shipped").execute();
+     *         for (OrderLine line : lines) {
+     *             shipmentTable.insert().setField("order_line_id", line.getId()).execute();
+     *         }
+     *     });
+     *     tx.setComplete();
+     * }
+     * </pre>
+     *
+     * <p>If the operations throw an exception, the statements that are still queued are discarded.
+     * Use {@link #ensureTransaction()} to make the batch atomic.</p>
+     *
+     * @return the update count of each statement, in order
+     * @throws IllegalStateException if called inside another batch
+     */
+    public DbContextBatchResult batch(Runnable operations) {
+        TopLevelDbContextConnection connection = getCurrentConnection();
+        if (connection.batch != null) {
+            throw new IllegalStateException("Batch already in progress");
+        }
+        DbContextBatch batch = new DbContextBatch();
+        connection.batch = batch;
+        try {
+            operations.run();
+            // withConnection sends the remaining queued statements
+            return withConnection(ignored -> batch.getResult());
+        } finally {
+            connection.batch = null;
+        }
+    }
+
+    /**
+     * Executes the update statement, or queues it if the current thread is inside {@link #batch(Runnable)}
+     */
+    int executeUpdate(DatabaseStatement statement) {
+        TopLevelDbContextConnection connection = getCurrentConnection();
+        if (connection.batch != null) {
+            connection.batch.add(statement);
+            return Statement.SUCCESS_NO_INFO;
+        }
+        return withConnection(statement::executeUpdate);
+    }
+
     /**
      * A {@link java.util.function.Supplier} for {@link Connection} objects. Like {@link java.util.function.Supplier},
      * but can throw {@link SQLException}. Used as an alternative to a {@link DataSource}
@@ -95,9 +370,31 @@ public class DbContext {
         Connection getConnection() throws SQLException;
     }
 
+    /**
+     * Called by {@link #setRepeatedQueryThreshold(int, RepeatedQueryHandler)} when the same statement
+     * is executed too many times within one {@link DbContextConnection}
+     */
+    @FunctionalInterface
+    public interface RepeatedQueryHandler {
+        RepeatedQueryHandler LOGGING_HANDLER = (statement, executions, callSite) ->
+                logger.warn("Statement executed {} times in one connection, at {}: {}", executions, callSite, statement);
+
+        /**
+         * Called once per statement and connection, the first time the number of executions is
+         * above the threshold
+         *
+         * @param statement The SQL, normalized with literal values replaced by <code>?</code>
+         * @param executions The number of times the statement has been executed
+         * @param callSite The first stack frame outside fluent-jdbc, which is usually inside the loop
+         */
+        void onRepeatedQuery(String statement, int executions, @Nullable StackTraceElement callSite);
+    }
+
+    /**
+     * The connection, cache and transaction for the current thread are all kept in the
+     * {@link TopLevelDbContextConnection} to use only one {@link ThreadLocal} per thread
+     */
     private final ThreadLocal<TopLevelDbContextConnection> currentConnection = new ThreadLocal<>();
-    private final ThreadLocal<HashMap<String, HashMap<Object, SingleRow<?>>>> currentCache = new ThreadLocal<>();
-    private final ThreadLocal<DbTransaction> currentTransaction = new ThreadLocal<>();
 
     /**
      * Creates a {@link DbContextTable} associated with this DbContext. All operations will be executed
@@ -156,25 +453,125 @@ public class DbContext {
             return () -> { };
         }
         currentConnection.set(new TopLevelDbContextConnection(connectionSupplier, this));
-        currentCache.set(new HashMap<>());
         return currentConnection.get();
     }
 
     /**
      * Returns the connection associated with the current thread or throws exception if
-     * {@link #startConnection(DataSource)} has not been called yet
+     * {@link #startConnection(DataSource)} has not been called yet. With
+     * {@link #setConnectionPerStatement(boolean)}, the returned connection is kept until the
+     * {@link DbContextConnection} is closed
      */
     @CheckReturnValue
     public Connection getThreadConnection() {
+        TopLevelDbContextConnection connection = getCurrentConnection();
+        connection.pinUntilClose();
+        connection.flushBatch();
+        return connection.getConnection();
+    }
+
+    private TopLevelDbContextConnection getCurrentConnection() {
         if (currentConnection.get() == null) {
             throw new IllegalStateException("Call startConnection first");
         }
-        return currentConnection.get().getConnection();
+        return currentConnection.get();
+    }
+
+    /**
+     * Executes the operation with the connection associated with the current thread. With
+     * {@link #setConnectionPerStatement(boolean)}, the connection is returned to the
+     * {@link ConnectionSupplier} when the operation completes, unless a transaction or
+     * stream is still using it. Statements queued by {@link #batch(Runnable)} are executed
+     * before the operation
+     */
+    <T> T withConnection(Function<Connection, T> operation) {
+        TopLevelDbContextConnection connection = getCurrentConnection();
+        connection.pin();
+        try {
+            connection.flushBatch();
+            return operation.apply(connection.getConnection());
+        } finally {
+            connection.unpin();
+        }
+    }
+
+    /**
+     * Like {@link #withConnection(Function)}, but keeps the connection until the returned
+     * {@link Stream} is either closed or fully consumed
+     */
+    <T> Stream<T> withConnectionStream(Function<Connection, Stream<T>> operation) {
+        TopLevelDbContextConnection connection = getCurrentConnection();
+        connection.pin();
+        Stream<T> stream;
+        try {
+            connection.flushBatch();
+            stream = operation.apply(connection.getConnection());
+        } catch (RuntimeException | Error e) {
+            connection.unpin();
+            throw e;
+        }
+        Runnable release = new Runnable() {
+            private boolean released = false;
+
+            @Override
+            public void run() {
+                if (!released) {
+                    released = true;
+                    connection.unpin();
+                }
+            }
+        };
+        Iterator<T> iterator = stream.iterator();
+        Iterator<T> releasingIterator = new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                boolean hasNext = iterator.hasNext();
+                if (!hasNext) {
+                    release.run();
+                }
+                return hasNext;
+            }
+
+            @Override
+            public T next() {
+                return iterator.next();
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(releasingIterator, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try {
+                        stream.close();
+                    } finally {
+                        release.run();
+                    }
+                });
+    }
+
+    /**
+     * Captures the {@link ConnectionSupplier} of the current thread in a {@link DbContextHandle}, which
+     * can be used to run tasks with this {@link DbContext} on other threads, for example with an
+     * {@link java.util.concurrent.ExecutorService} or {@link java.util.concurrent.CompletableFuture}.
+     * Each task gets its own connection. As the connection of a transaction can't be shared
+     * between threads, this method throws {@link IllegalStateException} inside {@link #ensureTransaction()}
+     *
+     * <p>Example:</p>
+     * <pre>
+     * DbContextHandle handle = context.captureContext();
+     * CompletableFuture&lt;List&lt;String&gt;&gt; names = CompletableFuture.supplyAsync(
+     *     handle.wrapSupplier(() -&gt; table.query().listStrings("name")), executor
+     * );
+     * </pre>
+     */
+    @CheckReturnValue
+    public DbContextHandle captureContext() {
+        TopLevelDbContextConnection connection = getCurrentConnection();
+        if (connection.transaction != null) {
+            throw new IllegalStateException("Can't capture DbContext inside a transaction, as the connection can't be shared with other threads");
+        }
+        return new DbContextHandle(this, connection.connectionSupplier);
     }
 
     void removeFromThread() {
-        currentCache.get().clear();
-        currentCache.remove();
         currentConnection.remove();
     }
 
@@ -184,15 +581,16 @@ public class DbContext {
      */
     @CheckReturnValue
     public <ENTITY, KEY> SingleRow<ENTITY> cache(String tableName, KEY key, RetrieveMethod<KEY, ENTITY> retriever) {
-        if (!currentCache.get().containsKey(tableName)) {
-            currentCache.get().put(tableName, new HashMap<>());
+        HashMap<String, HashMap<Object, SingleRow<?>>> currentCache = getCurrentConnection().cache;
+        if (!currentCache.containsKey(tableName)) {
+            currentCache.put(tableName, new HashMap<>());
         }
-        if (!currentCache.get().get(tableName).containsKey(key)) {
+        if (!currentCache.get(tableName).containsKey(key)) {
             SingleRow<ENTITY> value = retriever.retrieve(key);
-            currentCache.get().get(tableName).put(key, value);
+            currentCache.get(tableName).put(key, value);
         }
         //noinspection unchecked
-        return (SingleRow<ENTITY>) currentCache.get().get(tableName).get(key);
+        return (SingleRow<ENTITY>) currentCache.get(tableName).get(key);
     }
 
     /**
@@ -206,12 +604,14 @@ public class DbContext {
             return new NestedTransactionContext(getCurrentTransaction());
         }
         logger.debug("Starting new transaction");
-        currentTransaction.set(new TopLevelTransaction(getThreadConnection(), transactionReporter));
-        return getCurrentTransaction();
+        TopLevelDbContextConnection connection = getCurrentConnection();
+        connection.transaction = new TopLevelTransaction(connection, transactionReporter);
+        return connection.transaction;
     }
 
     public DbTransaction getCurrentTransaction() {
-        return currentTransaction.get();
+        TopLevelDbContextConnection connection = currentConnection.get();
+        return connection != null ? connection.transaction : null;
     }
 
     private static class NestedTransactionContext implements DbTransaction {
@@ -244,18 +644,27 @@ public class DbContext {
     }
 
     private class TopLevelTransaction implements DbTransaction {
+        private final TopLevelDbContextConnection dbContextConnection;
+        private final Connection connection;
         private final boolean autoCommit;
         boolean complete = false;
         boolean rollback = false;
         private final DatabaseTransactionReporter transactionLog;
 
-        private TopLevelTransaction(Connection connection, DatabaseTransactionReporter transactionReporter) {
+        private TopLevelTransaction(TopLevelDbContextConnection dbContextConnection, DatabaseTransactionReporter transactionReporter) {
+            this.dbContextConnection = dbContextConnection;
             this.transactionLog = transactionReporter;
+            dbContextConnection.pin();
             try {
+                this.connection = dbContextConnection.getConnection();
                 this.autoCommit = connection.getAutoCommit();
-                getThreadConnection().setAutoCommit(false);
+                connection.setAutoCommit(false);
             } catch (SQLException e) {
+                dbContextConnection.unpin();
                 throw ExceptionUtil.softenCheckedException(e);
+            } catch (RuntimeException e) {
+                dbContextConnection.unpin();
+                throw e;
             }
         }
 
@@ -271,20 +680,22 @@ public class DbContext {
 
         @Override
         public void close() {
-            long start = System.currentTimeMillis();
-            currentTransaction.remove();
+            long start = System.nanoTime();
+            dbContextConnection.transaction = null;
             try {
                 if (!complete || rollback) {
-                    getThreadConnection().rollback();
-                    getThreadConnection().setAutoCommit(autoCommit);
-                    transactionLog.logRollback(System.currentTimeMillis() - start);
+                    connection.rollback();
+                    connection.setAutoCommit(autoCommit);
+                    transactionLog.logRollbackNanos(System.nanoTime() - start);
                 } else {
-                    getThreadConnection().commit();
-                    getThreadConnection().setAutoCommit(autoCommit);
-                    transactionLog.logCommit(System.currentTimeMillis() - start);
+                    connection.commit();
+                    connection.setAutoCommit(autoCommit);
+                    transactionLog.logCommitNanos(System.nanoTime() - start);
                 }
             } catch (SQLException e) {
                 throw ExceptionUtil.softenCheckedException(e);
+            } finally {
+                dbContextConnection.unpin();
             }
         }
     }
@@ -293,7 +704,16 @@ public class DbContext {
 
         private final ConnectionSupplier connectionSupplier;
         private Connection connection;
+        private long acquiredTime;
+        private StackTraceElement acquiredAt;
+        private int statementCount;
         private final DbContext context;
+        private final HashMap<String, HashMap<Object, SingleRow<?>>> cache = new HashMap<>();
+        private final HashMap<String, Integer> executionCounts = new HashMap<>();
+        private DbTransaction transaction;
+        private DbContextBatch batch;
+        private int pinCount = 0;
+        private boolean pinnedUntilClose = false;
 
         TopLevelDbContextConnection(ConnectionSupplier connectionSupplier, DbContext context) {
             this.connectionSupplier = connectionSupplier;
@@ -302,20 +722,74 @@ public class DbContext {
 
         @Override
         public void close() {
+            releaseConnection();
+            cache.clear();
+            executionCounts.clear();
+            context.removeFromThread();
+        }
+
+        /**
+         * Keeps the connection checked out until a matching call to {@link #unpin()}
+         */
+        void pin() {
+            pinCount++;
+        }
+
+        /**
+         * Returns the connection to the {@link ConnectionSupplier} if the {@link DbContext} uses
+         * connection per statement and nothing else is using the connection
+         */
+        void unpin() {
+            pinCount--;
+            if (pinCount == 0 && !pinnedUntilClose && context.isConnectionPerStatement()) {
+                releaseConnection();
+            }
+        }
+
+        void countExecution(String statement, int threshold, RepeatedQueryHandler handler) {
+            int executions = executionCounts.merge(statement, 1, Integer::sum);
+            if (executions == threshold + 1) {
+                handler.onRepeatedQuery(statement, executions, DatabaseSlowQueryReporter.findCallSite());
+            }
+        }
+
+        void pinUntilClose() {
+            pinnedUntilClose = true;
+        }
+
+        void flushBatch() {
+            if (batch != null) {
+                batch.flush(getConnection());
+            }
+        }
+
+        private void releaseConnection() {
             if (connection != null) {
                 try {
                     connection.close();
                 } catch (SQLException e) {
                     throw ExceptionUtil.softenCheckedException(e);
+                } finally {
+                    connection = null;
+                    long heldNanos = System.nanoTime() - acquiredTime;
+                    context.getConnectionReporter().connectionReleased(heldNanos, statementCount);
+                    if (context.connectionHoldThresholdNanos > 0 && heldNanos > context.connectionHoldThresholdNanos) {
+                        logger.warn("Connection held for {}s with {} statements, acquired at {}",
+                                heldNanos / 1_000_000_000.0, statementCount, acquiredAt);
+                    }
                 }
             }
-            context.removeFromThread();
         }
 
         Connection getConnection() {
             if (connection == null) {
                 try {
+                    long start = System.nanoTime();
                     connection = connectionSupplier.getConnection();
+                    acquiredTime = System.nanoTime();
+                    statementCount = 0;
+                    acquiredAt = context.connectionHoldThresholdNanos > 0 ? DatabaseSlowQueryReporter.findCallSite() : null;
+                    context.getConnectionReporter().connectionAcquired(acquiredTime - start);
                 } catch (SQLException e) {
                     throw ExceptionUtil.softenCheckedException(e);
                 }
@@ -0,0 +1,57 @@
+package org.fluentjdbc;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Queues the update statements executed inside {@link DbContext#batch(Runnable)} and sends them
+ * to the database with {@link #flush(Connection)}. Consecutive statements with the same SQL are
+ * sent as a single JDBC batch. Statements with different SQL are never reordered, so statements
+ * which depend on each other, like inserts of a parent and a child row, are executed in order.
+ */
+@ParametersAreNonnullByDefault
+class DbContextBatch {
+
+    private final List<DatabaseStatement> pending = new ArrayList<>();
+    private final List<Integer> updateCounts = new ArrayList<>();
+    private int roundTrips = 0;
+
+    void add(DatabaseStatement statement) {
+        pending.add(statement);
+    }
+
+    /**
+     * Executes all queued statements, grouping consecutive statements with the same SQL into
+     * a JDBC batch. The queue is cleared even if a statement fails
+     */
+    void flush(Connection connection) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<DatabaseStatement> statements = new ArrayList<>(pending);
+        pending.clear();
+        int start = 0;
+        while (start < statements.size()) {
+            int end = start + 1;
+            String sql = statements.get(start).getStatement();
+            while (end < statements.size() && statements.get(end).getStatement().equals(sql)) {
+                end++;
+            }
+            if (end - start == 1) {
+                updateCounts.add(statements.get(start).executeUpdate(connection));
+            } else {
+                for (int count : DatabaseStatement.executeBatch(connection, statements.subList(start, end))) {
+                    updateCounts.add(count);
+                }
+            }
+            roundTrips++;
+            start = end;
+        }
+    }
+
+    DbContextBatchResult getResult() {
+        return new DbContextBatchResult(updateCounts.stream().mapToInt(Integer::intValue).toArray(), roundTrips);
+    }
+}
@@ -0,0 +1,60 @@
+package org.fluentjdbc;
+
+import java.sql.Statement;
+import java.util.Arrays;
+
+/**
+ * The result of {@link DbContext#batch(Runnable)}: the update count of each statement, in the order
+ * the statements were executed inside the batch. Some drivers report
+ * {@link Statement#SUCCESS_NO_INFO} instead of the number of rows for statements sent as a JDBC batch.
+ */
+public class DbContextBatchResult {
+
+    private final int[] updateCounts;
+    private final int roundTrips;
+
+    public DbContextBatchResult(int[] updateCounts, int roundTrips) {
+        this.updateCounts = updateCounts;
+        this.roundTrips = roundTrips;
+    }
+
+    /**
+     * The number of statements executed in the batch
+     */
+    public int getStatementCount() {
+        return updateCounts.length;
+    }
+
+    /**
+     * The update count of the statement with the given index, in the order the statements were executed
+     */
+    public int getUpdateCount(int index) {
+        return updateCounts[index];
+    }
+
+    /**
+     * The update counts of all statements, in the order the statements were executed
+     */
+    public int[] getUpdateCounts() {
+        return updateCounts.clone();
+    }
+
+    /**
+     * The sum of the update counts, ignoring statements where the driver didn't report the count
+     */
+    public int getTotalUpdateCount() {
+        return Arrays.stream(updateCounts).filter(count -> count >= 0).sum();
+    }
+
+    /**
+     * The number of times statements were sent to the database
+     */
+    public int getRoundTrips() {
+        return roundTrips;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{updateCounts=" + Arrays.toString(updateCounts) + ", roundTrips=" + roundTrips + '}';
+    }
+}
@@ -46,6 +46,6 @@ public class DbContextBulkDeleteBuilder<T> implements DatabaseBulkQueryable<T, D
      * @return the sum count of all the rows deleted
      */
     public int execute() {
-        return builder.execute(table.getConnection());
+        return table.getDbContext().withConnection(builder::execute);
     }
 }
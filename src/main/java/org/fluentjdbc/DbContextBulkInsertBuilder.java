@@ -1,7 +1,9 @@
 package org.fluentjdbc;
 
+import javax.annotation.CheckReturnValue;
 import java.sql.PreparedStatement;
 import java.util.List;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 
 /**
@@ -51,6 +53,19 @@ public class DbContextBulkInsertBuilder<T> implements DatabaseBulkUpdatable<T, D
         return this;
     }
 
+    /**
+     * Takes an id for each object from idAllocator when the rows are inserted, passes it to the
+     * consumer and inserts it into the primaryKeyColumn
+     *
+     * @see DatabaseBulkInsertBuilder#allocatePrimaryKeys
+     */
+    @CheckReturnValue
+    public DbContextBulkInsertBuilder<T> allocatePrimaryKeys(String primaryKeyColumn, DatabaseIdAllocator idAllocator, BiConsumer<T, Long> consumer) {
+        //noinspection ResultOfMethodCallIgnored
+        builder.allocatePrimaryKeys(primaryKeyColumn, idAllocator, consumer);
+        return this;
+    }
+
     /**
      * Executes <code>INSERT INTO table ...</code> and calls {@link PreparedStatement#addBatch()} for
      * each row
@@ -58,6 +73,6 @@ public class DbContextBulkInsertBuilder<T> implements DatabaseBulkUpdatable<T, D
      * @return the count of rows inserted
      */
     public int execute() {
-        return builder.execute(table.getConnection());
+        return table.getDbContext().withConnection(builder::execute);
     }
 }
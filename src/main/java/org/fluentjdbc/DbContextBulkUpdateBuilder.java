@@ -63,7 +63,7 @@ public class DbContextBulkUpdateBuilder<T> implements
      * @return the count of rows that were updated
      */
     public int execute() {
-        return builder.execute(table.getConnection());
+        return table.getDbContext().withConnection(builder::execute);
     }
 
 }
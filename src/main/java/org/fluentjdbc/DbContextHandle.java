@@ -0,0 +1,94 @@
+package org.fluentjdbc;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * A handle to a {@link DbContext} captured with {@link DbContext#captureContext()}, used to run
+ * {@link DbContext} operations on other threads, for example in an {@link java.util.concurrent.ExecutorService},
+ * {@link java.util.concurrent.CompletableFuture} or on virtual threads. A {@link java.sql.Connection}
+ * is not thread-safe, so each task gets its own {@link DbContextConnection} from the
+ * {@link DbContext.ConnectionSupplier} that was used on the capturing thread. If the task runs on a
+ * thread which already has a connection for the {@link DbContext}, the task uses that connection.
+ *
+ * <p>Example:</p>
+ * <pre>
+ * DbContextHandle handle = context.captureContext();
+ * Future&lt;Integer&gt; count = executor.submit(handle.wrap(() -&gt; table.query().getCount()));
+ * </pre>
+ */
+@ParametersAreNonnullByDefault
+public class DbContextHandle {
+
+    private final DbContext dbContext;
+    private final DbContext.ConnectionSupplier connectionSupplier;
+
+    DbContextHandle(DbContext dbContext, DbContext.ConnectionSupplier connectionSupplier) {
+        this.dbContext = dbContext;
+        this.connectionSupplier = connectionSupplier;
+    }
+
+    public DbContext getDbContext() {
+        return dbContext;
+    }
+
+    public DbContext.ConnectionSupplier getConnectionSupplier() {
+        return connectionSupplier;
+    }
+
+    /**
+     * Executes the task on the current thread with a {@link DbContextConnection} from this handle
+     */
+    public <T> T call(Callable<T> task) throws Exception {
+        try (DbContextConnection ignored = dbContext.startConnection(connectionSupplier)) {
+            return task.call();
+        }
+    }
+
+    /**
+     * Executes the task on the current thread with a {@link DbContextConnection} from this handle
+     */
+    public <T> T get(Supplier<T> task) {
+        try (DbContextConnection ignored = dbContext.startConnection(connectionSupplier)) {
+            return task.get();
+        }
+    }
+
+    /**
+     * Executes the task on the current thread with a {@link DbContextConnection} from this handle
+     */
+    public void run(Runnable task) {
+        try (DbContextConnection ignored = dbContext.startConnection(connectionSupplier)) {
+            task.run();
+        }
+    }
+
+    /**
+     * Returns a {@link Runnable} which executes the task with its own {@link DbContextConnection},
+     * e.g. for {@link java.util.concurrent.CompletableFuture#runAsync(Runnable)}
+     */
+    @CheckReturnValue
+    public Runnable wrap(Runnable task) {
+        return () -> run(task);
+    }
+
+    /**
+     * Returns a {@link Callable} which executes the task with its own {@link DbContextConnection},
+     * e.g. for {@link java.util.concurrent.ExecutorService#submit(Callable)}
+     */
+    @CheckReturnValue
+    public <T> Callable<T> wrap(Callable<T> task) {
+        return () -> call(task);
+    }
+
+    /**
+     * Returns a {@link Supplier} which executes the task with its own {@link DbContextConnection},
+     * e.g. for {@link java.util.concurrent.CompletableFuture#supplyAsync(Supplier)}
+     */
+    @CheckReturnValue
+    public <T> Supplier<T> wrapSupplier(Supplier<T> task) {
+        return () -> get(task);
+    }
+}
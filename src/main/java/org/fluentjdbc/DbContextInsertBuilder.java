@@ -3,6 +3,7 @@ package org.fluentjdbc;
 import javax.annotation.CheckReturnValue;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Generate <code>INSERT</code> statements by collecting field names and parameters. Support
@@ -39,7 +40,15 @@ public class DbContextInsertBuilder implements DatabaseUpdatable<DbContextInsert
         }
 
         public T execute() {
-            return builder.execute(dbContextTable.getConnection());
+            return dbContextTable.getDbContext().withConnection(builder::execute);
+        }
+
+        /**
+         * Like {@link #execute()}, but executes the statement asynchronously with a separate
+         * connection using {@link DbContext#async(java.util.function.Supplier)}
+         */
+        public CompletableFuture<T> executeAsync() {
+            return dbContextTable.getDbContext().async(this::execute);
         }
     }
 
@@ -94,10 +103,19 @@ public class DbContextInsertBuilder implements DatabaseUpdatable<DbContextInsert
     }
 
     /**
-     * Executes the insert statement and returns the number of rows inserted
+     * Executes the insert statement and returns the number of rows inserted. Inside
+     * {@link DbContext#batch(Runnable)}, the statement is queued instead
      */
     public int execute() {
-        return builder.execute(dbContextTable.getConnection());
+        return dbContextTable.getDbContext().executeUpdate(builder.createStatement());
+    }
+
+    /**
+     * Like {@link #execute()}, but executes the statement asynchronously with a separate
+     * connection using {@link DbContext#async(java.util.function.Supplier)}
+     */
+    public CompletableFuture<Integer> executeAsync() {
+        return dbContextTable.getDbContext().async(this::execute);
     }
 
     private DbContextInsertBuilder build(DatabaseInsertBuilder builder) {
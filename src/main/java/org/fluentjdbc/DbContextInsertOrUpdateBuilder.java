@@ -72,7 +72,7 @@ public class DbContextInsertOrUpdateBuilder implements DatabaseUpdatable<DbConte
      * Will execute the UPDATE statement to the database
      */
     public int execute() {
-        return builder.execute(table.getConnection());
+        return table.getDbContext().withConnection(builder::execute);
     }
 
     private DbContextInsertOrUpdateBuilder build(DatabaseInsertOrUpdateBuilder builder) {
@@ -2,10 +2,10 @@ package org.fluentjdbc;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
-import java.sql.Connection;
 import java.sql.ResultSetMetaData;
 import java.util.List;
 import java.util.Map;
+import java.util.function.BiFunction;
 import java.util.stream.Stream;
 
 /**
@@ -96,12 +96,28 @@ public class DbContextJoinedSelectBuilder implements DbContextListableSelect<DbC
         return query(builder.leftJoin(leftFields, joinedTable.getTableAlias(), rightFields));
     }
 
+    /**
+     * Selects only the specified columns instead of <code>select *</code>
+     *
+     * @see DatabaseJoinedQueryBuilder#select(DatabaseColumnReference...)
+     */
+    @CheckReturnValue
+    public DbContextJoinedSelectBuilder select(DatabaseColumnReference... columns) {
+        builder.select(columns);
+        return this;
+    }
+
+    @Override
+    public DbContext getDbContext() {
+        return table.getDbContext();
+    }
+
     /**
      * Executes <code>SELECT count(*) FROM ...</code> on the query and returns the result
      */
     @Override
     public int getCount() {
-        return builder.getCount(getConnection());
+        return table.getDbContext().withConnection(builder::getCount);
     }
 
     /**
@@ -115,7 +131,7 @@ public class DbContextJoinedSelectBuilder implements DbContextListableSelect<DbC
      */
     @Override
     public <OBJECT> Stream<OBJECT> stream(DatabaseResult.RowMapper<OBJECT> mapper) {
-        return builder.stream(getConnection(), mapper);
+        return table.getDbContext().withConnectionStream(connection -> builder.stream(connection, mapper));
     }
 
     /**
@@ -131,7 +147,40 @@ public class DbContextJoinedSelectBuilder implements DbContextListableSelect<DbC
      */
     @Override
     public <OBJECT> List<OBJECT> list(DatabaseResult.RowMapper<OBJECT> mapper) {
-        return builder.list(getConnection(), mapper);
+        return table.getDbContext().withConnection(connection -> builder.list(connection, mapper));
+    }
+
+    /**
+     * Returns the rows from offset to offset + limit together with the total number of rows matched
+     * by the query, using <code>count(*) over ()</code> where supported. See
+     * {@link DatabaseJoinedQueryBuilder#listWithTotal}
+     */
+    @CheckReturnValue
+    public <OBJECT> DatabasePage<OBJECT> listWithTotal(int offset, int limit, DatabaseResult.RowMapper<OBJECT> mapper) {
+        return table.getDbContext().withConnection(connection -> builder.listWithTotal(connection, offset, limit, mapper));
+    }
+
+    /**
+     * Streams one object per parent row of a one-to-many join, with the children from all the
+     * rows of the parent, holding only one parent in memory at a time. Example:
+     *
+     * <pre>
+     * try (Stream&lt;Order&gt; orders = o.leftJoin(o.column("id"), l.column("order_id"))
+     *     .streamGrouped(o.column("id"), row -&gt; toOrder(row.table(o)), row -&gt; row.table(l.getTableAlias(), OrderLine::new).orElse(null), Order::withLines)) {
+     *     orders.forEach(...);
+     * }
+     * </pre>
+     *
+     * @see DatabaseJoinedQueryBuilder#streamGrouped
+     */
+    @CheckReturnValue
+    public <P, C, R> Stream<R> streamGrouped(
+            DatabaseColumnReference parentKey,
+            DatabaseResult.RowMapper<P> parentMapper,
+            DatabaseResult.RowMapper<C> childMapper,
+            BiFunction<P, List<C>, R> combiner
+    ) {
+        return table.getDbContext().withConnectionStream(connection -> builder.streamGrouped(connection, parentKey, parentMapper, childMapper, combiner));
     }
 
     /**
@@ -140,7 +189,10 @@ public class DbContextJoinedSelectBuilder implements DbContextListableSelect<DbC
      */
     @Override
     public void forEach(DatabaseResult.RowConsumer consumer) {
-        builder.forEach(getConnection(), consumer);
+        table.getDbContext().withConnection(connection -> {
+            builder.forEach(connection, consumer);
+            return null;
+        });
     }
 
     /**
@@ -188,7 +240,7 @@ public class DbContextJoinedSelectBuilder implements DbContextListableSelect<DbC
     @Override
     @Nonnull
     public <OBJECT> SingleRow<OBJECT> singleObject(DatabaseResult.RowMapper<OBJECT> mapper) {
-        return builder.singleObject(getConnection(), mapper);
+        return table.getDbContext().withConnection(connection -> builder.singleObject(connection, mapper));
     }
 
     /**
@@ -239,9 +291,5 @@ public class DbContextJoinedSelectBuilder implements DbContextListableSelect<DbC
     private DbContextJoinedSelectBuilder query(@SuppressWarnings("unused") DatabaseJoinedQueryBuilder builder) {
         return this;
     }
-
-    private Connection getConnection() {
-        return table.getDbContext().getThreadConnection();
-    }
 }
 
@@ -1,7 +1,7 @@
 package org.fluentjdbc;
 
 import javax.annotation.CheckReturnValue;
-
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Interface to execute terminal operations for <code>SELECT</code>-statements. Usage:
@@ -27,10 +27,31 @@ public interface DbContextListableSelect<T extends DbContextListableSelect<T>> e
     @CheckReturnValue
     int getCount();
 
+    /**
+     * Like {@link #getCount()}, but executes the query asynchronously with a separate connection
+     * using {@link DbContext#async(java.util.function.Supplier)}
+     */
+    @CheckReturnValue
+    default CompletableFuture<Integer> getCountAsync() {
+        return getDbContext().async(this::getCount);
+    }
+
     /**
      * Executes the <code>SELECT * FROM ...</code> statement and calls back to
      * {@link DatabaseResult.RowConsumer} for each returned row
      */
     void forEach(DatabaseResult.RowConsumer consumer);
 
+    /**
+     * Like {@link #forEach(DatabaseResult.RowConsumer)}, but executes the query asynchronously with a
+     * separate connection using {@link DbContext#async(java.util.function.Supplier)}. The consumer
+     * is called on the thread executing the query
+     */
+    default CompletableFuture<Void> forEachAsync(DatabaseResult.RowConsumer consumer) {
+        return getDbContext().async(() -> {
+            forEach(consumer);
+            return null;
+        });
+    }
+
 }
@@ -0,0 +1,267 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.util.ExceptionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs a set of independent read-only queries concurrently, each on a separate connection from the
+ * {@link DbContext.ConnectionSupplier} of the current thread, so that the total latency becomes
+ * the latency of the slowest query instead of the sum of all of them. As each query runs with its
+ * own connection outside any transaction, the queries should not modify the database.
+ * Use {@link #add(Supplier)} to register queries and {@link #execute()} to run them.
+ *
+ * <p>Example:</p>
+ * <pre>
+ * DbContextParallelBuilder parallel = dbContext.parallel().maxConcurrency(4).timeout(Duration.ofSeconds(5));
+ * Supplier&lt;List&lt;Order&gt;&gt; orders = parallel.add(() -&gt; orderTable.where("customer_id", id).list(Order::new));
+ * Supplier&lt;Integer&gt; productCount = parallel.add(() -&gt; productTable.query().getCount());
+ * parallel.execute();
+ * </pre>
+ *
+ * <p>If a query throws an exception, the remaining queries are cancelled and the exception is
+ * rethrown from {@link #execute()}. If the queries don't complete within the {@link #timeout(Duration)},
+ * {@link #execute()} cancels them and throws {@link ParallelQueryTimeoutException}. Cancelling a
+ * query calls {@link Statement#cancel()} on its running statements, so the database stops executing
+ * them and the connections are returned, and fails any later statements of the query.</p>
+ */
+@ParametersAreNonnullByDefault
+public class DbContextParallelBuilder {
+
+    private static final Logger logger = LoggerFactory.getLogger(DbContextParallelBuilder.class);
+
+    private final DbContext dbContext;
+    private final List<ParallelQuery<?>> queries = new ArrayList<>();
+    private Executor executor;
+    private int maxConcurrency = Integer.MAX_VALUE;
+    private Duration timeout;
+
+    public DbContextParallelBuilder(DbContext dbContext) {
+        this.dbContext = dbContext;
+        this.executor = dbContext.getExecutor();
+    }
+
+    /**
+     * Run the queries with the specified {@link Executor} instead of {@link DbContext#getExecutor()}
+     */
+    @CheckReturnValue
+    public DbContextParallelBuilder executor(Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Limits how many queries (and connections) are used at the same time
+     */
+    @CheckReturnValue
+    public DbContextParallelBuilder maxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive, was " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    /**
+     * Fail with {@link ParallelQueryTimeoutException} if all queries haven't completed within the timeout
+     */
+    @CheckReturnValue
+    public DbContextParallelBuilder timeout(Duration timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Registers a query to be executed with {@link #execute()}. The returned {@link Supplier}
+     * returns the result of the query after {@link #execute()} has completed
+     */
+    @CheckReturnValue
+    public <T> Supplier<T> add(Supplier<T> query) {
+        ParallelQuery<T> parallelQuery = new ParallelQuery<>(query);
+        queries.add(parallelQuery);
+        return parallelQuery;
+    }
+
+    /**
+     * Registers all the queries and executes them, returning the results in the same order as the queries
+     */
+    public <T> List<T> list(List<? extends Supplier<? extends T>> queries) {
+        List<Supplier<? extends T>> results = new ArrayList<>();
+        for (Supplier<? extends T> query : queries) {
+            results.add(add(query));
+        }
+        execute();
+        List<T> result = new ArrayList<>();
+        for (Supplier<? extends T> supplier : results) {
+            result.add(supplier.get());
+        }
+        return result;
+    }
+
+    /**
+     * Executes all queries registered with {@link #add(Supplier)} and waits for them to complete
+     *
+     * @throws IllegalStateException if called inside {@link DbContext#ensureTransaction()}
+     * @throws ParallelQueryTimeoutException if the queries didn't complete within {@link #timeout(Duration)}
+     */
+    public void execute() {
+        DbContextHandle handle = dbContext.captureContext();
+        long deadline = timeout != null ? System.nanoTime() + timeout.toNanos() : 0;
+        CompletionService<Object> completionService = new ExecutorCompletionService<>(executor);
+        Map<Future<Object>, RunningQuery> running = new HashMap<>();
+        Iterator<ParallelQuery<?>> pending = queries.iterator();
+        try {
+            while (running.size() < maxConcurrency && pending.hasNext()) {
+                submit(completionService, handle, pending.next(), running);
+            }
+            while (!running.isEmpty()) {
+                Future<Object> future = nextCompleted(completionService, deadline);
+                running.remove(future).query.complete(getResult(future));
+                if (pending.hasNext()) {
+                    submit(completionService, handle, pending.next(), running);
+                }
+            }
+        } finally {
+            for (Map.Entry<Future<Object>, RunningQuery> entry : running.entrySet()) {
+                entry.getKey().cancel(true);
+                entry.getValue().cancel();
+            }
+        }
+    }
+
+    private void submit(CompletionService<Object> completionService, DbContextHandle handle, ParallelQuery<?> query, Map<Future<Object>, RunningQuery> running) {
+        RunningQuery runningQuery = new RunningQuery(query, handle.getConnectionSupplier());
+        DbContextHandle queryHandle = new DbContextHandle(handle.getDbContext(), runningQuery);
+        Callable<Object> task = queryHandle.wrap(() -> query.query.get());
+        running.put(completionService.submit(task), runningQuery);
+    }
+
+    private Future<Object> nextCompleted(CompletionService<Object> completionService, long deadline) {
+        try {
+            if (timeout == null) {
+                return completionService.take();
+            }
+            Future<Object> future = completionService.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (future == null) {
+                throw new ParallelQueryTimeoutException(timeout);
+            }
+            return future;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ExceptionUtil.softenCheckedException(e);
+        }
+    }
+
+    private static Object getResult(Future<Object> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ExceptionUtil.softenCheckedException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw ExceptionUtil.softenCheckedException((Exception) e.getCause());
+        }
+    }
+
+    /**
+     * Supplies the connection of a submitted query and keeps track of its statements, so they
+     * can be cancelled. As JDBC drivers don't stop a statement when the thread is interrupted,
+     * this is what stops a query after {@link #execute()} has given up on it
+     */
+    private static class RunningQuery implements DbContext.ConnectionSupplier {
+        private final ParallelQuery<?> query;
+        private final DbContext.ConnectionSupplier connectionSupplier;
+        private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+        private volatile boolean cancelled = false;
+
+        private RunningQuery(ParallelQuery<?> query, DbContext.ConnectionSupplier connectionSupplier) {
+            this.query = query;
+            this.connectionSupplier = connectionSupplier;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = connectionSupplier.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class}, (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+                if (result instanceof Statement) {
+                    statements.add((Statement) result);
+                    if (cancelled) {
+                        ((Statement) result).close();
+                        throw new SQLException("Parallel query was cancelled");
+                    }
+                }
+                return result;
+            });
+        }
+
+        private void cancel() {
+            cancelled = true;
+            for (Statement statement : statements) {
+                try {
+                    if (!statement.isClosed()) {
+                        statement.cancel();
+                    }
+                } catch (SQLException e) {
+                    logger.debug("Failed to cancel statement", e);
+                }
+            }
+        }
+    }
+
+    private static class ParallelQuery<T> implements Supplier<T> {
+        private final Supplier<T> query;
+        private boolean completed = false;
+        private T result;
+
+        private ParallelQuery(Supplier<T> query) {
+            this.query = query;
+        }
+
+        private void complete(Object result) {
+            //noinspection unchecked
+            this.result = (T) result;
+            this.completed = true;
+        }
+
+        @Override
+        public T get() {
+            if (!completed) {
+                throw new IllegalStateException("Call execute() before retrieving the result");
+            }
+            return result;
+        }
+    }
+}
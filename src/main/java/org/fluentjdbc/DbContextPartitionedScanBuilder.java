@@ -0,0 +1,304 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.util.ExceptionUtil;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads all rows of a query as a parallel {@link Stream} by splitting the query into partitions
+ * on an integer key column, where each partition is read with a separate connection from the
+ * {@link DbContext.ConnectionSupplier} of the current thread. By default, the partitions are
+ * ranges between the smallest and largest key, so each partition can use an index on the column.
+ * With {@link #byModulo()}, rows are instead assigned to partition <code>abs(mod(key, partitions))</code>,
+ * which gives partitions of equal size when the keys are unevenly distributed. Rows where the
+ * key is <code>NULL</code> are read by the first partition.
+ *
+ * <pre>
+ * try (Stream&lt;Order&gt; orders = orderTable.where("status", "archived").partitioned("id", 8).stream(Order::new)) {
+ *     orders.forEach(order -&gt; exporter.write(order));
+ * }
+ * </pre>
+ *
+ * <p>Partitions are read when the stream is consumed and each connection is returned when its
+ * partition has been read. Closing the stream closes any partitions which are still open, so the
+ * stream should be closed if it may not be read to the end. As the partitions use separate
+ * connections, they don't see a consistent snapshot of the table, and the mapper is called on
+ * other threads, where it can't use the {@link DbContext}.</p>
+ */
+@ParametersAreNonnullByDefault
+public class DbContextPartitionedScanBuilder {
+
+    private final DbContextTableQueryBuilder query;
+    private final String keyColumn;
+    private final int partitions;
+    private boolean modulo = false;
+    private int fetchSize = 0;
+
+    public DbContextPartitionedScanBuilder(DbContextTableQueryBuilder query, String keyColumn, int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("partitions must be positive, was " + partitions);
+        }
+        this.query = query;
+        this.keyColumn = keyColumn;
+        this.partitions = partitions;
+    }
+
+    /**
+     * Assign rows to partitions by <code>abs(mod(key, partitions))</code> instead of key ranges
+     */
+    @CheckReturnValue
+    public DbContextPartitionedScanBuilder byModulo() {
+        this.modulo = true;
+        return this;
+    }
+
+    /**
+     * Calls {@link java.sql.PreparedStatement#setFetchSize(int)} for each partition
+     *
+     * @see DatabaseStatement#stream(Connection, DatabaseResult.RowMapper, int)
+     */
+    @CheckReturnValue
+    public DbContextPartitionedScanBuilder fetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    /**
+     * Returns a parallel stream of the rows of all partitions mapped with mapper. Rows are ordered
+     * within each partition if the query has an <code>ORDER BY</code>, but not between partitions
+     *
+     * @throws IllegalStateException if called inside {@link DbContext#ensureTransaction()}
+     */
+    @CheckReturnValue
+    public <T> Stream<T> stream(DatabaseResult.RowMapper<T> mapper) {
+        DbContextHandle handle = query.dbContextTable.getDbContext().captureContext();
+        PartitionedScan<T> scan = new PartitionedScan<>(handle.getConnectionSupplier(), mapper);
+        List<DatabaseQueryParameter> predicates = modulo ? moduloPredicates() : rangePredicates();
+        return StreamSupport.stream(scan.new PartitionSpliterator(predicates), true).onClose(scan::close);
+    }
+
+    /**
+     * Returns a predicate for each partition, splitting the range of keys evenly. The first
+     * partition also includes rows where the key is <code>NULL</code>. If the keys span more
+     * than {@link Long#MAX_VALUE}, the {@link #moduloPredicates()} are used instead
+     */
+    List<DatabaseQueryParameter> rangePredicates() {
+        DatabaseSelectBuilder bounds = query.builder.createSelectBuilder()
+                .orderBy(Collections.emptyList())
+                .select("min(" + keyColumn + ") as min_key", "max(" + keyColumn + ") as max_key");
+        long[] range = query.dbContextTable.getDbContext().withConnection(connection -> bounds.singleObject(
+                connection, row -> row.getLong("min_key") == null ? null : new long[] { row.getLong("min_key"), row.getLong("max_key") }
+        ).orElse(null));
+        if (range == null) {
+            return Collections.singletonList(new DatabaseQueryParameter(keyColumn + " is null", Collections.emptyList()));
+        } else if (partitions == 1 || range[0] == range[1]) {
+            return Collections.singletonList(null);
+        }
+        long size;
+        try {
+            size = Math.subtractExact(range[1], range[0]) / partitions + 1;
+        } catch (ArithmeticException e) {
+            // The keys span more than Long.MAX_VALUE, as with signed hash keys
+            return moduloPredicates();
+        }
+        List<DatabaseQueryParameter> result = new ArrayList<>();
+        long lower = range[0];
+        for (int i = 0; ; i++) {
+            // range[1] - lower can't overflow, and upper is only computed when it doesn't pass range[1]
+            if (i == partitions - 1 || size > range[1] - lower) {
+                result.add(new DatabaseQueryParameter(keyColumn + " >= ?", Collections.singletonList(lower)));
+                return result;
+            }
+            long upper = lower + size;
+            if (i == 0) {
+                result.add(new DatabaseQueryParameter("(" + keyColumn + " < ? or " + keyColumn + " is null)", Collections.singletonList(upper)));
+            } else {
+                result.add(new DatabaseQueryParameter(keyColumn + " >= ? and " + keyColumn + " < ?", Arrays.asList(lower, upper)));
+            }
+            lower = upper;
+        }
+    }
+
+    List<DatabaseQueryParameter> moduloPredicates() {
+        List<DatabaseQueryParameter> result = new ArrayList<>();
+        for (int i = 0; i < partitions; i++) {
+            String expression = "abs(mod(" + keyColumn + ", " + partitions + ")) = ?";
+            if (i == 0) {
+                expression = "(" + expression + " or " + keyColumn + " is null)";
+            }
+            result.add(new DatabaseQueryParameter(expression, Collections.singletonList(i)));
+        }
+        return result;
+    }
+
+    DatabaseStatement partitionStatement(@Nullable DatabaseQueryParameter predicate) {
+        DatabaseWhereBuilder partition = new DatabaseWhereBuilder();
+        if (predicate != null) {
+            partition.where(predicate);
+        }
+        return query.builder.createSelectBuilder(partition).getDatabaseStatement();
+    }
+
+    private class PartitionedScan<T> {
+        private final DbContext.ConnectionSupplier connectionSupplier;
+        private final DatabaseResult.RowMapper<T> mapper;
+        private final Set<Partition> openPartitions = ConcurrentHashMap.newKeySet();
+        private volatile boolean closed = false;
+
+        private PartitionedScan(DbContext.ConnectionSupplier connectionSupplier, DatabaseResult.RowMapper<T> mapper) {
+            this.connectionSupplier = connectionSupplier;
+            this.mapper = mapper;
+        }
+
+        private void close() {
+            closed = true;
+            RuntimeException exception = null;
+            for (Partition partition : openPartitions) {
+                try {
+                    partition.close();
+                } catch (RuntimeException e) {
+                    exception = exception == null ? e : exception;
+                }
+            }
+            if (exception != null) {
+                throw exception;
+            }
+        }
+
+        /**
+         * The rows of one partition, read from a connection of its own
+         */
+        private class Partition implements AutoCloseable {
+            private final Connection connection;
+            private final Stream<T> rows;
+            private final Iterator<T> iterator;
+
+            private Partition(@Nullable DatabaseQueryParameter predicate) throws SQLException {
+                if (closed) {
+                    throw new IllegalStateException("Stream is closed");
+                }
+                connection = connectionSupplier.getConnection();
+                openPartitions.add(this);
+                try {
+                    rows = partitionStatement(predicate).stream(connection, mapper, fetchSize);
+                    iterator = rows.iterator();
+                } catch (RuntimeException e) {
+                    closeConnection();
+                    throw e;
+                }
+            }
+
+            @Override
+            public void close() {
+                try {
+                    rows.close();
+                } finally {
+                    closeConnection();
+                }
+            }
+
+            private void closeConnection() {
+                if (openPartitions.remove(this)) {
+                    try {
+                        connection.close();
+                    } catch (SQLException e) {
+                        throw ExceptionUtil.softenCheckedException(e);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Splits the list of partitions in half for each {@link #trySplit()}. When a single
+         * partition remains, further splitting is left to the database
+         */
+        private class PartitionSpliterator implements Spliterator<T> {
+            private final List<DatabaseQueryParameter> predicates;
+            private int next;
+            private final int end;
+            private Partition current;
+
+            private PartitionSpliterator(List<DatabaseQueryParameter> predicates) {
+                this(predicates, 0, predicates.size());
+            }
+
+            private PartitionSpliterator(List<DatabaseQueryParameter> predicates, int next, int end) {
+                this.predicates = predicates;
+                this.next = next;
+                this.end = end;
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                while (true) {
+                    if (current == null) {
+                        if (next >= end) {
+                            return false;
+                        }
+                        current = open(predicates.get(next++));
+                    }
+                    try {
+                        if (current.iterator.hasNext()) {
+                            action.accept(current.iterator.next());
+                            return true;
+                        }
+                    } catch (RuntimeException e) {
+                        closeCurrent();
+                        throw e;
+                    }
+                    closeCurrent();
+                }
+            }
+
+            private Partition open(@Nullable DatabaseQueryParameter predicate) {
+                try {
+                    return new Partition(predicate);
+                } catch (SQLException e) {
+                    throw ExceptionUtil.softenCheckedException(e);
+                }
+            }
+
+            private void closeCurrent() {
+                Partition partition = current;
+                current = null;
+                partition.close();
+            }
+
+            @Override
+            public Spliterator<T> trySplit() {
+                if (current != null || end - next < 2) {
+                    return null;
+                }
+                int middle = next + (end - next) / 2;
+                PartitionSpliterator prefix = new PartitionSpliterator(predicates, next, middle);
+                next = middle;
+                return prefix;
+            }
+
+            @Override
+            public long estimateSize() {
+                return current == null && next >= end ? 0 : Long.MAX_VALUE;
+            }
+
+            @Override
+            public int characteristics() {
+                return 0;
+            }
+        }
+    }
+}
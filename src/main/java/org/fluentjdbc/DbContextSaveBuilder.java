@@ -63,7 +63,7 @@ public class DbContextSaveBuilder<T> {
      * See {@link DatabaseSaveBuilder#execute(Connection)}
      */
     public DatabaseSaveResult<T> execute() {
-        return saveBuilder.execute(table.getConnection());
+        return table.getDbContext().withConnection(saveBuilder::execute);
     }
 
 }
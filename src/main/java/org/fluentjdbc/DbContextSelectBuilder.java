@@ -2,8 +2,9 @@ package org.fluentjdbc;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
-import java.sql.Connection;
+import javax.annotation.Nullable;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 /**
@@ -124,6 +125,38 @@ public class DbContextSelectBuilder implements DbContextListableSelect<DbContext
         return query(builder.skipAndLimit(offset, rowCount));
     }
 
+    /**
+     * Returns the rows from offset to offset + limit together with the total number of rows matched
+     * by the query, using <code>count(*) over ()</code> where supported. See
+     * {@link DatabaseSelectBuilder#listWithTotal}
+     */
+    @CheckReturnValue
+    public <T> DatabasePage<T> listWithTotal(int offset, int limit, DatabaseResult.RowMapper<T> mapper) {
+        return dbContext.withConnection(connection -> builder.listWithTotal(connection, offset, limit, mapper));
+    }
+
+    /**
+     * Restricts the query to rows after lastValues when ordered by orderColumns, to fetch the next
+     * page of a keyset (seek) pagination. See {@link DatabaseSelectBuilder#seekAfter(List, List)}
+     */
+    @CheckReturnValue
+    public DbContextSelectBuilder seekAfter(List<String> orderColumns, @Nullable List<?> lastValues) {
+        return query(builder.seekAfter(orderColumns, lastValues));
+    }
+
+    /**
+     * Returns all rows of the query as pages of at most pageSize rows ordered by keyColumns, where
+     * each page is fetched with {@link DatabaseSelectBuilder#seekAfter} from the last row of the
+     * previous page. Replaces the order and limit of this builder
+     */
+    @CheckReturnValue
+    public <T> Stream<List<T>> pages(List<String> keyColumns, int pageSize, DatabaseResult.RowMapper<T> mapper) {
+        return new DatabaseKeysetIterator<>(
+                () -> builder, keyColumns, pageSize, dbContext.withConnection(DatabaseDialect::fromConnection), mapper,
+                (select, keyMapper) -> dbContext.withConnection(connection -> select.list(connection, keyMapper))
+        ).stream();
+    }
+
     /**
      * Execute the query and map each return value over the {@link DatabaseResult.RowMapper} function to return a stream. Example:
      * <pre>
@@ -132,7 +165,7 @@ public class DbContextSelectBuilder implements DbContextListableSelect<DbContext
      */
     @Override
     public <OBJECT> Stream<OBJECT> stream(DatabaseResult.RowMapper<OBJECT> mapper) {
-        return builder.stream(getConnection(), mapper);
+        return dbContext.withConnectionStream(connection -> builder.stream(connection, mapper));
     }
 
     /**
@@ -143,7 +176,7 @@ public class DbContextSelectBuilder implements DbContextListableSelect<DbContext
      */
     @Override
     public <OBJECT> List<OBJECT> list(DatabaseResult.RowMapper<OBJECT> mapper) {
-        return builder.list(getConnection(), mapper);
+        return dbContext.withConnection(connection -> builder.list(connection, mapper));
     }
 
     /**
@@ -151,7 +184,7 @@ public class DbContextSelectBuilder implements DbContextListableSelect<DbContext
      */
     @Override
     public int getCount() {
-        return builder.getCount(getConnection());
+        return dbContext.withConnection(builder::getCount);
     }
 
     /**
@@ -165,7 +198,7 @@ public class DbContextSelectBuilder implements DbContextListableSelect<DbContext
     @Nonnull
     @Override
     public <OBJECT> SingleRow<OBJECT> singleObject(DatabaseResult.RowMapper<OBJECT> mapper) {
-        return builder.singleObject(getConnection(), mapper);
+        return dbContext.withConnection(connection -> builder.singleObject(connection, mapper));
     }
 
     /**
@@ -177,7 +210,7 @@ public class DbContextSelectBuilder implements DbContextListableSelect<DbContext
     @Nonnull
     @Override
     public SingleRow<String> singleString(String fieldName) {
-        return builder.singleString(getConnection(), fieldName);
+        return dbContext.withConnection(connection -> builder.singleString(connection, fieldName));
     }
 
     /**
@@ -186,12 +219,23 @@ public class DbContextSelectBuilder implements DbContextListableSelect<DbContext
      */
     @Override
     public void forEach(DatabaseResult.RowConsumer consumer) {
-        builder.forEach(getConnection(), consumer);
+        dbContext.withConnection(connection -> {
+            builder.forEach(connection, consumer);
+            return null;
+        });
     }
 
-    @Nonnull
-    private Connection getConnection() {
-        return dbContext.getThreadConnection();
+    /**
+     * Executes the <code>SELECT * FROM ...</code> statement and reads the result into the columns
+     * of batch, calling consumer for each full batch
+     *
+     * @see DatabaseColumnBatch
+     */
+    public void forEachBatch(DatabaseColumnBatch batch, Consumer<DatabaseColumnBatch> consumer) {
+        dbContext.withConnection(connection -> {
+            builder.forEachBatch(connection, batch, consumer);
+            return null;
+        });
     }
 
     /**
@@ -202,6 +246,20 @@ public class DbContextSelectBuilder implements DbContextListableSelect<DbContext
         return builder.asNestedSelectOn(column);
     }
 
+    @Override
+    public DbContext getDbContext() {
+        return dbContext;
+    }
+
+    /**
+     * Returns the {@link DatabaseStatement} which executes this query, for example for use with
+     * {@link org.fluentjdbc.opt.flow.DatabaseResultPublisher}
+     */
+    @CheckReturnValue
+    public DatabaseStatement getDatabaseStatement() {
+        return builder.getDatabaseStatement();
+    }
+
     public DatabaseSelectBuilder getBuilder() {
         return builder;
     }
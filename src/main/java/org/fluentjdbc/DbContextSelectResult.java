@@ -6,6 +6,7 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -20,6 +21,13 @@ import java.util.stream.Stream;
  * </pre>
  */
 public interface DbContextSelectResult {
+
+    /**
+     * The {@link DbContext} which will execute the query. Used by the <code>...Async</code> methods
+     */
+    @CheckReturnValue
+    DbContext getDbContext();
+
     /**
      * Execute the query and map each return value over the {@link DatabaseResult.RowMapper} function to return a stream. Example:
      * <pre>
@@ -40,6 +48,15 @@ public interface DbContextSelectResult {
         return stream(mapper).collect(Collectors.toList());
     }
 
+    /**
+     * Like {@link #list(DatabaseResult.RowMapper)}, but executes the query asynchronously with a separate
+     * connection using {@link DbContext#async(java.util.function.Supplier)}
+     */
+    @CheckReturnValue
+    default <OBJECT> CompletableFuture<List<OBJECT>> listAsync(DatabaseResult.RowMapper<OBJECT> mapper) {
+        return getDbContext().async(() -> list(mapper));
+    }
+
     /**
      * Executes <code>SELECT fieldName FROM ...</code> on the query and returns the result as a list
      */
@@ -76,6 +93,16 @@ public interface DbContextSelectResult {
     @CheckReturnValue
     <OBJECT> SingleRow<OBJECT> singleObject(DatabaseResult.RowMapper<OBJECT> mapper);
 
+    /**
+     * Like {@link #singleObject(DatabaseResult.RowMapper)}, but executes the query asynchronously with a
+     * separate connection using {@link DbContext#async(java.util.function.Supplier)}
+     */
+    @Nonnull
+    @CheckReturnValue
+    default <OBJECT> CompletableFuture<SingleRow<OBJECT>> singleObjectAsync(DatabaseResult.RowMapper<OBJECT> mapper) {
+        return getDbContext().async(() -> singleObject(mapper));
+    }
+
     /**
      * Returns a string from the specified column name
      *
@@ -5,6 +5,7 @@ import javax.annotation.Nonnull;
 import java.sql.PreparedStatement;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Stream;
 
 /**
@@ -43,7 +44,7 @@ public class DbContextStatement implements DbContextSelectResult {
     @Nonnull
     @CheckReturnValue
     public <OBJECT> SingleRow<OBJECT> singleObject(DatabaseResult.RowMapper<OBJECT> mapper) {
-        return statement.singleObject(dbContext.getThreadConnection(), mapper);
+        return dbContext.withConnection(connection -> statement.singleObject(connection, mapper));
     }
 
     /**
@@ -54,15 +55,36 @@ public class DbContextStatement implements DbContextSelectResult {
      */
     @CheckReturnValue
     public <OBJECT> Stream<OBJECT> stream(DatabaseResult.RowMapper<OBJECT> mapper) {
-        return statement.stream(dbContext.getThreadConnection(), mapper);
+        return dbContext.withConnectionStream(connection -> statement.stream(connection, mapper));
     }
 
     /**
      * Calls prepareStatement(String) with the statement,
      * {@link DatabaseStatement#bindParameters(PreparedStatement, Collection)}, converting each parameter in the process
-     * and executes the statement
+     * and executes the statement. Inside {@link DbContext#batch(Runnable)}, the statement is queued instead
      */
     public int executeUpdate() {
-        return statement.executeUpdate(dbContext.getThreadConnection());
+        return dbContext.executeUpdate(statement);
+    }
+
+    /**
+     * Like {@link #executeUpdate()}, but executes the statement asynchronously with a separate
+     * connection using {@link DbContext#async(java.util.function.Supplier)}
+     */
+    public CompletableFuture<Integer> executeUpdateAsync() {
+        return dbContext.async(this::executeUpdate);
+    }
+
+    /**
+     * Returns the underlying {@link DatabaseStatement}, for example for use with
+     * {@link org.fluentjdbc.opt.flow.DatabaseResultPublisher}
+     */
+    public DatabaseStatement getDatabaseStatement() {
+        return statement;
+    }
+
+    @Override
+    public DbContext getDbContext() {
+        return dbContext;
     }
 }
@@ -109,16 +109,18 @@ public class DbContextSyncBuilder<T>  {
         });
         this.ourRows = ourRows;
 
-        Map<List<Object>, List<Object>> theirRows = new HashMap<>();
-        theirObjects.forEach(entity -> {
-            List<Object> keys = uniqueValueFunctions.stream()
-                    .map(function -> DatabaseStatement.toDatabaseType(function.apply(entity), table.getConnection()))
-                    .collect(Collectors.toList());
-            theirRows.put(keys, updatedValueFunctions.stream()
-                    .map(function -> DatabaseStatement.toDatabaseType(function.apply(entity), table.getConnection()))
-                    .collect(Collectors.toList()));
+        this.theirRows = table.getDbContext().withConnection(connection -> {
+            Map<List<Object>, List<Object>> theirRows = new HashMap<>();
+            theirObjects.forEach(entity -> {
+                List<Object> keys = uniqueValueFunctions.stream()
+                        .map(function -> DatabaseStatement.toDatabaseType(function.apply(entity), connection))
+                        .collect(Collectors.toList());
+                theirRows.put(keys, updatedValueFunctions.stream()
+                        .map(function -> DatabaseStatement.toDatabaseType(function.apply(entity), connection))
+                        .collect(Collectors.toList()));
+            });
+            return theirRows;
         });
-        this.theirRows = theirRows;
         isCached = true;
 
         return this;
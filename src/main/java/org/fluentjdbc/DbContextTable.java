@@ -4,7 +4,9 @@ import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -93,7 +95,7 @@ public class DbContextTable implements DatabaseQueryable<DbContextTableQueryBuil
     /**
      * Creates a {@link DbContextSaveBuilder} which creates a <code>INSERT</code> or <code>UPDATE</code>
      * statement, depending on whether the row already exists in the database.
-     * Generates UUID.randomUUID if idValue is null and row with matching unique keys does not already exist
+     * Generates a UUID with the {@link DatabaseUUIDGenerator} of the table if idValue is null and row with matching unique keys does not already exist
      */
     public DbContextSaveBuilder<UUID> newSaveBuilderWithUUID(String field, UUID uuid) {
         return save(table.newSaveBuilderWithUUID(field, uuid));
@@ -142,6 +144,50 @@ public class DbContextTable implements DatabaseQueryable<DbContextTableQueryBuil
         return new DbContextTableQueryBuilder(this);
     }
 
+    /**
+     * Returns the rows where foreignKey is one of keys, grouped by key, using as few
+     * <code>IN (...)</code> queries as the database allows. Example:
+     * <pre>
+     *     List&lt;Order&gt; orders = orderTable.where("customer_id", customerId).list(Order::new);
+     *     Map&lt;Long, List&lt;OrderLine&gt;&gt; lines = orderLineTable.prefetch("order_id", orders.stream().map(Order::getId).collect(toList()), OrderLine::new);
+     *     orders.forEach(order -&gt; order.setLines(lines.get(order.getId())));
+     * </pre>
+     *
+     * @see DatabaseTableQueryBuilder#prefetch
+     */
+    @CheckReturnValue
+    public <K, V> Map<K, List<V>> prefetch(String foreignKey, Collection<K> keys, DatabaseResult.RowMapper<V> mapper) {
+        return query().prefetch(foreignKey, keys, mapper);
+    }
+
+    /**
+     * Returns the rows where fieldName is one of values, splitting the values into several
+     * queries if there are more than the database allows in one statement. Example:
+     * <pre>
+     *     List&lt;Order&gt; orders = orderTable.listWhereIn("id", orderIds, Order::new);
+     * </pre>
+     *
+     * @see DatabaseTableQueryBuilder#listWhereIn
+     */
+    @CheckReturnValue
+    public <T> List<T> listWhereIn(String fieldName, Collection<?> values, DatabaseResult.RowMapper<T> mapper) {
+        return query().listWhereIn(fieldName, values, mapper);
+    }
+
+    /**
+     * Returns the rows where the columns equal one of the tuples, such as the rows for a list of
+     * composite keys, instead of one query per key. Example:
+     * <pre>
+     *     List&lt;Stock&gt; stock = stockTable.listByKeys(Arrays.asList("warehouse_id", "product_id"), keys, Stock::new);
+     * </pre>
+     *
+     * @see DatabaseTableQueryBuilder#listByKeys
+     */
+    @CheckReturnValue
+    public <T> List<T> listByKeys(List<String> columns, Collection<? extends List<?>> tuples, DatabaseResult.RowMapper<T> mapper) {
+        return query().listByKeys(columns, tuples, mapper);
+    }
+
     /**
      * Creates a {@link DbContextSyncBuilder} which allows you to synchronize the data in the
      * table with an external source
@@ -2,8 +2,11 @@ package org.fluentjdbc;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
-import java.sql.Connection;
+import javax.annotation.Nullable;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 /**
@@ -115,6 +118,99 @@ public class DbContextTableQueryBuilder implements DbContextListableSelect<DbCon
         return new DbContextSelectBuilder(dbContextTable.getDbContext(), builder.skipAndLimit(offset, rowCount));
     }
 
+    /**
+     * Loads the rows where foreignKey is one of keys in as few <code>IN (...)</code> queries as the
+     * database allows, and returns the mapped rows for each key. Example:
+     * <pre>
+     *     Map&lt;Long, List&lt;OrderLine&gt;&gt; lines = orderLineTable.query().orderBy("line_number")
+     *          .prefetch("order_id", orderIds, OrderLine::new);
+     * </pre>
+     *
+     * @see DatabaseTableQueryBuilder#prefetch
+     */
+    @CheckReturnValue
+    public <K, V> Map<K, List<V>> prefetch(String foreignKey, Collection<K> keys, DatabaseResult.RowMapper<V> mapper) {
+        return dbContextTable.getDbContext().withConnection(connection -> builder.prefetch(connection, foreignKey, keys, mapper));
+    }
+
+    /**
+     * Returns the rows where fieldName is one of values, with one query per chunk of values if
+     * they don't fit in one statement
+     *
+     * @see DatabaseTableQueryBuilder#listWhereIn
+     */
+    @CheckReturnValue
+    public <T> List<T> listWhereIn(String fieldName, Collection<?> values, DatabaseResult.RowMapper<T> mapper) {
+        return dbContextTable.getDbContext().withConnection(connection -> builder.listWhereIn(connection, fieldName, values, mapper));
+    }
+
+    /**
+     * Returns the rows where the columns equal one of the tuples, such as the rows for a list of
+     * composite keys. Uses one query with <code>(a, b) IN ((?, ?), ...)</code> where possible and
+     * a temporary table for large lists of keys
+     *
+     * @see DatabaseTableQueryBuilder#listByKeys
+     */
+    @CheckReturnValue
+    public <T> List<T> listByKeys(List<String> columns, Collection<? extends List<?>> tuples, DatabaseResult.RowMapper<T> mapper) {
+        return dbContextTable.getDbContext().withConnection(connection -> builder.listByKeys(connection, columns, tuples, mapper));
+    }
+
+    /**
+     * Splits the query into partitions on the integer keyColumn, which are read with separate
+     * connections as a parallel {@link Stream}. Example:
+     * <pre>
+     *     try (Stream&lt;Order&gt; orders = table.where("status", status).partitioned("id", 8).stream(Order::new)) {
+     *         orders.forEach(exporter::write);
+     *     }
+     * </pre>
+     *
+     * @see DbContextPartitionedScanBuilder
+     */
+    @CheckReturnValue
+    public DbContextPartitionedScanBuilder partitioned(String keyColumn, int partitions) {
+        return new DbContextPartitionedScanBuilder(this, keyColumn, partitions);
+    }
+
+    /**
+     * Returns the rows from offset to offset + limit together with the total number of rows matched
+     * by the query, using <code>count(*) over ()</code> where supported. See
+     * {@link DatabaseSelectBuilder#listWithTotal}
+     */
+    @CheckReturnValue
+    public <T> DatabasePage<T> listWithTotal(int offset, int limit, DatabaseResult.RowMapper<T> mapper) {
+        return dbContextTable.getDbContext().withConnection(connection -> builder.listWithTotal(connection, offset, limit, mapper));
+    }
+
+    /**
+     * Restricts the query to rows after lastValues when ordered by orderColumns, to fetch the next
+     * page of a keyset (seek) pagination. See {@link DatabaseSelectBuilder#seekAfter(List, List)}
+     */
+    @CheckReturnValue
+    public DbContextSelectBuilder seekAfter(List<String> orderColumns, @Nullable List<?> lastValues) {
+        return new DbContextSelectBuilder(dbContextTable.getDbContext(), builder.seekAfter(orderColumns, lastValues));
+    }
+
+    /**
+     * Returns all rows of the query as pages of at most pageSize rows ordered by keyColumns, where
+     * each page is fetched with {@link DatabaseSelectBuilder#seekAfter} from the last row of the
+     * previous page. Each page is fetched with a separate call to the database, so the connection
+     * is only held while a page is read. The keyColumns must identify a row uniquely. Example:
+     * <pre>
+     *     table.where("status", status)
+     *          .pages(Arrays.asList("created_at", "id"), 1000, row -&gt; row.getUUID("id"))
+     *          .forEach(ids -&gt; process(ids));
+     * </pre>
+     */
+    @CheckReturnValue
+    public <T> Stream<List<T>> pages(List<String> keyColumns, int pageSize, DatabaseResult.RowMapper<T> mapper) {
+        DbContext dbContext = dbContextTable.getDbContext();
+        return new DatabaseKeysetIterator<>(
+                builder::createSelectBuilder, keyColumns, pageSize, dbContext.withConnection(DatabaseDialect::fromConnection), mapper,
+                (select, keyMapper) -> dbContext.withConnection(connection -> select.list(connection, keyMapper))
+        ).stream();
+    }
+
     /**
      * Execute the query and map each return value over the {@link DatabaseResult.RowMapper} function to return a stream. Example:
      * <pre>
@@ -123,7 +219,7 @@ public class DbContextTableQueryBuilder implements DbContextListableSelect<DbCon
      */
     @Override
     public <OBJECT> Stream<OBJECT> stream(DatabaseResult.RowMapper<OBJECT> mapper) {
-        return builder.stream(getConnection(), mapper);
+        return dbContextTable.getDbContext().withConnectionStream(connection -> builder.stream(connection, mapper));
     }
 
     /**
@@ -134,15 +230,29 @@ public class DbContextTableQueryBuilder implements DbContextListableSelect<DbCon
      */
     @Override
     public <OBJECT> List<OBJECT> list(DatabaseResult.RowMapper<OBJECT> mapper) {
-        return builder.list(getConnection(), mapper);
+        return dbContextTable.getDbContext().withConnection(connection -> builder.list(connection, mapper));
     }
 
     /**
      * Executes <code>SELECT count(*) FROM ...</code> on the query and returns the result
      */
+    /**
+     * Returns the {@link DatabaseStatement} which executes this query, for example for use with
+     * {@link org.fluentjdbc.opt.flow.DatabaseResultPublisher}
+     */
+    @CheckReturnValue
+    public DatabaseStatement getDatabaseStatement() {
+        return builder.createSelectBuilder().getDatabaseStatement();
+    }
+
+    @Override
+    public DbContext getDbContext() {
+        return dbContextTable.getDbContext();
+    }
+
     @Override
     public int getCount() {
-        return builder.getCount(getConnection());
+        return dbContextTable.getDbContext().withConnection(builder::getCount);
     }
 
     /**
@@ -156,7 +266,7 @@ public class DbContextTableQueryBuilder implements DbContextListableSelect<DbCon
     @Nonnull
     @Override
     public <OBJECT> SingleRow<OBJECT> singleObject(DatabaseResult.RowMapper<OBJECT> mapper) {
-        return builder.singleObject(getConnection(), mapper);
+        return dbContextTable.getDbContext().withConnection(connection -> builder.singleObject(connection, mapper));
     }
 
     /**
@@ -168,7 +278,7 @@ public class DbContextTableQueryBuilder implements DbContextListableSelect<DbCon
     @Nonnull
     @Override
     public SingleRow<String> singleString(String fieldName) {
-        return builder.singleString(getConnection(), fieldName);
+        return dbContextTable.getDbContext().withConnection(connection -> builder.singleString(connection, fieldName));
     }
 
     /**
@@ -177,14 +287,31 @@ public class DbContextTableQueryBuilder implements DbContextListableSelect<DbCon
      */
     @Override
     public void forEach(DatabaseResult.RowConsumer consumer) {
-        builder.forEach(getConnection(), consumer);
+        dbContextTable.getDbContext().withConnection(connection -> {
+            builder.forEach(connection, consumer);
+            return null;
+        });
     }
 
     /**
-     * Executes <code>DELETE FROM tableName WHERE ....</code>
+     * Executes the <code>SELECT * FROM ...</code> statement and reads the result into the columns
+     * of batch, calling consumer for each full batch
+     *
+     * @see DatabaseColumnBatch
+     */
+    public void forEachBatch(DatabaseColumnBatch batch, Consumer<DatabaseColumnBatch> consumer) {
+        dbContextTable.getDbContext().withConnection(connection -> {
+            builder.forEachBatch(connection, batch, consumer);
+            return null;
+        });
+    }
+
+    /**
+     * Executes <code>DELETE FROM tableName WHERE ....</code>. Inside {@link DbContext#batch(Runnable)},
+     * the statement is queued instead
      */
     public int executeDelete() {
-        return builder.delete(getConnection());
+        return dbContextTable.getDbContext().executeUpdate(builder.createDeleteBuilder().createStatement());
     }
 
     /**
@@ -199,9 +326,4 @@ public class DbContextTableQueryBuilder implements DbContextListableSelect<DbCon
     public DbContextInsertOrUpdateBuilder insertOrUpdate() {
         return new DbContextInsertOrUpdateBuilder(this.dbContextTable, builder.insertOrUpdate());
     }
-
-    @CheckReturnValue
-    private Connection getConnection() {
-        return dbContextTable.getConnection();
-    }
 }
@@ -3,6 +3,7 @@ package org.fluentjdbc;
 import javax.annotation.CheckReturnValue;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Generate <code>UPDATE</code> insert statements by collecting field names and parameters. Support
@@ -62,10 +63,20 @@ public class DbContextUpdateBuilder implements DatabaseUpdatable<DbContextUpdate
     }
 
     /**
-     * Will execute the UPDATE statement to the database
+     * Will execute the UPDATE statement to the database. Inside {@link DbContext#batch(Runnable)},
+     * the statement is queued instead
      */
     public int execute() {
-        return builder.execute(table.getConnection());
+        DatabaseStatement statement = builder.createStatement();
+        return statement != null ? table.getDbContext().executeUpdate(statement) : 0;
+    }
+
+    /**
+     * Like {@link #execute()}, but executes the statement asynchronously with a separate
+     * connection using {@link DbContext#async(java.util.function.Supplier)}
+     */
+    public CompletableFuture<Integer> executeAsync() {
+        return table.getDbContext().async(this::execute);
     }
 
     private DbContextUpdateBuilder build(DatabaseUpdateBuilder builder) {
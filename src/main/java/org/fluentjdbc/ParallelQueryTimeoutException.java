@@ -0,0 +1,22 @@
+package org.fluentjdbc;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Thrown from {@link DbContextParallelBuilder#execute()} when the queries didn't complete
+ * within the {@link DbContextParallelBuilder#timeout(Duration)}. The cause is a {@link TimeoutException}
+ */
+public class ParallelQueryTimeoutException extends RuntimeException {
+
+    private final Duration timeout;
+
+    public ParallelQueryTimeoutException(Duration timeout) {
+        super("Parallel queries did not complete within " + timeout, new TimeoutException());
+        this.timeout = timeout;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
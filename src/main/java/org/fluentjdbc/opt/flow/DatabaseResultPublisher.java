@@ -0,0 +1,226 @@
+package org.fluentjdbc.opt.flow;
+
+import org.fluentjdbc.DatabaseResult;
+import org.fluentjdbc.DatabaseStatement;
+import org.fluentjdbc.DbContext;
+import org.fluentjdbc.util.ExceptionUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * A {@link Flow.Publisher} which executes a {@link DatabaseStatement} for each subscriber and publishes
+ * the mapped rows as the subscriber requests them. Each subscription uses its own connection from
+ * the {@link DbContext.ConnectionSupplier}, with auto-commit turned off so that databases like
+ * PostgreSQL use a cursor, and fetches rows from the {@link java.sql.ResultSet} in chunks of
+ * {@link #fetchSize(int)}. Rows are only read when there is outstanding demand, so a slow subscriber
+ * doesn't cause the result to be buffered in memory. The cursor and connection are released when
+ * the result is exhausted, when the query fails or when the subscription is cancelled.
+ *
+ * <p>Signals to the subscriber are delivered from the {@link Executor}, one task at a time.
+ * Requires Java 9 or later.</p>
+ *
+ * <p>Example:</p>
+ * <pre>
+ * Flow.Publisher&lt;Order&gt; orders = DatabaseResultPublisher.publish(
+ *      dbContext, orderTable.where("status", "open").getDatabaseStatement(), Order::fromRow
+ * );
+ * </pre>
+ */
+@ParametersAreNonnullByDefault
+public class DatabaseResultPublisher<T> implements Flow.Publisher<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseResultPublisher.class);
+
+    private final DbContext.ConnectionSupplier connectionSupplier;
+    private final DatabaseStatement statement;
+    private final DatabaseResult.RowMapper<T> mapper;
+    private final Executor executor;
+    private int fetchSize = 100;
+
+    public DatabaseResultPublisher(DbContext.ConnectionSupplier connectionSupplier, DatabaseStatement statement, DatabaseResult.RowMapper<T> mapper, Executor executor) {
+        this.connectionSupplier = connectionSupplier;
+        this.statement = statement;
+        this.mapper = mapper;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates a {@link DatabaseResultPublisher} which uses the {@link DbContext.ConnectionSupplier} of the
+     * current thread and {@link DbContext#getExecutor()}
+     *
+     * @throws IllegalStateException if called inside {@link DbContext#ensureTransaction()}
+     */
+    @CheckReturnValue
+    public static <T> DatabaseResultPublisher<T> publish(DbContext dbContext, DatabaseStatement statement, DatabaseResult.RowMapper<T> mapper) {
+        return new DatabaseResultPublisher<>(dbContext.captureContext().getConnectionSupplier(), statement, mapper, dbContext.getExecutor());
+    }
+
+    /**
+     * Sets the number of rows to fetch from the database at a time. Defaults to 100
+     */
+    @CheckReturnValue
+    public DatabaseResultPublisher<T> fetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+        return this;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "subscriber");
+        subscriber.onSubscribe(new ResultSubscription(subscriber));
+    }
+
+    private class ResultSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super T> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+        private final AtomicInteger pendingDrains = new AtomicInteger();
+        private volatile boolean cancelled = false;
+        private volatile RuntimeException error;
+
+        // Only accessed from drain(), which never runs concurrently
+        private boolean done = false;
+        private Connection connection;
+        private boolean autoCommit;
+        private Stream<T> rows;
+        private Iterator<T> iterator;
+
+        private ResultSubscription(Flow.Subscriber<? super T> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("Subscription.request must be positive, was " + n);
+            } else {
+                requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            scheduleDrain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (pendingDrains.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RuntimeException e) {
+                    // pendingDrains is still held, so no other drain can run while this thread cleans up
+                    error = e;
+                    drain();
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                if (!done) {
+                    emitRequestedRows();
+                }
+                missed = pendingDrains.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emitRequestedRows() {
+            try {
+                if (cancelled) {
+                    complete();
+                    return;
+                }
+                if (error != null) {
+                    complete();
+                    subscriber.onError(error);
+                    return;
+                }
+                long demand = requested.get();
+                if (demand == 0) {
+                    return;
+                }
+                if (iterator == null) {
+                    open();
+                }
+                long emitted = 0;
+                while (emitted != demand) {
+                    if (cancelled) {
+                        complete();
+                        return;
+                    }
+                    if (!iterator.hasNext()) {
+                        complete();
+                        subscriber.onComplete();
+                        return;
+                    }
+                    subscriber.onNext(iterator.next());
+                    emitted++;
+                }
+                if (demand != Long.MAX_VALUE) {
+                    requested.addAndGet(-emitted);
+                }
+            } catch (Exception e) {
+                complete();
+                subscriber.onError(e);
+            }
+        }
+
+        private void open() {
+            try {
+                connection = connectionSupplier.getConnection();
+                autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+            } catch (SQLException e) {
+                throw ExceptionUtil.softenCheckedException(e);
+            }
+            rows = statement.stream(connection, mapper, fetchSize);
+            iterator = rows.iterator();
+        }
+
+        private void complete() {
+            done = true;
+            release();
+        }
+
+        private void release() {
+            if (rows != null) {
+                try {
+                    rows.close();
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to close result of {}", statement.getStatement(), e);
+                }
+                rows = null;
+            }
+            if (connection != null) {
+                try {
+                    connection.rollback();
+                    connection.setAutoCommit(autoCommit);
+                } catch (SQLException e) {
+                    logger.warn("Failed to reset connection for {}", statement.getStatement(), e);
+                } finally {
+                    try {
+                        connection.close();
+                    } catch (SQLException e) {
+                        logger.warn("Failed to close connection for {}", statement.getStatement(), e);
+                    }
+                    connection = null;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.fluentjdbc.opt.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Emitted by {@link FlightRecorderReporter} when a {@link org.fluentjdbc.DbContext} acquires or
+ * releases a connection
+ */
+@Name("org.fluentjdbc.Connection")
+@Label("Database Connection")
+@Category({"fluent-jdbc"})
+@StackTrace(false)
+class DatabaseConnectionEvent extends Event {
+
+    @Label("Action")
+    String action;
+
+    @Label("Acquire Time")
+    @Timespan
+    long acquireTime;
+
+    @Label("Held Time")
+    @Timespan
+    long heldTime;
+
+    @Label("Statements")
+    @Description("The number of statements executed while the connection was held")
+    int statementCount;
+}
@@ -0,0 +1,62 @@
+package org.fluentjdbc.opt.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Emitted by {@link FlightRecorderReporter} for each statement, from the statement is prepared until
+ * the statement or result is closed
+ */
+@Name("org.fluentjdbc.Statement")
+@Label("Database Statement")
+@Category({"fluent-jdbc"})
+@Description("A SQL statement executed with fluent-jdbc")
+@StackTrace
+class DatabaseStatementEvent extends Event {
+
+    @Label("Table")
+    String table;
+
+    @Label("Operation")
+    String operation;
+
+    @Label("SQL")
+    @Description("The parameterized SQL statement")
+    String sql;
+
+    @Label("Prepare Time")
+    @Timespan
+    long prepareTime;
+
+    @Label("Bind Time")
+    @Timespan
+    long bindTime;
+
+    @Label("Execute Time")
+    @Timespan
+    long executeTime;
+
+    @Label("Fetch Time")
+    @Timespan
+    long fetchTime;
+
+    @Label("Rows Fetched")
+    int rowCount;
+
+    @Label("Estimated Bytes")
+    @DataAmount
+    long estimatedBytes;
+
+    @Label("Update Count")
+    @Description("Rows affected by an update, or -1 for queries")
+    int updateCount;
+
+    @Label("Batch Size")
+    int batchSize;
+}
@@ -0,0 +1,26 @@
+package org.fluentjdbc.opt.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Emitted by {@link FlightRecorderReporter} when a {@link org.fluentjdbc.DbContext} transaction
+ * is committed or rolled back
+ */
+@Name("org.fluentjdbc.Transaction")
+@Label("Database Transaction End")
+@Category({"fluent-jdbc"})
+@StackTrace(false)
+class DatabaseTransactionEvent extends Event {
+
+    @Label("Commit")
+    boolean commit;
+
+    @Label("Completion Time")
+    @Timespan
+    long completionTime;
+}
@@ -0,0 +1,165 @@
+package org.fluentjdbc.opt.jfr;
+
+import org.fluentjdbc.DatabaseConnectionReporter;
+import org.fluentjdbc.DatabaseQueryExecution;
+import org.fluentjdbc.DatabaseReporter;
+import org.fluentjdbc.DatabaseStatement;
+import org.fluentjdbc.DatabaseTableOperationReporter;
+import org.fluentjdbc.DatabaseTableReporter;
+import org.fluentjdbc.DatabaseTransactionReporter;
+
+import javax.annotation.Nonnull;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+/**
+ * Emits Java Flight Recorder events for statements, transactions and connections, so the time
+ * spent in the database can be matched with CPU and allocation profiles in the same recording.
+ * Statement events span from the statement is prepared until the statement or result is closed
+ * and include table, operation, the parameterized SQL, phase timings and row counts. Bulk
+ * operations are reported as one event with the batch size. When the events are not enabled in
+ * the recording, the reporter does nothing.
+ *
+ * <p>Requires Java 11 or later (or a Java 8 runtime which includes JFR). Example:</p>
+ *
+ * <pre>
+ * FlightRecorderReporter reporter = new FlightRecorderReporter();
+ * DbContext dbContext = new DbContext(new DatabaseStatementFactory(reporter), reporter);
+ * dbContext.setConnectionReporter(reporter);
+ * </pre>
+ *
+ * <p>To keep other reporting, pass the existing reporters to
+ * {@link #FlightRecorderReporter(DatabaseReporter, DatabaseTransactionReporter, DatabaseConnectionReporter)}.</p>
+ */
+@ParametersAreNonnullByDefault
+public class FlightRecorderReporter implements DatabaseReporter, DatabaseTransactionReporter, DatabaseConnectionReporter {
+
+    private final DatabaseReporter reporter;
+    private final DatabaseTransactionReporter transactionReporter;
+    private final DatabaseConnectionReporter connectionReporter;
+
+    public FlightRecorderReporter() {
+        this(DatabaseReporter.LOGGING_REPORTER, DatabaseTransactionReporter.LOGGING_REPORTER, DatabaseConnectionReporter.LOGGING_REPORTER);
+    }
+
+    /**
+     * Emits events in addition to calling the specified reporters
+     */
+    public FlightRecorderReporter(DatabaseReporter reporter, DatabaseTransactionReporter transactionReporter, DatabaseConnectionReporter connectionReporter) {
+        this.reporter = reporter;
+        this.transactionReporter = transactionReporter;
+        this.connectionReporter = connectionReporter;
+    }
+
+    @Nonnull
+    @Override
+    public DatabaseTableReporter table(String tableName) {
+        DatabaseTableReporter tableReporter = reporter.table(tableName);
+        return operation -> new StatementReporter(tableName, operation, tableReporter.operation(operation));
+    }
+
+    @Override
+    public void logCommitNanos(long nanos) {
+        transactionReporter.logCommitNanos(nanos);
+        emitTransaction(true, nanos);
+    }
+
+    @Override
+    public void logRollbackNanos(long nanos) {
+        transactionReporter.logRollbackNanos(nanos);
+        emitTransaction(false, nanos);
+    }
+
+    @Override
+    public void doLog(boolean commit, long timing) {
+        transactionReporter.doLog(commit, timing);
+    }
+
+    @Override
+    public void connectionAcquired(long acquireNanos) {
+        connectionReporter.connectionAcquired(acquireNanos);
+        DatabaseConnectionEvent event = new DatabaseConnectionEvent();
+        if (event.shouldCommit()) {
+            event.action = "acquire";
+            event.acquireTime = acquireNanos;
+            event.commit();
+        }
+    }
+
+    @Override
+    public void connectionReleased(long heldNanos) {
+        connectionReleased(heldNanos, 0);
+    }
+
+    @Override
+    public void connectionReleased(long heldNanos, int statementCount) {
+        connectionReporter.connectionReleased(heldNanos, statementCount);
+        DatabaseConnectionEvent event = new DatabaseConnectionEvent();
+        if (event.shouldCommit()) {
+            event.action = "release";
+            event.heldTime = heldNanos;
+            event.statementCount = statementCount;
+            event.commit();
+        }
+    }
+
+    private void emitTransaction(boolean commit, long nanos) {
+        DatabaseTransactionEvent event = new DatabaseTransactionEvent();
+        if (event.shouldCommit()) {
+            event.commit = commit;
+            event.completionTime = nanos;
+            event.commit();
+        }
+    }
+
+    private class StatementReporter implements DatabaseTableOperationReporter {
+        private final String tableName;
+        private final String operation;
+        private final DatabaseTableOperationReporter delegate;
+
+        StatementReporter(String tableName, String operation, DatabaseTableOperationReporter delegate) {
+            this.tableName = tableName;
+            this.operation = operation;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void startQuery(DatabaseStatement query, DatabaseQueryExecution execution) {
+            delegate.startQuery(query, execution);
+            DatabaseStatementEvent event = new DatabaseStatementEvent();
+            if (event.isEnabled()) {
+                event.begin();
+                execution.setAttachment(DatabaseStatementEvent.class, event);
+            }
+        }
+
+        @Override
+        public void reportQuery(DatabaseStatement query, long timing) {
+            delegate.reportQuery(query, timing);
+        }
+
+        @Override
+        public void reportQuery(DatabaseStatement query, DatabaseQueryExecution execution) {
+            delegate.reportQuery(query, execution);
+            DatabaseStatementEvent event = execution.getAttachment(DatabaseStatementEvent.class);
+            if (event == null) {
+                return;
+            }
+            execution.setAttachment(DatabaseStatementEvent.class, null);
+            event.end();
+            if (event.shouldCommit()) {
+                event.table = tableName;
+                event.operation = operation;
+                event.sql = query.getStatement();
+                event.prepareTime = execution.getPrepareNanos();
+                event.bindTime = execution.getBindNanos();
+                event.executeTime = execution.getExecuteNanos();
+                event.fetchTime = execution.getFetchNanos();
+                event.rowCount = execution.getRowCount();
+                event.estimatedBytes = execution.getEstimatedBytes();
+                event.updateCount = execution.getUpdateCount();
+                event.batchSize = execution.getBatchSize();
+                event.commit();
+            }
+        }
+    }
+}
@@ -10,9 +10,12 @@ import org.junit.runner.Description;
 import org.junit.runners.model.Statement;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
 
 public class DbContextRule extends DbContext implements TestRule {
     protected final DataSource dataSource;
+    private final List<String> repeatedQueries = new ArrayList<>();
 
     public DbContextRule(DataSource dataSource) {
         this(dataSource, new DatabaseStatementFactory(DatabaseReporter.LOGGING_REPORTER), DatabaseTransactionReporter.LOGGING_REPORTER);
@@ -23,14 +26,30 @@ public class DbContextRule extends DbContext implements TestRule {
         this.dataSource = dataSource;
     }
 
+    /**
+     * Fails the test if the same statement is executed more than maxExecutions times during the
+     * test, listing each repeated statement and where it was executed from
+     *
+     * @see #setRepeatedQueryThreshold(int, RepeatedQueryHandler)
+     */
+    public DbContextRule failOnRepeatedQueries(int maxExecutions) {
+        setRepeatedQueryThreshold(maxExecutions, (statement, executions, callSite) ->
+                repeatedQueries.add("executed more than " + maxExecutions + " times at " + callSite + ": " + statement));
+        return this;
+    }
+
     @Override
     public Statement apply(Statement statement, Description description) {
         return new Statement() {
             @Override
             public void evaluate() throws Throwable {
+                repeatedQueries.clear();
                 try (DbContextConnection ignored = startConnection(dataSource)) {
                     statement.evaluate();
                 }
+                if (!repeatedQueries.isEmpty()) {
+                    throw new AssertionError("Repeated queries (N+1):\n" + String.join("\n", repeatedQueries));
+                }
             }
         };
     }
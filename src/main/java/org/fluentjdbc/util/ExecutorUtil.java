@@ -0,0 +1,58 @@
+package org.fluentjdbc.util;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@ParametersAreNonnullByDefault
+public class ExecutorUtil {
+
+    /**
+     * Returns an {@link ExecutorService} which runs each task on its own thread. On Java 21 and later,
+     * the tasks run on virtual threads, which makes it cheap to block while waiting for the database.
+     * On earlier versions, a cached pool of daemon threads named <code>threadNamePrefix-N</code> is used
+     */
+    public static ExecutorService newTaskExecutor(String threadNamePrefix) {
+        ExecutorService virtualThreadExecutor = newVirtualThreadPerTaskExecutor();
+        if (virtualThreadExecutor != null) {
+            return virtualThreadExecutor;
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return Executors.newCachedThreadPool(threadFactory);
+    }
+
+    /**
+     * Returns true if the current Java version supports virtual threads
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return getVirtualThreadExecutorFactory() != null;
+    }
+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        Method factory = getVirtualThreadExecutorFactory();
+        if (factory == null) {
+            return null;
+        }
+        try {
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static Method getVirtualThreadExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.fluentjdbc.opt.junit.DbContextRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DatabaseMetricsReporterTest {
+
+    private final DataSource dataSource = H2TestDatabase.createDataSource();
+
+    private final DatabaseMetricsReporter metrics = new DatabaseMetricsReporter();
+
+    @Rule
+    public final DbContextRule dbContext = new DbContextRule(
+            dataSource, new DatabaseStatementFactory(metrics), DatabaseTransactionReporter.LOGGING_REPORTER
+    );
+
+    private final DbContextTable table = dbContext.table("metrics_table");
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "metrics_table");
+            createTable(connection, "create table metrics_table (id ${INTEGER_PK}, code integer not null, name varchar(50) null)", H2TestDatabase.REPLACEMENTS);
+        }
+    }
+
+    @Test
+    public void shouldCountOperationsPerTable() {
+        table.insert().setField("code", 1).setField("name", "one").execute();
+        table.insert().setField("code", 2).setField("name", "two").execute();
+        assertThat(table.query().listStrings("name")).hasSize(2);
+
+        SortedMap<String, DatabaseLatencySnapshot> snapshot = metrics.snapshot();
+        assertThat(snapshot).containsOnlyKeys("metrics_table/INSERT", "metrics_table/SELECT");
+        assertThat(snapshot.get("metrics_table/INSERT").getCount()).isEqualTo(2);
+        assertThat(snapshot.get("metrics_table/SELECT").getCount()).isEqualTo(1);
+        assertThat(snapshot.get("metrics_table/SELECT").getMaxNanos()).isPositive();
+        assertThat(metrics.getHistogram("metrics_table", "SELECT")).isNotNull();
+        assertThat(metrics.getHistogram("metrics_table", "DELETE")).isNull();
+    }
+
+    @Test
+    public void shouldResetAfterSnapshot() {
+        table.insert().setField("code", 1).setField("name", "one").execute();
+        assertThat(metrics.snapshotAndReset().get("metrics_table/INSERT").getCount()).isEqualTo(1);
+        assertThat(metrics.snapshot().get("metrics_table/INSERT").getCount()).isZero();
+
+        table.insert().setField("code", 2).setField("name", "two").execute();
+        metrics.reset();
+        DatabaseLatencySnapshot snapshot = metrics.snapshot().get("metrics_table/INSERT");
+        assertThat(snapshot.getCount()).isZero();
+        assertThat(snapshot.getMaxNanos()).isZero();
+        assertThat(snapshot.getP99Nanos()).isZero();
+    }
+
+    @Test
+    public void shouldCalculatePercentiles() {
+        DatabaseLatencyHistogram histogram = new DatabaseLatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        DatabaseLatencySnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(1000);
+        assertThat(snapshot.getMeanNanos()).isEqualTo(500_500);
+        assertThat(snapshot.getMaxNanos()).isEqualTo(1_000_000);
+        assertThat((double) snapshot.getP50Nanos()).isCloseTo(500_000, within(500_000 * 0.125));
+        assertThat((double) snapshot.getP99Nanos()).isCloseTo(990_000, within(990_000 * 0.125));
+        assertThat(snapshot.getP999Nanos()).isLessThanOrEqualTo(snapshot.getMaxNanos());
+        assertThat(snapshot.getPercentileNanos(1)).isEqualTo(1_000_000);
+        assertThat(snapshot.getPercentileNanos(0)).isEqualTo(1023);
+    }
+
+    @Test
+    public void shouldCoverRangeWithContiguousBuckets() {
+        for (int i = 0; i < DatabaseLatencyHistogram.BUCKET_COUNT - 1; i++) {
+            long lower = DatabaseLatencyHistogram.bucketLowerBound(i);
+            long upper = DatabaseLatencyHistogram.bucketUpperBound(i);
+            assertThat(DatabaseLatencyHistogram.bucketIndex(lower)).isEqualTo(i);
+            assertThat(DatabaseLatencyHistogram.bucketIndex(upper)).isEqualTo(i);
+            assertThat(upper - lower).isLessThanOrEqualTo(Math.max(0, lower / DatabaseLatencyHistogram.SUB_BUCKETS));
+        }
+        assertThat(DatabaseLatencyHistogram.bucketIndex(DatabaseLatencyHistogram.MAX_TRACKABLE_NANOS))
+                .isEqualTo(DatabaseLatencyHistogram.BUCKET_COUNT - 1);
+
+        DatabaseLatencyHistogram histogram = new DatabaseLatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        histogram.record(-5);
+        assertThat(histogram.snapshot().getCount()).isEqualTo(2);
+        assertThat(histogram.snapshot().getP999Nanos()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void shouldRecordConcurrently() throws Exception {
+        DatabaseTableOperationReporter reporter = metrics.table("concurrent").operation("SELECT");
+        DatabaseStatement statement = new DatabaseStatement("concurrent", "select * from concurrent", new ArrayList<>(), reporter);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        reporter.reportQuery(statement, i % 100);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        DatabaseLatencySnapshot snapshot = metrics.snapshot().get("concurrent/SELECT");
+        assertThat(snapshot.getCount()).isEqualTo(80_000);
+        assertThat(snapshot.getMaxNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(99));
+    }
+}
@@ -0,0 +1,181 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.fluentjdbc.opt.junit.DbContextRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DatabaseQueryExecutionReporterTest {
+
+    @Rule
+    public final DbContextRule dbContext;
+
+    private final DataSource dataSource;
+
+    private final DbContextTable table;
+
+    private final Map<String, String> replacements;
+    private final Map<String, List<DatabaseQueryExecution>> executions = new HashMap<>();
+    private final List<String> transactionTimings = new ArrayList<>();
+    private final List<Long> transactionNanos = new ArrayList<>();
+    private final List<String> largeResults = new ArrayList<>();
+    private final DatabaseStatementFactory factory;
+
+    public DatabaseQueryExecutionReporterTest() {
+        this(H2TestDatabase.createDataSource(), H2TestDatabase.REPLACEMENTS);
+    }
+
+    protected DatabaseQueryExecutionReporterTest(DataSource dataSource, Map<String, String> replacements) {
+        this.factory = new DatabaseStatementFactory(tableName -> operation -> new DatabaseTableOperationReporter() {
+            @Override
+            public void reportQuery(DatabaseStatement query, long timing) {
+            }
+
+            @Override
+            public void reportQuery(DatabaseStatement query, DatabaseQueryExecution execution) {
+                executions.computeIfAbsent(tableName + "/" + operation, key -> new ArrayList<>()).add(execution);
+            }
+        });
+        this.dbContext = new DbContextRule(dataSource, factory, new DatabaseTransactionReporter() {
+            @Override
+            public void logCommitNanos(long nanos) {
+                transactionTimings.add("commit");
+                transactionNanos.add(nanos);
+            }
+
+            @Override
+            public void logRollbackNanos(long nanos) {
+                transactionTimings.add("rollback");
+                transactionNanos.add(nanos);
+            }
+
+            @Override
+            public void doLog(boolean commit, long timing) {
+                transactionTimings.add("millis");
+            }
+        });
+        this.dataSource = dataSource;
+        this.table = dbContext.table("unique_table_name");
+        this.replacements = replacements;
+    }
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "unique_table_name");
+            createTable(connection, "create table unique_table_name (id ${INTEGER_PK}, code integer not null, name varchar(50) null)", replacements);
+        }
+    }
+
+    @Test
+    public void shouldReportPhaseTimingsInNanos() {
+        table.insert().setField("code", 1).setField("name", "one").execute();
+        DatabaseQueryExecution insert = executions.get("unique_table_name/INSERT").get(0);
+        assertThat(insert.getPrepareNanos()).isPositive();
+        assertThat(insert.getBindNanos()).isPositive();
+        assertThat(insert.getExecuteNanos()).isPositive();
+        assertThat(insert.getTimeToFirstRowNanos()).isEqualTo(-1);
+        assertThat(insert.getTotalNanos())
+                .isGreaterThanOrEqualTo(insert.getPrepareNanos() + insert.getBindNanos() + insert.getExecuteNanos());
+
+        assertThat(table.query().listStrings("name")).containsExactly("one");
+        DatabaseQueryExecution select = executions.get("unique_table_name/SELECT").get(0);
+        assertThat(select.getExecuteNanos()).isPositive();
+        assertThat(select.getTimeToFirstRowNanos())
+                .isGreaterThan(select.getPrepareNanos() + select.getBindNanos() + select.getExecuteNanos())
+                .isLessThanOrEqualTo(select.getTotalNanos());
+        assertThat(select.getFetchNanos()).isPositive();
+    }
+
+    @Test
+    public void shouldReportStreamedQueryWhenConsumed() {
+        table.insert().setField("code", 1).setField("name", "one").execute();
+        table.insert().setField("code", 2).setField("name", "two").execute();
+
+        try (Stream<String> names = table.query().orderBy("code").stream(row -> row.getString("name"))) {
+            assertThat(executions.get("unique_table_name/SELECT")).isNull();
+            Iterator<String> iterator = names.iterator();
+            assertThat(iterator.next()).isEqualTo("one");
+            assertThat(executions.get("unique_table_name/SELECT")).isNull();
+        }
+        assertThat(executions.get("unique_table_name/SELECT")).hasSize(1);
+    }
+
+    @Test
+    public void shouldReportTransactionTimingsInNanos() {
+        try (DbTransaction tx = dbContext.ensureTransaction()) {
+            table.insert().setField("code", 1).setField("name", "one").execute();
+            tx.setComplete();
+        }
+        try (DbTransaction ignored = dbContext.ensureTransaction()) {
+            table.insert().setField("code", 2).setField("name", "two").execute();
+        }
+        assertThat(transactionTimings).containsExactly("commit", "rollback");
+        assertThat(transactionNanos).hasSize(2).allMatch(nanos -> nanos > 0);
+    }
+
+    @Test
+    public void shouldReportRowCountAndEstimatedSize() {
+        for (int i = 0; i < 5; i++) {
+            table.insert().setField("code", i).setField("name", "row " + i).execute();
+        }
+        assertThat(executions.get("unique_table_name/INSERT"))
+                .extracting(DatabaseQueryExecution::getUpdateCount).containsOnly(1);
+
+        assertThat(table.query().list(row -> row.getInt("code"))).hasSize(5);
+        DatabaseQueryExecution select = executions.get("unique_table_name/SELECT").get(0);
+        assertThat(select.getRowCount()).isEqualTo(5);
+        assertThat(select.getUpdateCount()).isEqualTo(-1);
+        assertThat(select.getEstimatedBytes()).isGreaterThanOrEqualTo(5 * 50);
+
+        assertThat(table.where("code", 2).update().setField("name", "two").execute()).isEqualTo(1);
+        assertThat(table.whereExpression("code > ?", 1).executeDelete()).isEqualTo(3);
+        assertThat(executions.get("unique_table_name/UPDATE").get(0).getUpdateCount()).isEqualTo(1);
+        assertThat(executions.get("unique_table_name/DELETE").get(0).getUpdateCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldReportBulkOperations() {
+        List<Integer> codes = Arrays.asList(1, 2, 3, 4);
+        assertThat(table.bulkInsert(codes).setField("code", c -> c).setField("name", c -> "row " + c).execute())
+                .isEqualTo(4);
+        table.bulkUpdate(codes.stream()).where("code", c -> c).setField("name", c -> "updated").execute();
+
+        DatabaseQueryExecution insert = executions.get("unique_table_name/INSERT").get(0);
+        assertThat(insert.getBatchSize()).isEqualTo(4);
+        assertThat(insert.getUpdateCount()).isEqualTo(4);
+        DatabaseQueryExecution update = executions.get("unique_table_name/UPDATE").get(0);
+        assertThat(update.getBatchSize()).isEqualTo(4);
+        assertThat(update.getUpdateCount()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldWarnAboutLargeResults() {
+        factory.setLargeResultThreshold(3, (statement, threshold) -> largeResults.add(statement.getStatement()));
+        for (int i = 0; i < 5; i++) {
+            table.insert().setField("code", i).setField("name", "row " + i).execute();
+        }
+
+        assertThat(table.query().limit(3).listStrings("name")).hasSize(3);
+        assertThat(largeResults).isEmpty();
+        assertThat(table.query().listStrings("name")).hasSize(5);
+        assertThat(largeResults).hasSize(1);
+        assertThat(largeResults.get(0)).startsWith("select * from unique_table_name");
+    }
+}
@@ -0,0 +1,119 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DatabaseUUIDGeneratorTest {
+
+    private final DataSource dataSource = H2TestDatabase.createDataSource();
+    private final DatabaseStatementFactory factory = new DatabaseStatementFactory(DatabaseReporter.LOGGING_REPORTER);
+    private final DbContext dbContext = new DbContext(factory, DatabaseTransactionReporter.LOGGING_REPORTER);
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+    private DbContextConnection connection;
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "uuid_generator_table");
+            createTable(connection, "create table uuid_generator_table (id uuid primary key, name varchar(50) not null)", H2TestDatabase.REPLACEMENTS);
+        }
+        connection = dbContext.startConnection(dataSource);
+    }
+
+    @After
+    public void closeConnection() {
+        connection.close();
+    }
+
+    @Test
+    public void shouldGenerateVersion7WithTimestamp() {
+        UUID uuid = new DatabaseUUIDGenerator.TimeOrdered(clock::get).generate();
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(uuid.getMostSignificantBits() >>> 16).isEqualTo(clock.get());
+    }
+
+    @Test
+    public void shouldIncreaseWithinSameMillisecondAndWhenClockGoesBack() {
+        DatabaseUUIDGenerator generator = new DatabaseUUIDGenerator.TimeOrdered(clock::get);
+        List<UUID> uuids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            if (i == 5000) {
+                clock.addAndGet(-1000);
+            }
+            uuids.add(generator.generate());
+        }
+        assertThat(uuids).isSortedAccordingTo(DatabaseUUIDGeneratorTest::compareUnsigned).doesNotHaveDuplicates();
+        assertThat(uuids).allMatch(uuid -> uuid.version() == 7 && uuid.variant() == 2);
+    }
+
+    @Test
+    public void shouldBeUniqueAcrossThreads() throws Exception {
+        DatabaseUUIDGenerator generator = DatabaseUUIDGenerator.TIME_ORDERED;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<UUID>>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    List<UUID> uuids = new ArrayList<>();
+                    for (int i = 0; i < 10_000; i++) {
+                        uuids.add(generator.generate());
+                    }
+                    return uuids;
+                }));
+            }
+            List<UUID> all = new ArrayList<>();
+            for (Future<List<UUID>> future : futures) {
+                List<UUID> uuids = future.get();
+                assertThat(uuids).isSortedAccordingTo(DatabaseUUIDGeneratorTest::compareUnsigned);
+                all.addAll(uuids);
+            }
+            assertThat(all).doesNotHaveDuplicates();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldUseGeneratorOfFactory() {
+        factory.setUUIDGenerator(DatabaseUUIDGenerator.TIME_ORDERED);
+        UUID id = dbContext.table("uuid_generator_table").newSaveBuilderWithUUID("id", null)
+                .setField("name", "first")
+                .execute()
+                .getId();
+        assertThat(id.version()).isEqualTo(7);
+    }
+
+    @Test
+    public void shouldUseGeneratorOfTable() {
+        UUID fixed = UUID.randomUUID();
+        DbContextTable table = dbContext.table(new DatabaseTableImpl("uuid_generator_table", factory).setUUIDGenerator(() -> fixed));
+        assertThat(table.newSaveBuilderWithUUID("id", null).setField("name", "fixed").execute().getId())
+                .isEqualTo(fixed);
+        assertThat(dbContext.table("uuid_generator_table").newSaveBuilderWithUUID("id", null).setField("name", "random").execute().getId().version())
+                .isEqualTo(4);
+        assertThat(table.where("name", "fixed").singleObject(row -> row.getUUID("id"))).contains(fixed);
+    }
+
+    private static int compareUnsigned(UUID a, UUID b) {
+        int result = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return result != 0 ? result : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,128 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.fluentjdbc.opt.junit.DbContextRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DbContextAsyncTest {
+
+    private final DataSource dataSource = H2TestDatabase.createDataSource();
+
+    private final List<String> reportedOperations = Collections.synchronizedList(new ArrayList<>());
+
+    @Rule
+    public final DbContextRule dbContext = new DbContextRule(
+            dataSource,
+            new DatabaseStatementFactory(table -> operation -> (query, timing) -> reportedOperations.add(table + "/" + operation)),
+            DatabaseTransactionReporter.LOGGING_REPORTER
+    );
+
+    private final DbContextTable table = dbContext.table("async_query_table");
+
+    private final AtomicInteger executedTasks = new AtomicInteger();
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "async_query_table");
+            createTable(connection, "create table async_query_table (id ${INTEGER_PK}, code integer not null, name varchar(50) null)", H2TestDatabase.REPLACEMENTS);
+        }
+        dbContext.setExecutor(executor);
+        table.insert().setField("code", 1).setField("name", "one").execute();
+        table.insert().setField("code", 2).setField("name", "two").execute();
+    }
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldListAsync() {
+        CompletableFuture<List<String>> names = table.query().orderBy("code").listAsync(row -> row.getString("name"));
+        assertThat(names.join()).containsExactly("one", "two");
+    }
+
+    @Test
+    public void shouldRetrieveSingleObjectAsync() {
+        CompletableFuture<SingleRow<Integer>> code = table.where("name", "two").singleObjectAsync(row -> row.getInt("code"));
+        assertThat(code.join().get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldCountAsync() {
+        assertThat(table.query().getCountAsync().join()).isEqualTo(2);
+        assertThat(dbContext.select("name").from("async_query_table").where("code", 1).getCountAsync().join()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldIterateAsync() {
+        List<String> names = Collections.synchronizedList(new ArrayList<>());
+        table.query().forEachAsync(row -> names.add(row.getString("name"))).join();
+        assertThat(names).containsExactlyInAnyOrder("one", "two");
+    }
+
+    @Test
+    public void shouldUpdateAsync() {
+        CompletableFuture<Integer> inserted = table.insert().setField("code", 3).setField("name", "three").executeAsync();
+        assertThat(inserted.join()).isEqualTo(1);
+
+        CompletableFuture<Integer> updated = table.where("code", 3).update().setField("name", "tre").executeAsync();
+        assertThat(updated.join()).isEqualTo(1);
+
+        CompletableFuture<Integer> statement = dbContext.statement(
+                "update async_query_table set name = ? where code = ?", Arrays.asList("uno", 1)
+        ).executeUpdateAsync();
+        assertThat(statement.join()).isEqualTo(1);
+
+        assertThat(table.query().orderBy("code").listStrings("name")).containsExactly("uno", "two", "tre");
+    }
+
+    @Test
+    public void shouldUseConfiguredExecutor() {
+        dbContext.setExecutor(command -> {
+            executedTasks.incrementAndGet();
+            executor.execute(command);
+        });
+        assertThat(table.query().listAsync(row -> row.getString("name")).join()).hasSize(2);
+        assertThat(executedTasks.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReportAsyncQueries() {
+        reportedOperations.clear();
+        //noinspection ResultOfMethodCallIgnored
+        table.query().getCountAsync().join();
+        assertThat(reportedOperations).containsExactly("async_query_table/COUNT");
+    }
+
+    @Test
+    public void shouldPropagateException() {
+        CompletableFuture<List<String>> result = dbContext.table("missing_table").query().listAsync(row -> row.getString("name"));
+        assertThatThrownBy(result::join)
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(SQLException.class);
+    }
+}
@@ -0,0 +1,160 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.fluentjdbc.opt.junit.DbContextRule;
+import org.fluentjdbc.util.ExceptionUtil;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DbContextBatchTest {
+
+    private final DataSource dataSource = H2TestDatabase.createDataSource();
+
+    private final List<String> reportedOperations = new ArrayList<>();
+
+    @Rule
+    public final DbContextRule dbContext = new DbContextRule(
+            dataSource,
+            new DatabaseStatementFactory(table -> operation -> (query, timing) -> reportedOperations.add(table + "/" + operation)),
+            DatabaseTransactionReporter.LOGGING_REPORTER
+    );
+
+    private final DbContextTable table = dbContext.table("batch_table");
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "batch_table");
+            createTable(connection, "create table batch_table (id ${INTEGER_PK}, code integer not null, name varchar(50) null)", H2TestDatabase.REPLACEMENTS);
+        }
+    }
+
+    @Test
+    public void shouldQueueStatementsUntilEndOfBatch() {
+        DbContextBatchResult result = dbContext.batch(() -> {
+            assertThat(table.insert().setField("code", 1).setField("name", "one").execute())
+                    .isEqualTo(Statement.SUCCESS_NO_INFO);
+            assertThat(table.insert().setField("code", 2).setField("name", "two").execute())
+                    .isEqualTo(Statement.SUCCESS_NO_INFO);
+            assertThat(countRowsWithOtherConnection()).isZero();
+        });
+
+        assertThat(result.getStatementCount()).isEqualTo(2);
+        assertThat(countRowsWithOtherConnection()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldReturnUpdateCountOfEachStatement() {
+        DbContextBatchResult result = dbContext.batch(() -> {
+            table.insert().setField("code", 1).setField("name", "one").execute();
+            table.insert().setField("code", 2).setField("name", "two").execute();
+            table.insert().setField("code", 3).setField("name", "three").execute();
+            table.whereExpression("code >= ?", 2).update().setField("name", "many").execute();
+            table.where("code", 5).update().setField("name", "none").execute();
+            table.where("code", 1).executeDelete();
+            dbContext.statement("update batch_table set name = ? where code = ?", Arrays.asList("drei", 3)).executeUpdate();
+        });
+
+        assertThat(result.getUpdateCounts()).containsExactly(1, 1, 1, 2, 0, 1, 1);
+        assertThat(result.getUpdateCount(3)).isEqualTo(2);
+        assertThat(result.getTotalUpdateCount()).isEqualTo(7);
+        assertThat(table.query().orderBy("code").listStrings("name")).containsExactly("many", "drei");
+    }
+
+    @Test
+    public void shouldGroupConsecutiveStatementsWithSameSql() {
+        reportedOperations.clear();
+        DbContextBatchResult result = dbContext.batch(() -> {
+            for (int i = 0; i < 10; i++) {
+                table.insert().setField("code", i).setField("name", "row " + i).execute();
+            }
+            table.where("code", 0).update().setField("name", "first").execute();
+            table.where("code", 1).update().setField("name", "second").execute();
+            table.insert().setField("code", 10).setField("name", "last").execute();
+        });
+
+        assertThat(result.getStatementCount()).isEqualTo(13);
+        assertThat(result.getRoundTrips()).isEqualTo(3);
+        assertThat(reportedOperations).containsExactly("batch_table/INSERT", "batch_table/UPDATE", "batch_table/INSERT");
+        assertThat(table.query().getCount()).isEqualTo(11);
+    }
+
+    @Test
+    public void shouldExecuteQueuedStatementsBeforeQuery() {
+        dbContext.batch(() -> {
+            table.insert().setField("code", 1).setField("name", "one").execute();
+            table.insert().setField("code", 2).setField("name", "two").execute();
+            assertThat(table.query().orderBy("code").listStrings("name")).containsExactly("one", "two");
+            table.where("code", 1).update().setField("name", "uno").execute();
+        });
+        assertThat(table.query().orderBy("code").listStrings("name")).containsExactly("uno", "two");
+    }
+
+    @Test
+    public void shouldExecuteQueuedStatementsBeforeGeneratedKeys() {
+        dbContext.batch(() -> {
+            table.insert().setField("code", 1).setField("name", "one").execute();
+            Long id = table.insert().setPrimaryKey("id", (Long) null).setField("code", 2).setField("name", "two").execute();
+            table.where("id", id).update().setField("name", "updated").execute();
+        });
+        assertThat(table.query().orderBy("code").listStrings("name")).containsExactly("one", "updated");
+    }
+
+    @Test
+    public void shouldDiscardQueuedStatementsOnException() {
+        assertThatThrownBy(() -> dbContext.batch(() -> {
+            table.insert().setField("code", 1).setField("name", "one").execute();
+            throw new IllegalArgumentException("Failed");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(table.query().getCount()).isZero();
+        table.insert().setField("code", 2).setField("name", "two").execute();
+        assertThat(table.query().listStrings("name")).containsExactly("two");
+    }
+
+    @Test
+    public void shouldRollBackBatchInTransaction() {
+        assertThatThrownBy(() -> {
+            try (DbTransaction ignored = dbContext.ensureTransaction()) {
+                dbContext.batch(() -> {
+                    table.insert().setField("code", 1).setField("name", "one").execute();
+                    table.insert().setField("code", 2).setField("name", "two").execute();
+                    dbContext.statement("update non_existing set name = 'x'").executeUpdate();
+                });
+            }
+        }).isInstanceOf(SQLException.class);
+        assertThat(table.query().getCount()).isZero();
+    }
+
+    @Test
+    public void shouldNotNestBatches() {
+        assertThatThrownBy(() -> dbContext.batch(() -> dbContext.batch(() -> {})))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private int countRowsWithOtherConnection() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select count(*) from batch_table")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        } catch (SQLException e) {
+            throw ExceptionUtil.softenCheckedException(e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.fluentjdbc.opt.junit.DbContextRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DbContextBinaryStreamTest {
+
+    private final DataSource dataSource;
+    private final Map<String, String> replacements;
+
+    @Rule
+    public final DbContextRule dbContext;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final DbContextTable table;
+    private final byte[] content = new byte[300_000];
+
+    public DbContextBinaryStreamTest() {
+        this(H2TestDatabase.createDataSource(), H2TestDatabase.REPLACEMENTS);
+    }
+
+    protected DbContextBinaryStreamTest(DataSource dataSource, Map<String, String> replacements) {
+        this.dataSource = dataSource;
+        this.replacements = replacements;
+        this.dbContext = new DbContextRule(dataSource);
+        this.table = dbContext.table("binary_stream_table");
+        new Random(42).nextBytes(content);
+    }
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "binary_stream_table");
+            createTable(connection, "create table binary_stream_table (id integer primary key, content ${BLOB})", replacements);
+        }
+    }
+
+    @Test
+    public void shouldStoreAndReadFile() throws IOException {
+        Path source = folder.newFile("source.bin").toPath();
+        Files.write(source, content);
+        table.insert().setField("id", 1).setField("content", source).execute();
+
+        Path target = folder.getRoot().toPath().resolve("target.bin");
+        assertThat(table.where("id", 1).singleObject(row -> row.transferTo("content", target))).contains((long) content.length);
+        assertThat(Files.readAllBytes(target)).isEqualTo(content);
+    }
+
+    @Test
+    public void shouldStoreFileChannelFromPosition() throws IOException {
+        Path source = folder.newFile("source.bin").toPath();
+        Files.write(source, content);
+        try (FileChannel channel = FileChannel.open(source)) {
+            channel.position(1000);
+            table.insert().setField("id", 2).setField("content", channel).execute();
+            assertThat(channel.isOpen()).isTrue();
+        }
+        assertThat(readContent(2)).isEqualTo(Arrays.copyOfRange(content, 1000, content.length));
+    }
+
+    @Test
+    public void shouldStoreRemainingBytesOfBuffers() {
+        ByteBuffer heapBuffer = ByteBuffer.wrap(content, 10, 5000).slice();
+        heapBuffer.position(100);
+        table.insert().setField("id", 3).setField("content", heapBuffer).execute();
+        assertThat(heapBuffer.position()).isEqualTo(100);
+        assertThat(readContent(3)).isEqualTo(Arrays.copyOfRange(content, 110, 5010));
+
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(content.length);
+        directBuffer.put(content).flip();
+        table.insert().setField("id", 4).setField("content", directBuffer).execute();
+        assertThat(directBuffer.remaining()).isEqualTo(content.length);
+        assertThat(readContent(4)).isEqualTo(content);
+    }
+
+    @Test
+    public void shouldReturnMinusOneForNull() {
+        table.insert().setField("id", 5).setField("content", null).execute();
+        Path target = folder.getRoot().toPath().resolve("missing.bin");
+        assertThat(table.where("id", 5).singleObject(row -> row.transferTo("content", target))).contains(-1L);
+        assertThat(target).doesNotExist();
+    }
+
+    private byte[] readContent(int id) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        table.where("id", id).singleObject(row -> row.transferTo("content", Channels.newChannel(output)));
+        return output.toByteArray();
+    }
+}
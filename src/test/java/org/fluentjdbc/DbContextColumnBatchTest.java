@@ -0,0 +1,143 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DbContextColumnBatchTest {
+
+    private final DataSource dataSource;
+    private final Map<String, String> replacements;
+    private final DbContext dbContext = new DbContext();
+    private final DbContextTable table = dbContext.table("column_batch_table");
+    private DbContextConnection connection;
+
+    public DbContextColumnBatchTest() {
+        this(H2TestDatabase.createDataSource(), H2TestDatabase.REPLACEMENTS);
+    }
+
+    protected DbContextColumnBatchTest(DataSource dataSource, Map<String, String> replacements) {
+        this.dataSource = dataSource;
+        this.replacements = replacements;
+    }
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "column_batch_table");
+            createTable(connection, "create table column_batch_table (id integer primary key, customer_id bigint not null, amount double, currency varchar(3))", replacements);
+        }
+        connection = dbContext.startConnection(dataSource);
+        table.bulkInsert(IntStream.rangeClosed(1, 25).boxed())
+                .setField("id", id -> id)
+                .setField("customer_id", id -> 1000L + id % 3)
+                .setField("amount", id -> id % 5 == 0 ? null : id * 1.5)
+                .setField("currency", id -> id % 7 == 0 ? null : (id % 2 == 0 ? "NOK" : "EUR"))
+                .execute();
+    }
+
+    @After
+    public void closeConnection() {
+        connection.close();
+    }
+
+    @Test
+    public void shouldReadColumnsInFixedSizeBatches() {
+        DatabaseColumnBatch batch = new DatabaseColumnBatch(10)
+                .addIntColumn("id")
+                .addLongColumn("customer_id")
+                .addDoubleColumn("amount");
+        List<Integer> sizes = new ArrayList<>();
+        Set<long[]> arrays = new HashSet<>();
+        List<Integer> ids = new ArrayList<>();
+        table.query().orderBy("id").forEachBatch(batch, b -> {
+            sizes.add(b.size());
+            arrays.add(b.getLongs("customer_id"));
+            int[] batchIds = b.getInts("id");
+            long[] customers = b.getLongs("customer_id");
+            double[] amounts = b.getDoubles("amount");
+            for (int i = 0; i < b.size(); i++) {
+                ids.add(batchIds[i]);
+                assertThat(customers[i]).isEqualTo(1000L + batchIds[i] % 3);
+                if (batchIds[i] % 5 == 0) {
+                    assertThat(b.isNull("amount", i)).isTrue();
+                } else {
+                    assertThat(b.isNull("amount", i)).isFalse();
+                    assertThat(amounts[i]).isEqualTo(batchIds[i] * 1.5);
+                }
+            }
+        });
+        assertThat(sizes).containsExactly(10, 10, 5);
+        assertThat(arrays).hasSize(1);
+        assertThat(ids).containsExactlyElementsOf(IntStream.rangeClosed(1, 25).boxed().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void shouldDictionaryEncodeStrings() {
+        DatabaseColumnBatch batch = new DatabaseColumnBatch(4)
+                .addIntColumn("id")
+                .addStringColumn("currency");
+        List<String> currencies = new ArrayList<>();
+        table.query().orderBy("id").forEachBatch(batch, b -> {
+            for (int i = 0; i < b.size(); i++) {
+                currencies.add(b.getString("currency", i));
+                if (b.getInts("id")[i] % 7 == 0) {
+                    assertThat(b.getStringCodes("currency")[i]).isEqualTo(-1);
+                    assertThat(b.getNulls("currency").get(i)).isTrue();
+                }
+            }
+        });
+        assertThat(batch.getDictionary("currency")).containsExactly("EUR", "NOK");
+        assertThat(currencies).hasSize(25).startsWith("EUR", "NOK", "EUR", "NOK", "EUR", "NOK", null);
+    }
+
+    @Test
+    public void shouldProcessBatchInParallel() {
+        DatabaseColumnBatch batch = new DatabaseColumnBatch(100)
+                .addLongColumn("customer_id");
+        long[] total = new long[1];
+        dbContext.select("customer_id").from("column_batch_table").where("currency", "NOK").forEachBatch(batch, b -> {
+            long[] customers = b.getLongs("customer_id");
+            total[0] += b.rows().parallel().mapToLong(i -> customers[i]).sum();
+        });
+        long expected = IntStream.rangeClosed(1, 25)
+                .filter(id -> id % 2 == 0 && id % 7 != 0)
+                .mapToLong(id -> 1000L + id % 3)
+                .sum();
+        assertThat(total[0]).isEqualTo(expected);
+    }
+
+    @Test
+    public void shouldNotCallConsumerForEmptyResult() {
+        DatabaseColumnBatch batch = new DatabaseColumnBatch(10).addIntColumn("id");
+        table.where("id", -1).forEachBatch(batch, b -> {
+            throw new AssertionError("Should not be called");
+        });
+        assertThat(batch.size()).isZero();
+    }
+
+    @Test
+    public void shouldRejectWrongColumnType() {
+        DatabaseColumnBatch batch = new DatabaseColumnBatch(10).addIntColumn("id");
+        assertThatThrownBy(() -> batch.getLongs("id")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> batch.getInts("amount")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> batch.addLongColumn("ID")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,155 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DbContextCompositeKeyTest {
+
+    private static final List<String> KEY = Arrays.asList("warehouse", "product");
+
+    private final DataSource dataSource;
+    private final Map<String, String> replacements;
+    private final List<String> statements = new ArrayList<>();
+    private final DbContext dbContext = new DbContext(
+            new DatabaseStatementFactory(tableName -> operation -> (query, timing) -> statements.add(query.getStatement())),
+            DatabaseTransactionReporter.LOGGING_REPORTER
+    );
+    private final DbContextTable table = dbContext.table("composite_stock");
+    private DbContextConnection connection;
+    private DatabaseDialect dialect;
+
+    public DbContextCompositeKeyTest() {
+        this(H2TestDatabase.createDataSource(), H2TestDatabase.REPLACEMENTS);
+    }
+
+    protected DbContextCompositeKeyTest(DataSource dataSource, Map<String, String> replacements) {
+        this.dataSource = dataSource;
+        this.replacements = replacements;
+    }
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "composite_stock");
+            createTable(connection, "create table composite_stock (warehouse integer not null, product varchar(20) not null, amount integer not null, primary key (warehouse, product))", replacements);
+        }
+        connection = dbContext.startConnection(dataSource);
+        dialect = DatabaseDialect.fromConnection(dbContext.getThreadConnection());
+        table.bulkInsert(IntStream.range(0, 6000).boxed())
+                .setField("warehouse", i -> i % 3)
+                .setField("product", i -> "product " + i / 3)
+                .setField("amount", i -> i)
+                .execute();
+        statements.clear();
+    }
+
+    @After
+    public void closeConnection() {
+        connection.close();
+    }
+
+    @Test
+    public void shouldFindRowsByRowValues() {
+        List<List<?>> keys = Arrays.asList(Arrays.asList(1, "product 0"), Arrays.asList(2, "product 10"), Arrays.asList(2, "missing"));
+        assertThat(table.whereIn(KEY, keys, dialect).orderBy("amount").listLongs("amount"))
+                .containsExactly(1L, 32L);
+        if (dialect.supportsRowValueInList()) {
+            assertThat(statements).containsExactly(
+                    "select * from composite_stock WHERE ((warehouse, product) IN ((?, ?), (?, ?), (?, ?))) order by amount"
+            );
+        } else {
+            assertThat(statements).containsExactly(
+                    "select * from composite_stock WHERE ((warehouse = ? AND product = ?) OR (warehouse = ? AND product = ?) OR (warehouse = ? AND product = ?)) order by amount"
+            );
+        }
+    }
+
+    @Test
+    public void shouldFindRowsWithPortableExpression() {
+        List<List<?>> keys = Arrays.asList(Arrays.asList(0, "product 1"), Arrays.asList(1, "product 1"));
+        assertThat(table.whereIn(KEY, keys).orderBy("amount").listLongs("amount"))
+                .containsExactly(3L, 4L);
+        assertThat(statements).containsExactly(
+                "select * from composite_stock WHERE ((warehouse = ? AND product = ?) OR (warehouse = ? AND product = ?)) order by amount"
+        );
+    }
+
+    @Test
+    public void shouldReturnNothingForNoKeys() {
+        assertThat(table.whereIn(KEY, Collections.<List<?>>emptyList(), dialect).listLongs("amount")).isEmpty();
+        assertThat(table.listByKeys(KEY, Collections.<List<?>>emptyList(), row -> row.getInt("amount"))).isEmpty();
+        assertThat(statements).hasSize(1);
+    }
+
+    @Test
+    public void shouldRejectKeysOfWrongSize() {
+        assertThatThrownBy(() -> table.whereIn(KEY, Collections.singletonList(Collections.singletonList(1))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shouldListSmallKeySetInOneQuery() {
+        List<List<?>> keys = Arrays.asList(Arrays.asList(2, "product 3"), Arrays.asList(0, "product 4"), Arrays.asList(2, "product 3"));
+        assertThat(table.query().orderBy("amount").listByKeys(KEY, keys, row -> row.getInt("amount")))
+                .containsExactly(11, 12);
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0)).doesNotContain("exists");
+    }
+
+    @Test
+    public void shouldListLargeKeySetThroughTemporaryTable() {
+        Assume.assumeTrue(dialect.supportsTemporaryTables());
+        List<List<?>> keys = IntStream.range(0, 6000)
+                .mapToObj(i -> Arrays.<Object>asList(i % 3, "product " + i / 3))
+                .collect(Collectors.toList());
+        List<Integer> amounts = table.where("warehouse", 1).orderBy("amount").listByKeys(KEY, keys, row -> row.getInt("amount"));
+        assertThat(amounts).hasSize(2000).startsWith(1, 4, 7);
+        assertThat(statements).hasSize(1);
+        assertThat(statements.get(0)).hasSizeLessThan(300).contains("fluentjdbc_keys");
+
+        assertThat(table.listByKeys(KEY, keys.subList(0, 3), row -> row.getInt("amount"))).containsOnly(0, 1, 2);
+    }
+
+    @Test
+    public void shouldListLargeKeySetWithoutCommittingTransaction() {
+        List<List<?>> keys = IntStream.range(0, 6000)
+                .mapToObj(i -> Arrays.<Object>asList(i % 3, "product " + i / 3))
+                .collect(Collectors.toList());
+        try (DbTransaction ignored = dbContext.ensureTransaction()) {
+            table.insert().setField("warehouse", 7).setField("product", "uncommitted").setField("amount", -1).execute();
+            assertThat(table.where("warehouse", 2).listByKeys(KEY, keys, row -> row.getInt("amount"))).hasSize(2000);
+            assertThat(table.where("warehouse", 2).listByKeys(KEY, keys, row -> row.getInt("amount"))).hasSize(2000);
+        }
+        assertThat(table.where("warehouse", 7).getCount()).isZero();
+    }
+
+    @Test
+    public void shouldKeepOriginalErrorWhenTemporaryTableQueryFails() {
+        Assume.assumeTrue(dialect.supportsTemporaryTables());
+        List<List<?>> keys = IntStream.range(0, 6000)
+                .mapToObj(i -> Arrays.<Object>asList(i % 3, "product " + i / 3))
+                .collect(Collectors.toList());
+        assertThatThrownBy(() -> table.whereExpression("no_such_column = 1").listByKeys(KEY, keys, row -> row.getInt("amount")))
+                .isInstanceOf(SQLException.class);
+        assertThat(table.where("warehouse", 1).listByKeys(KEY, keys, row -> row.getInt("amount"))).hasSize(2000);
+    }
+}
@@ -0,0 +1,113 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DbContextConnectionPerStatementTest {
+
+    private final DataSource dataSource = H2TestDatabase.createDataSource();
+    private final List<Connection> borrowedConnections = new ArrayList<>();
+    private final DbContext dbContext = new DbContext();
+    private final DbContextTable table = dbContext.table("connection_per_statement_table");
+    private DbContextConnection dbContextConnection;
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "connection_per_statement_table");
+            createTable(connection, "create table connection_per_statement_table (id ${INTEGER_PK}, code integer not null, name varchar(50) null)", H2TestDatabase.REPLACEMENTS);
+        }
+        dbContext.setConnectionPerStatement(true);
+        dbContextConnection = dbContext.startConnection(() -> {
+            Connection connection = dataSource.getConnection();
+            borrowedConnections.add(connection);
+            return connection;
+        });
+    }
+
+    @After
+    public void closeConnection() {
+        dbContextConnection.close();
+    }
+
+    @Test
+    public void shouldReturnConnectionAfterEachStatement() {
+        table.insert().setField("code", 1).setField("name", "one").execute();
+        table.insert().setField("code", 2).setField("name", "two").execute();
+        assertThat(table.query().orderBy("code").listStrings("name")).containsExactly("one", "two");
+        assertThat(table.where("code", 2).getCount()).isEqualTo(1);
+
+        assertThat(borrowedConnections).hasSize(4);
+        assertThat(openConnections()).isZero();
+    }
+
+    @Test
+    public void shouldKeepConnectionDuringTransaction() {
+        try (DbTransaction tx = dbContext.ensureTransaction()) {
+            table.insert().setField("code", 1).setField("name", "one").execute();
+            table.insert().setField("code", 2).setField("name", "two").execute();
+            assertThat(openConnections()).isEqualTo(1);
+            tx.setComplete();
+        }
+        assertThat(borrowedConnections).hasSize(1);
+        assertThat(openConnections()).isZero();
+        assertThat(table.query().listStrings("name")).containsExactlyInAnyOrder("one", "two");
+    }
+
+    @Test
+    public void shouldPinConnectionUntilStreamIsClosed() {
+        table.insert().setField("code", 1).setField("name", "one").execute();
+        table.insert().setField("code", 2).setField("name", "two").execute();
+
+        try (Stream<String> names = table.query().orderBy("code").stream(row -> row.getString("name"))) {
+            Iterator<String> iterator = names.iterator();
+            assertThat(iterator.next()).isEqualTo("one");
+            assertThat(openConnections()).isEqualTo(1);
+        }
+        assertThat(openConnections()).isZero();
+    }
+
+    @Test
+    public void shouldReturnConnectionWhenStreamIsConsumed() {
+        table.insert().setField("code", 1).setField("name", "one").execute();
+
+        assertThat(table.query().stream(row -> row.getString("name"))).containsExactly("one");
+        assertThat(openConnections()).isZero();
+    }
+
+    @Test
+    public void shouldKeepConnectionRetrievedDirectly() throws SQLException {
+        Connection connection = dbContext.getThreadConnection();
+        table.insert().setField("code", 1).setField("name", "one").execute();
+        assertThat(connection.isClosed()).isFalse();
+        assertThat(borrowedConnections).containsExactly(connection);
+
+        dbContextConnection.close();
+        assertThat(connection.isClosed()).isTrue();
+        dbContextConnection = dbContext.startConnection(dataSource);
+    }
+
+    private long openConnections() {
+        return borrowedConnections.stream().filter(c -> {
+            try {
+                return !c.isClosed();
+            } catch (SQLException e) {
+                throw new RuntimeException(e);
+            }
+        }).count();
+    }
+}
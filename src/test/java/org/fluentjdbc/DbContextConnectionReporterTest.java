@@ -0,0 +1,161 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.ref.WeakReference;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DbContextConnectionReporterTest {
+
+    private final DataSource dataSource = H2TestDatabase.createDataSource();
+    private final DbContext dbContext = new DbContext();
+    private final DbContextTable table = dbContext.table("connection_table");
+    private final List<Long> acquired = new ArrayList<>();
+    private final List<Long> held = new ArrayList<>();
+    private final List<Integer> statements = new ArrayList<>();
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "connection_table");
+            createTable(connection, "create table connection_table (id ${INTEGER_PK}, code integer not null, name varchar(50) null)", H2TestDatabase.REPLACEMENTS);
+        }
+        dbContext.setConnectionReporter(new DatabaseConnectionReporter() {
+            @Override
+            public void connectionAcquired(long acquireNanos) {
+                acquired.add(acquireNanos);
+            }
+
+            @Override
+            public void connectionReleased(long heldNanos) {
+                throw new AssertionError("Should call connectionReleased(long, int)");
+            }
+
+            @Override
+            public void connectionReleased(long heldNanos, int statementCount) {
+                held.add(heldNanos);
+                statements.add(statementCount);
+            }
+        });
+    }
+
+    @Test
+    public void shouldReportAcquireAndHoldTime() throws InterruptedException {
+        try (DbContextConnection ignored = dbContext.startConnection(() -> {
+            sleep(20);
+            return dataSource.getConnection();
+        })) {
+            assertThat(acquired).isEmpty();
+            table.query().getCount();
+            Thread.sleep(20);
+        }
+        assertThat(acquired).hasSize(1);
+        assertThat(acquired.get(0)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+        assertThat(held).hasSize(1);
+        assertThat(held.get(0)).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+    }
+
+    @Test
+    public void shouldCountStatementsPerCheckout() {
+        try (DbContextConnection ignored = dbContext.startConnection(dataSource)) {
+            table.insert().setField("code", 1).setField("name", "one").execute();
+            table.insert().setField("code", 2).setField("name", "two").execute();
+            assertThat(table.query().listStrings("name")).hasSize(2);
+        }
+        assertThat(statements).containsExactly(3);
+
+        dbContext.setConnectionPerStatement(true);
+        try (DbContextConnection ignored = dbContext.startConnection(dataSource)) {
+            table.where("code", 1).singleString("name");
+            try (DbTransaction tx = dbContext.ensureTransaction()) {
+                table.where("code", 1).update().setField("name", "uno").execute();
+                table.where("code", 2).executeDelete();
+                tx.setComplete();
+            }
+        }
+        assertThat(statements).containsExactly(3, 1, 2);
+        assertThat(acquired).hasSize(3);
+    }
+
+    @Test
+    public void shouldNotReportWithoutConnection() {
+        try (DbContextConnection ignored = dbContext.startConnection(dataSource)) {
+            assertThat(acquired).isEmpty();
+        }
+        assertThat(held).isEmpty();
+    }
+
+    @Test
+    public void shouldRecordConnectionMetrics() {
+        DatabaseMetricsReporter metrics = new DatabaseMetricsReporter();
+        dbContext.setConnectionReporter(metrics);
+        dbContext.setConnectionHoldThreshold(1);
+        for (int i = 0; i < 3; i++) {
+            try (DbContextConnection ignored = dbContext.startConnection(dataSource)) {
+                table.query().getCount();
+                table.query().getCount();
+                sleep(2);
+            }
+        }
+        assertThat(metrics.getConnectionAcquireHistogram().snapshot().getCount()).isEqualTo(3);
+        assertThat(metrics.getConnectionHoldHistogram().snapshot().getMaxNanos())
+                .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(2));
+        assertThat(metrics.getMeanStatementsPerConnection()).isEqualTo(2.0);
+    }
+
+    @Test
+    public void shouldStopCountingWhenNoLongerNeeded() {
+        DatabaseStatementFactory factory = new DatabaseStatementFactory(DatabaseReporter.LOGGING_REPORTER);
+        DbContext context = new DbContext(factory, DatabaseTransactionReporter.LOGGING_REPORTER);
+        assertThat(factory.getExecutionListenerCount()).isZero();
+        context.setRepeatedQueryThreshold(5);
+        context.setConnectionHoldThreshold(1000);
+        assertThat(factory.getExecutionListenerCount()).isEqualTo(1);
+        context.setRepeatedQueryThreshold(0);
+        assertThat(factory.getExecutionListenerCount()).isEqualTo(1);
+        context.setConnectionHoldThreshold(0);
+        assertThat(factory.getExecutionListenerCount()).isZero();
+    }
+
+    @Test
+    public void shouldNotKeepDiscardedContextReachableFromFactory() throws InterruptedException {
+        DatabaseStatementFactory factory = new DatabaseStatementFactory(DatabaseReporter.LOGGING_REPORTER);
+        WeakReference<DbContext> discarded = createCountingContext(factory);
+        for (int i = 0; i < 50 && discarded.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertThat(discarded.get()).isNull();
+
+        DbContext other = new DbContext(factory, DatabaseTransactionReporter.LOGGING_REPORTER);
+        try (DbContextConnection ignored = other.startConnection(dataSource)) {
+            other.table("connection_table").query().getCount();
+        }
+        assertThat(factory.getExecutionListenerCount()).isZero();
+    }
+
+    private static WeakReference<DbContext> createCountingContext(DatabaseStatementFactory factory) {
+        DbContext context = new DbContext(factory, DatabaseTransactionReporter.LOGGING_REPORTER);
+        context.setRepeatedQueryThreshold(5);
+        return new WeakReference<>(context);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
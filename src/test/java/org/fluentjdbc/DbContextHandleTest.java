@@ -0,0 +1,108 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.fluentjdbc.opt.junit.DbContextRule;
+import org.fluentjdbc.util.ExecutorUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DbContextHandleTest {
+
+    private final DataSource dataSource = H2TestDatabase.createDataSource();
+
+    @Rule
+    public final DbContextRule dbContext = new DbContextRule(dataSource);
+
+    private final DbContextTable table = dbContext.table("context_handle_table");
+
+    private final ExecutorService executor = ExecutorUtil.newTaskExecutor("context-handle-test");
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "context_handle_table");
+            createTable(connection, "create table context_handle_table (id ${INTEGER_PK}, code integer not null, name varchar(50) null)", H2TestDatabase.REPLACEMENTS);
+        }
+    }
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldRunCallableOnOtherThreadWithOwnConnection() throws ExecutionException, InterruptedException {
+        table.insert().setField("code", 1).setField("name", "one").execute();
+        Connection callerConnection = dbContext.getThreadConnection();
+
+        DbContextHandle handle = dbContext.captureContext();
+        Future<List<String>> names = executor.submit(handle.wrap(() -> table.query().listStrings("name")));
+        Future<Connection> taskConnection = executor.submit(handle.wrap(dbContext::getThreadConnection));
+
+        assertThat(names.get()).containsExactly("one");
+        assertThat(taskConnection.get()).isNotSameAs(callerConnection);
+    }
+
+    @Test
+    public void shouldSupplyCompletableFuture() {
+        table.insert().setField("code", 1).setField("name", "one").execute();
+        table.insert().setField("code", 2).setField("name", "two").execute();
+
+        DbContextHandle handle = dbContext.captureContext();
+        CompletableFuture<Integer> count = CompletableFuture.supplyAsync(handle.wrapSupplier(() -> table.query().getCount()), executor);
+        CompletableFuture<Void> insert = CompletableFuture.runAsync(handle.wrap(() -> {
+            //noinspection ResultOfMethodCallIgnored
+            table.insert().setField("code", 3).setField("name", "three").execute();
+        }), executor);
+
+        assertThat(count.join()).isGreaterThanOrEqualTo(2);
+        insert.join();
+        assertThat(table.query().getCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldCloseTaskConnection() throws Exception {
+        DbContextHandle handle = dbContext.captureContext();
+        Connection taskConnection = executor.submit(handle.wrap(dbContext::getThreadConnection)).get();
+        assertThat(taskConnection.isClosed()).isTrue();
+    }
+
+    @Test
+    public void shouldUseExistingConnectionOnSameThread() {
+        Connection callerConnection = dbContext.getThreadConnection();
+        DbContextHandle handle = dbContext.captureContext();
+        assertThat(handle.get(dbContext::getThreadConnection)).isSameAs(callerConnection);
+    }
+
+    @Test
+    public void shouldFailToCaptureInsideTransaction() {
+        try (DbTransaction ignored = dbContext.ensureTransaction()) {
+            assertThatThrownBy(dbContext::captureContext)
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("transaction");
+        }
+    }
+
+    @Test
+    public void shouldRequireConnectionToCapture() throws InterruptedException, ExecutionException {
+        Future<?> capture = executor.submit(dbContext::captureContext);
+        assertThatThrownBy(capture::get)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+}
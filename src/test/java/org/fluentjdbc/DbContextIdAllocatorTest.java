@@ -0,0 +1,201 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTablesIfExists;
+
+public class DbContextIdAllocatorTest {
+
+    private final DataSource dataSource;
+    private final Map<String, String> replacements;
+    private final DbContext dbContext = new DbContext();
+    private DbContextConnection connection;
+    private DatabaseDialect dialect;
+
+    public DbContextIdAllocatorTest() {
+        this(H2TestDatabase.createDataSource(), H2TestDatabase.REPLACEMENTS);
+    }
+
+    protected DbContextIdAllocatorTest(DataSource dataSource, Map<String, String> replacements) {
+        this.dataSource = dataSource;
+        this.replacements = replacements;
+    }
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dialect = DatabaseDialect.fromConnection(connection);
+            dropTablesIfExists(connection, "allocated_lines", "allocated_orders", "allocated_hilo");
+            if (dialect.supportsSequences()) {
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.executeUpdate("drop sequence allocated_seq");
+                } catch (SQLException ignored) {
+                }
+                createTable(connection, "create sequence allocated_seq start with 1 increment by 10", replacements);
+            }
+            createTable(connection, "create table allocated_hilo (name varchar(100) primary key, next_value integer not null)", replacements);
+            createTable(connection, "create table allocated_orders (id integer primary key, customer varchar(50) not null)", replacements);
+            createTable(connection, "create table allocated_lines (id integer primary key, order_id integer not null references allocated_orders(id), product varchar(50) not null)", replacements);
+        }
+        connection = dbContext.startConnection(dataSource);
+    }
+
+    @After
+    public void closeConnection() {
+        connection.close();
+    }
+
+    @Test
+    public void shouldAllocateBlocksFromSequence() {
+        Assume.assumeTrue(dialect.supportsSequences());
+        DatabaseIdAllocator allocator = DatabaseIdAllocator.fromSequence("allocated_seq", 10);
+        assertThat(allocator.nextIds(dbContext.getThreadConnection(), 25))
+                .isEqualTo(LongStream.rangeClosed(1, 25).boxed().collect(Collectors.toList()));
+        DatabaseIdAllocator other = DatabaseIdAllocator.fromSequence("allocated_seq", 10);
+        assertThat(other.nextId(dbContext.getThreadConnection())).isEqualTo(31L);
+        assertThat(allocator.nextId(dbContext.getThreadConnection())).isEqualTo(26L);
+    }
+
+    @Test
+    public void shouldAllocateBlocksFromHiLoTable() {
+        DatabaseIdAllocator allocator = DatabaseIdAllocator.fromHiLoTable(dataSource::getConnection, "allocated_hilo", "orders", 5);
+        DatabaseIdAllocator other = DatabaseIdAllocator.fromHiLoTable(dataSource::getConnection, "allocated_hilo", "orders", 5);
+        DatabaseIdAllocator lines = DatabaseIdAllocator.fromHiLoTable(dataSource::getConnection, "allocated_hilo", "lines", 5);
+        assertThat(allocator.nextIds(dbContext.getThreadConnection(), 7)).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+        assertThat(other.nextIds(dbContext.getThreadConnection(), 2)).containsExactly(11L, 12L);
+        assertThat(lines.nextId(dbContext.getThreadConnection())).isEqualTo(1L);
+    }
+
+    @Test
+    public void shouldKeepHiLoReservationWhenTransactionRollsBack() {
+        DatabaseIdAllocator allocator = DatabaseIdAllocator.fromHiLoTable(dataSource::getConnection, "allocated_hilo", "orders", 5);
+        try (DbTransaction ignored = dbContext.ensureTransaction()) {
+            assertThat(allocator.nextId(dbContext.getThreadConnection())).isEqualTo(1L);
+        }
+        DatabaseIdAllocator other = DatabaseIdAllocator.fromHiLoTable(dataSource::getConnection, "allocated_hilo", "orders", 5);
+        assertThat(other.nextId(dbContext.getThreadConnection())).isEqualTo(6L);
+    }
+
+    @Test
+    public void shouldHandOutUniqueIdsAcrossThreads() throws Exception {
+        AtomicLong nextBlock = new AtomicLong(1);
+        AtomicInteger reservations = new AtomicInteger();
+        DatabaseIdAllocator allocator = new DatabaseIdAllocator(50, (connection, blockSize) -> {
+            reservations.incrementAndGet();
+            return nextBlock.getAndAdd(blockSize);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> allocator.nextIds(null, 1000)));
+            }
+            List<Long> ids = new ArrayList<>();
+            for (Future<List<Long>> future : futures) {
+                ids.addAll(future.get());
+            }
+            assertThat(ids).hasSize(4000).doesNotHaveDuplicates().allMatch(id -> id >= 1 && id <= 4000);
+            assertThat(reservations.get()).isEqualTo(80);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldInsertParentsAndChildrenInBatches() {
+        Assume.assumeTrue(dialect.supportsSequences());
+        DatabaseIdAllocator orderIds = DatabaseIdAllocator.fromSequence("allocated_seq", 10);
+        DatabaseIdAllocator lineIds = DatabaseIdAllocator.fromHiLoTable(dataSource::getConnection, "allocated_hilo", "lines", 100);
+        List<Order> orders = Arrays.asList(new Order("alice"), new Order("bob"));
+        List<Line> lines = Arrays.asList(new Line(orders.get(0), "apple"), new Line(orders.get(1), "banana"), new Line(orders.get(1), "cherry"));
+
+        dbContext.table("allocated_orders").bulkInsert(orders)
+                .allocatePrimaryKeys("id", orderIds, (order, id) -> order.id = id)
+                .setField("customer", order -> order.customer)
+                .execute();
+        dbContext.table("allocated_lines").bulkInsert(lines)
+                .allocatePrimaryKeys("id", lineIds, (line, id) -> line.id = id)
+                .setField("order_id", line -> line.order.id)
+                .setField("product", line -> line.product)
+                .execute();
+
+        assertThat(orders).extracting(order -> order.id).containsExactly(1L, 2L);
+        assertThat(lines).extracting(line -> line.id).containsExactly(1L, 2L, 3L);
+        assertThat(dbContext.table("allocated_lines").where("order_id", orders.get(1).id).orderBy("id").listStrings("product"))
+                .containsExactly("banana", "cherry");
+    }
+
+    @Test
+    public void shouldAllocateIdPerRowForRepeatedObject() {
+        DatabaseIdAllocator orderIds = DatabaseIdAllocator.fromHiLoTable(dataSource::getConnection, "allocated_hilo", "orders", 10);
+        Order order = new Order("alice");
+        List<Long> allocated = new ArrayList<>();
+
+        int count = dbContext.table("allocated_orders").bulkInsert(Arrays.asList(order, order))
+                .allocatePrimaryKeys("id", orderIds, (o, id) -> allocated.add(id))
+                .setField("customer", o -> o.customer)
+                .execute();
+
+        assertThat(count).isEqualTo(2);
+        assertThat(allocated).containsExactly(1L, 2L);
+        assertThat(dbContext.table("allocated_orders").query().orderBy("id").listLongs("id")).containsExactly(1L, 2L);
+    }
+
+    @Test
+    public void shouldUseAllocatorInSaveBuilder() {
+        Assume.assumeTrue(dialect.supportsSequences());
+        DatabaseIdAllocator allocator = DatabaseIdAllocator.fromSequence("allocated_seq", 10);
+        DbContextTable table = dbContext.table(
+                new DatabaseTableImpl("allocated_orders", dbContext.getStatementFactory()).setIdAllocator(allocator)
+        );
+        DatabaseSaveResult<Long> first = table.newSaveBuilder("id", null).setField("customer", "alice").execute();
+        DatabaseSaveResult<Long> second = table.newSaveBuilder("id", null).setField("customer", "bob").execute();
+        assertThat(first.getId()).isEqualTo(1L);
+        assertThat(second.getId()).isEqualTo(2L);
+        assertThat(table.newSaveBuilder("id", first.getId()).setField("customer", "alice").execute().getSaveStatus())
+                .isEqualTo(DatabaseSaveResult.SaveStatus.UNCHANGED);
+        assertThat(table.where("id", 2L).singleString("customer")).contains("bob");
+    }
+
+    private static class Order {
+        private Long id;
+        private final String customer;
+
+        private Order(String customer) {
+            this.customer = customer;
+        }
+    }
+
+    private static class Line {
+        private Long id;
+        private final Order order;
+        private final String product;
+
+        private Line(Order order, String product) {
+            this.order = order;
+            this.product = product;
+        }
+    }
+}
@@ -16,6 +16,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
@@ -162,6 +163,91 @@ public class DbContextJoinedQueryBuilderTest {
                 .leftJoin(m.column("person_id"), p.column("id")).getCount()).isEqualTo(3);
     }
 
+    @Test
+    public void shouldSelectColumnsFromJoinedTables() {
+        long personId = savePerson("Jill");
+        long orgOneId = saveOrganization("Oslo");
+        saveOrganization("Bergen");
+        saveMembership(personId, orgOneId);
+
+        DbContextTableAlias m = this.memberships.alias("m");
+        DbContextTableAlias p = persons.alias("p");
+        DbContextTableAlias o = organizations.alias("o");
+
+        List<List<String>> result = o.leftJoin(o.column("id"), m.column("organization_id"))
+                .leftJoin(m.column("person_id"), p.column("id"))
+                .select(o.column("name"), p.column("name"))
+                .orderBy(o.column("name"))
+                .list(row -> asList(
+                        row.table(o).getString("name"),
+                        row.table(p.getTableAlias(), r -> r.getString("name")).orElse(null)
+                ));
+        assertThat(result).containsExactly(asList("Bergen", null), asList("Oslo", "Jill"));
+    }
+
+    @Test
+    public void shouldStreamParentsWithChildren() {
+        long jill = savePerson("Jill");
+        long jack = savePerson("Jack");
+        long oslo = saveOrganization("Oslo");
+        saveOrganization("Bergen");
+        long trondheim = saveOrganization("Trondheim");
+        saveMembership(jill, oslo);
+        saveMembership(jack, oslo);
+        saveMembership(jill, trondheim);
+
+        DbContextTableAlias m = this.memberships.alias("m");
+        DbContextTableAlias p = persons.alias("p");
+        DbContextTableAlias o = organizations.alias("o");
+        List<String> parentRows = new ArrayList<>();
+        try (Stream<String> result = o.leftJoin(o.column("id"), m.column("organization_id"))
+                .leftJoin(m.column("person_id"), p.column("id"))
+                .orderBy(o.column("name"))
+                .streamGrouped(
+                        o.column("id"),
+                        row -> {
+                            parentRows.add(row.table(o).getString("name"));
+                            return row.table(o).getString("name");
+                        },
+                        row -> row.table(p.getTableAlias(), r -> r.getString("name")).orElse(null),
+                        (organization, members) -> organization + new TreeSet<>(members)
+                )) {
+            assertThat(result).containsExactly("Bergen[]", "Oslo[Jack, Jill]", "Trondheim[Jill]");
+        }
+        assertThat(parentRows).containsExactly("Bergen", "Oslo", "Trondheim");
+    }
+
+    @Test
+    public void shouldOnlyIncludeSelectedColumns() {
+        long personId = savePerson("Jack");
+        long orgId = saveOrganization("Oslo");
+        saveMembership(personId, orgId);
+
+        DbContextTableAlias m = this.memberships.alias("m");
+        DbContextTableAlias p = persons.alias("p");
+        List<String> columns = m.join(m.column("person_id"), p.column("id"))
+                .select(p.column("name"))
+                .list(row -> {
+                    assertThat(row.table(p).getString("name")).isEqualTo("Jack");
+                    return String.join(",", new TreeSet<>(row.getColumnNames()));
+                });
+        assertThat(columns).containsExactly("ID,NAME");
+        assertThatThrownBy(() -> m.join(m.column("person_id"), p.column("id"))
+                .select(p.column("name"))
+                .list(row -> row.table(m).getLong("organization_id")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shouldRejectSelectedColumnFromTableNotInQuery() {
+        DbContextTableAlias m = this.memberships.alias("m");
+        DbContextTableAlias p = persons.alias("p");
+        DbContextTableAlias o = organizations.alias("o");
+        assertThatThrownBy(() -> m.join(m.column("person_id"), p.column("id")).select(o.column("name")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("alias o ");
+    }
+
     @Test
     public void shouldJoinSameTableWithDifferentAlias() {
         String personOneName = "Jane";
@@ -0,0 +1,119 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DbContextKeysetPaginationTest {
+
+    private final DataSource dataSource = H2TestDatabase.createDataSource();
+    private final DbContext dbContext = new DbContext();
+    private final DbContextTable table = dbContext.table("keyset_table");
+    private DbContextConnection connection;
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "keyset_table");
+            createTable(connection, "create table keyset_table (id integer primary key, category integer not null, name varchar(50) null)", H2TestDatabase.REPLACEMENTS);
+        }
+        connection = dbContext.startConnection(dataSource);
+        for (int id = 1; id <= 25; id++) {
+            table.insert().setField("id", id).setField("category", id % 3).setField("name", "row " + id).execute();
+        }
+    }
+
+    @After
+    public void closeConnection() {
+        connection.close();
+    }
+
+    @Test
+    public void shouldGenerateExpandedPredicateByDefault() {
+        DatabaseQueryParameter predicate = DatabaseSelectBuilder.seekPredicate(
+                Arrays.asList("category", "id desc"), Arrays.asList(1, 10), DatabaseDialect.UNKNOWN
+        );
+        assertThat(predicate.getWhereExpression()).isEqualTo("((category > ?) or (category = ? and id < ?))");
+        assertThat(new ArrayList<Object>(predicate.getParameters())).containsExactly(1, 1, 10);
+    }
+
+    @Test
+    public void shouldGenerateRowValueComparison() {
+        DatabaseQueryParameter predicate = DatabaseSelectBuilder.seekPredicate(
+                Arrays.asList("category desc", "id desc"), Arrays.asList(1, 10), DatabaseDialect.H2
+        );
+        assertThat(predicate.getWhereExpression()).isEqualTo("(category, id) < (?, ?)");
+        assertThat(new ArrayList<Object>(predicate.getParameters())).containsExactly(1, 10);
+        assertThat(DatabaseSelectBuilder.seekPredicate(Arrays.asList("category", "id desc"), Arrays.asList(1, 10), DatabaseDialect.H2)
+                .getWhereExpression()).startsWith("((category > ?)");
+    }
+
+    @Test
+    public void shouldRejectMismatchedValues() {
+        assertThatThrownBy(() -> table.query().seekAfter(Arrays.asList("category", "id"), Collections.singletonList(1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shouldFetchNextPage() {
+        List<Integer> firstPage = table.query().seekAfter(Arrays.asList("category", "id"), null).limit(4)
+                .list(row -> row.getInt("id"));
+        assertThat(firstPage).containsExactly(3, 6, 9, 12);
+        List<Integer> secondPage = table.query().seekAfter(Arrays.asList("category", "id"), Arrays.asList(0, 12)).limit(4)
+                .list(row -> row.getInt("id"));
+        assertThat(secondPage).containsExactly(15, 18, 21, 24);
+    }
+
+    @Test
+    public void shouldSeekWithRowValueComparisonAndMixedDirections() {
+        try (Connection conn = dataSource.getConnection()) {
+            DatabaseTable databaseTable = new DatabaseTableImpl("keyset_table");
+            List<Integer> descending = databaseTable.query()
+                    .seekAfter(Arrays.asList("category desc", "id desc"), Arrays.asList(2, 14))
+                    .list(conn, row -> row.getInt("id"));
+            assertThat(descending).startsWith(11, 8, 5, 2, 25).hasSize(21);
+
+            List<Integer> mixed = databaseTable.query().createSelectBuilder()
+                    .seekAfter(Arrays.asList("category", "id desc"), Arrays.asList(1, 10), DatabaseDialect.H2)
+                    .limit(3)
+                    .list(conn, row -> row.getInt("id"));
+            assertThat(mixed).containsExactly(7, 4, 1);
+        } catch (SQLException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @Test
+    public void shouldIterateAllPages() {
+        List<List<Integer>> pages = table.where("category", 1)
+                .pages(Arrays.asList("name", "id"), 3, row -> row.getInt("id"))
+                .collect(Collectors.toList());
+        assertThat(pages).containsExactly(
+                Arrays.asList(1, 10, 13), Arrays.asList(16, 19, 22), Arrays.asList(25, 4, 7)
+        );
+    }
+
+    @Test
+    public void shouldIterateAllPagesOfSelect() {
+        List<Integer> ids = new ArrayList<>();
+        dbContext.select("id").from("keyset_table")
+                .pages(Collections.singletonList("id desc"), 10, row -> row.getInt("id"))
+                .forEach(ids::addAll);
+        assertThat(ids).hasSize(25).startsWith(25, 24).endsWith(1);
+    }
+}
@@ -0,0 +1,115 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.fluentjdbc.opt.junit.DbContextRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTablesIfExists;
+
+public class DbContextListWithTotalTest {
+
+    private final DataSource dataSource;
+    private final Map<String, String> replacements;
+
+    @Rule
+    public final DbContextRule dbContext;
+
+    private final DbContextTable categories;
+    private final DbContextTable items;
+
+    public DbContextListWithTotalTest() {
+        this(H2TestDatabase.createDataSource(), H2TestDatabase.REPLACEMENTS);
+    }
+
+    protected DbContextListWithTotalTest(DataSource dataSource, Map<String, String> replacements) {
+        this.dataSource = dataSource;
+        this.replacements = replacements;
+        this.dbContext = new DbContextRule(dataSource);
+        categories = dbContext.table("total_categories");
+        items = dbContext.table("total_items");
+    }
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTablesIfExists(connection, "total_items", "total_categories");
+            createTable(connection, "create table total_categories (id integer primary key, label varchar(50) not null)", replacements);
+            createTable(connection, "create table total_items (id integer primary key, category_id integer not null references total_categories(id), name varchar(50) not null)", replacements);
+        }
+        categories.insert().setField("id", 1).setField("label", "odd").execute();
+        categories.insert().setField("id", 2).setField("label", "even").execute();
+        for (int id = 1; id <= 11; id++) {
+            items.insert().setField("id", id).setField("category_id", 2 - id % 2).setField("name", "item " + id).execute();
+        }
+    }
+
+    @Test
+    public void shouldReturnPageAndTotal() {
+        DatabasePage<Integer> page = items.where("category_id", 1).orderBy("id")
+                .listWithTotal(2, 2, row -> row.getInt("id"));
+        assertThat(page.getItems()).containsExactly(5, 7);
+        assertThat(page.getTotalCount()).isEqualTo(6);
+        assertThat(page.getOffset()).isEqualTo(2);
+        assertThat(page.hasMore()).isTrue();
+    }
+
+    @Test
+    public void shouldReturnLastPage() {
+        DatabasePage<Integer> page = items.query().orderBy("id").listWithTotal(10, 5, row -> row.getInt("id"));
+        assertThat(page.getItems()).containsExactly(11);
+        assertThat(page.getTotalCount()).isEqualTo(11);
+        assertThat(page.hasMore()).isFalse();
+    }
+
+    @Test
+    public void shouldCountRowsWhenPageIsEmpty() {
+        DatabasePage<Integer> page = items.query().orderBy("id").listWithTotal(20, 5, row -> row.getInt("id"));
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getTotalCount()).isEqualTo(11);
+
+        assertThat(items.where("name", "missing").orderBy("id").listWithTotal(0, 5, row -> row.getInt("id")).getTotalCount())
+                .isZero();
+    }
+
+    @Test
+    public void shouldReturnPageAndTotalForSelectedColumns() {
+        DatabasePage<String> page = dbContext.select("name").from("total_items").where("category_id", 2).orderBy("id")
+                .listWithTotal(0, 3, row -> row.getString("name"));
+        assertThat(page.getItems()).containsExactly("item 2", "item 4", "item 6");
+        assertThat(page.getTotalCount()).isEqualTo(5);
+    }
+
+    @Test
+    public void shouldReturnPageAndTotalForJoins() {
+        DbContextTableAlias i = items.alias("i");
+        DbContextTableAlias c = categories.alias("c");
+        DatabasePage<String> page = i.join(i.column("category_id"), c.column("id"))
+                .where(c.column("label"), "even")
+                .orderBy(i.column("id"))
+                .listWithTotal(1, 2, row -> row.table(c).getString("label") + " " + row.table(i).getString("name"));
+        assertThat(page.getItems()).isEqualTo(Arrays.asList("even item 4", "even item 6"));
+        assertThat(page.getTotalCount()).isEqualTo(5);
+    }
+
+    @Test
+    public void shouldReturnPageAndTotalForJoinWithSelectedColumns() {
+        DbContextTableAlias i = items.alias("i");
+        DbContextTableAlias c = categories.alias("c");
+        DatabasePage<String> page = i.join(i.column("category_id"), c.column("id"))
+                .select(i.column("name"), c.column("label"))
+                .orderBy(i.column("id"))
+                .listWithTotal(9, 5, row -> row.table(c).getString("label") + " " + row.table(i).getString("name"));
+        assertThat(page.getItems()).isEqualTo(Arrays.asList("even item 10", "odd item 11"));
+        assertThat(page.getTotalCount()).isEqualTo(11);
+    }
+}
@@ -0,0 +1,150 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.fluentjdbc.opt.junit.DbContextRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DbContextParallelTest {
+
+    private final DataSource dataSource = H2TestDatabase.createDataSource();
+
+    @Rule
+    public final DbContextRule dbContext = new DbContextRule(dataSource);
+
+    private final DbContextTable table = dbContext.table("parallel_query_table");
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "parallel_query_table");
+            createTable(connection, "create table parallel_query_table (id ${INTEGER_PK}, code integer not null, name varchar(50) null)", H2TestDatabase.REPLACEMENTS);
+        }
+        table.insert().setField("code", 1).setField("name", "one").execute();
+        table.insert().setField("code", 2).setField("name", "two").execute();
+        table.insert().setField("code", 3).setField("name", "three").execute();
+    }
+
+    @Test
+    public void shouldReturnResultsOfAllQueries() {
+        DbContextParallelBuilder parallel = dbContext.parallel();
+        Supplier<List<String>> names = parallel.add(() -> table.query().orderBy("code").listStrings("name"));
+        Supplier<Integer> count = parallel.add(() -> table.where("code", 2).getCount());
+        Supplier<Connection> connection = parallel.add(dbContext::getThreadConnection);
+        parallel.execute();
+
+        assertThat(names.get()).containsExactly("one", "two", "three");
+        assertThat(count.get()).isEqualTo(1);
+        assertThat(connection.get()).isNotSameAs(dbContext.getThreadConnection());
+    }
+
+    @Test
+    public void shouldReturnResultsInOrder() {
+        List<Integer> counts = dbContext.parallel(
+                () -> table.where("code", 1).getCount(),
+                () -> table.query().getCount(),
+                () -> table.where("name", "none").getCount()
+        );
+        assertThat(counts).containsExactly(1, 3, 0);
+    }
+
+    @Test
+    public void shouldLimitConcurrency() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Supplier<Integer> query = () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+                return table.query().getCount();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } finally {
+                running.decrementAndGet();
+            }
+        };
+
+        List<Integer> counts = dbContext.parallel().maxConcurrency(2)
+                .list(Arrays.asList(query, query, query, query, query));
+
+        assertThat(counts).containsOnly(3).hasSize(5);
+        assertThat(maxRunning.get()).isBetween(1, 2);
+    }
+
+    @Test
+    public void shouldPropagateExceptions() {
+        DbContextParallelBuilder parallel = dbContext.parallel();
+        Supplier<Integer> count = parallel.add(() -> table.query().getCount());
+        Supplier<List<String>> failing = parallel.add(() -> dbContext.table("non_existing").query().listStrings("name"));
+
+        assertThatThrownBy(parallel::execute).isInstanceOf(SQLException.class);
+        assertThatThrownBy(failing::get).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void shouldTimeOut() {
+        DbContextParallelBuilder parallel = dbContext.parallel().timeout(Duration.ofMillis(50));
+        Supplier<Integer> slowQuery = parallel.add(() -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException ignored) {
+            }
+            return table.query().getCount();
+        });
+
+        long start = System.currentTimeMillis();
+        assertThatThrownBy(parallel::execute)
+                .isInstanceOf(ParallelQueryTimeoutException.class)
+                .hasCauseInstanceOf(TimeoutException.class);
+        assertThat(System.currentTimeMillis() - start).isLessThan(2000);
+    }
+
+    @Test
+    public void shouldCancelRunningStatementsOnTimeout() throws InterruptedException {
+        AtomicReference<Exception> queryFailure = new AtomicReference<>();
+        CountDownLatch queryCompleted = new CountDownLatch(1);
+        DbContextParallelBuilder parallel = dbContext.parallel().timeout(Duration.ofMillis(200));
+        Supplier<Long> slowQuery = parallel.add(() -> {
+            try {
+                return dbContext.statement("select sum(a.x * b.x) as total from system_range(1, 100000) a, system_range(1, 100000) b")
+                        .singleLong("total").orElse(null);
+            } catch (Exception e) {
+                queryFailure.set(e);
+                throw e;
+            } finally {
+                queryCompleted.countDown();
+            }
+        });
+
+        assertThatThrownBy(parallel::execute).isInstanceOf(ParallelQueryTimeoutException.class);
+        assertThat(queryCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queryFailure.get()).isInstanceOf(SQLException.class);
+    }
+
+    @Test
+    public void shouldNotRunInsideTransaction() {
+        try (DbTransaction ignored = dbContext.ensureTransaction()) {
+            assertThatThrownBy(() -> dbContext.parallel(() -> table.query().getCount()))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
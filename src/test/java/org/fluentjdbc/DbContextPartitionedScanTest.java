@@ -0,0 +1,173 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DbContextPartitionedScanTest {
+
+    private final DataSource dataSource = H2TestDatabase.createDataSource();
+    private final DbContext dbContext = new DbContext();
+    private final DbContextTable table = dbContext.table("partitioned_table");
+    private final AtomicInteger openedConnections = new AtomicInteger();
+    private final AtomicInteger closedConnections = new AtomicInteger();
+    private DbContextConnection connection;
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "partitioned_table");
+            createTable(connection, "create table partitioned_table (id integer primary key, category integer not null, ref integer null)", H2TestDatabase.REPLACEMENTS);
+        }
+        connection = dbContext.startConnection(this::getConnection);
+        table.bulkInsert(IntStream.rangeClosed(1, 1000).boxed())
+                .setField("id", id -> id)
+                .setField("category", id -> id % 4)
+                .setField("ref", id -> id % 10 == 0 ? null : id)
+                .execute();
+    }
+
+    @After
+    public void closeConnection() {
+        connection.close();
+    }
+
+    @Test
+    public void shouldReadAllRowsInRangePartitions() {
+        openedConnections.set(0);
+        closedConnections.set(0);
+        try (Stream<Integer> ids = table.query().partitioned("id", 8).stream(row -> row.getInt("id"))) {
+            assertThat(ids.isParallel()).isTrue();
+            assertThat(ids.sorted().collect(Collectors.toList()))
+                    .isEqualTo(IntStream.rangeClosed(1, 1000).boxed().collect(Collectors.toList()));
+        }
+        assertThat(openedConnections.get()).isEqualTo(8);
+        assertThat(closedConnections.get()).isEqualTo(8);
+    }
+
+    @Test
+    public void shouldCoverRowsInsertedOutsideInitialRange() {
+        DbContextPartitionedScanBuilder scan = table.query().partitioned("id", 3);
+        List<DatabaseQueryParameter> predicates = scan.rangePredicates();
+        assertThat(predicates).extracting(DatabaseQueryParameter::getWhereExpression)
+                .containsExactly("(id < ? or id is null)", "id >= ? and id < ?", "id >= ?");
+        assertThat(predicates).extracting(p -> p.getParameters().toString())
+                .containsExactly("[335]", "[335, 669]", "[669]");
+    }
+
+    @Test
+    public void shouldPartitionByModuloWhenKeysSpanMoreThanLongRange() throws SQLException {
+        List<Long> keys = Arrays.asList(Long.MIN_VALUE + 1, -5L, 0L, 7L, Long.MAX_VALUE);
+        DbContextTable wideTable = createWideTable(keys);
+        assertThat(wideTable.query().partitioned("id", 4).rangePredicates())
+                .extracting(DatabaseQueryParameter::getWhereExpression)
+                .hasSize(4)
+                .allMatch(expression -> expression.contains("mod(id, 4)"));
+        try (Stream<Long> ids = wideTable.query().partitioned("id", 4).stream(row -> row.getLong("id"))) {
+            assertThat(ids.collect(Collectors.toList())).containsExactlyInAnyOrderElementsOf(keys);
+        }
+    }
+
+    @Test
+    public void shouldPartitionRangesWithKeysNearLongMaxValue() throws SQLException {
+        List<Long> keys = LongStream.rangeClosed(Long.MAX_VALUE - 20, Long.MAX_VALUE).boxed().collect(Collectors.toList());
+        DbContextTable wideTable = createWideTable(keys);
+        assertThat(wideTable.query().partitioned("id", 8).rangePredicates()).hasSize(7);
+        try (Stream<Long> ids = wideTable.query().partitioned("id", 8).stream(row -> row.getLong("id"))) {
+            assertThat(ids.collect(Collectors.toList())).containsExactlyInAnyOrderElementsOf(keys);
+        }
+    }
+
+    private DbContextTable createWideTable(List<Long> keys) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "partitioned_wide_table");
+            createTable(connection, "create table partitioned_wide_table (id bigint primary key)", H2TestDatabase.REPLACEMENTS);
+        }
+        DbContextTable wideTable = dbContext.table("partitioned_wide_table");
+        wideTable.bulkInsert(keys).setField("id", id -> id).execute();
+        return wideTable;
+    }
+
+    @Test
+    public void shouldPartitionByModulo() {
+        try (Stream<Integer> ids = table.where("category", 1).partitioned("id", 5).byModulo().stream(row -> row.getInt("id"))) {
+            assertThat(ids.collect(Collectors.toSet()))
+                    .hasSize(250)
+                    .allMatch(id -> id % 4 == 1);
+        }
+    }
+
+    @Test
+    public void shouldIncludeRowsWithNullKey() {
+        try (Stream<Integer> ids = table.query().partitioned("ref", 4).stream(row -> row.getInt("id"))) {
+            assertThat(ids.collect(Collectors.toSet())).hasSize(1000);
+        }
+        try (Stream<Integer> ids = table.query().partitioned("ref", 4).byModulo().stream(row -> row.getInt("id"))) {
+            assertThat(ids.collect(Collectors.toSet())).hasSize(1000);
+        }
+        try (Stream<Integer> ids = table.where("category", 2).whereExpression("ref is null").partitioned("ref", 4).stream(row -> row.getInt("id"))) {
+            assertThat(ids.collect(Collectors.toSet())).hasSize(50).allMatch(id -> id % 10 == 0);
+        }
+    }
+
+    @Test
+    public void shouldReturnEmptyStreamForEmptyResult() {
+        try (Stream<Integer> ids = table.where("category", 7).partitioned("id", 4).stream(row -> row.getInt("id"))) {
+            assertThat(ids.count()).isZero();
+        }
+    }
+
+    @Test
+    public void shouldCloseOpenPartitionsWhenStreamIsClosed() {
+        openedConnections.set(0);
+        closedConnections.set(0);
+        Stream<Integer> ids = table.query().partitioned("id", 4).fetchSize(10).stream(row -> row.getInt("id"));
+        assertThat(ids.sequential().iterator().next()).isNotNull();
+        assertThat(openedConnections.get()).isEqualTo(1);
+        assertThat(closedConnections.get()).isZero();
+        ids.close();
+        assertThat(closedConnections.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotScanInTransaction() {
+        try (DbTransaction ignored = dbContext.ensureTransaction()) {
+            assertThatThrownBy(() -> table.query().partitioned("id", 2).stream(row -> row.getInt("id")))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    private Connection getConnection() throws SQLException {
+        openedConnections.incrementAndGet();
+        Connection connection = dataSource.getConnection();
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Connection.class}, (proxy, method, args) -> {
+            if (method.getName().equals("close")) {
+                closedConnections.incrementAndGet();
+            }
+            try {
+                return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        });
+    }
+}
@@ -0,0 +1,107 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DbContextPrefetchTest {
+
+    private final DataSource dataSource = H2TestDatabase.createDataSource();
+    private final List<String> statements = new ArrayList<>();
+    private final DbContext dbContext = new DbContext(
+            new DatabaseStatementFactory(tableName -> operation -> (query, timing) -> statements.add(operation + " " + tableName)),
+            DatabaseTransactionReporter.LOGGING_REPORTER
+    );
+    private final DbContextTable lines = dbContext.table("prefetch_lines");
+    private DbContextConnection connection;
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "prefetch_lines");
+            createTable(connection, "create table prefetch_lines (id ${INTEGER_PK}, order_id bigint not null, product varchar(50) not null, line_number integer not null)", H2TestDatabase.REPLACEMENTS);
+        }
+        connection = dbContext.startConnection(dataSource);
+        saveLine(1L, "apple", 2);
+        saveLine(1L, "banana", 1);
+        saveLine(2L, "cherry", 1);
+        saveLine(10_500L, "durian", 1);
+        statements.clear();
+    }
+
+    @After
+    public void closeConnection() {
+        connection.close();
+    }
+
+    @Test
+    public void shouldGroupChildrenByKey() {
+        Map<Long, List<String>> result = lines.query().orderBy("line_number")
+                .prefetch("order_id", Arrays.asList(2L, 1L, 3L, 1L), row -> row.getString("product"));
+        assertThat(result).containsOnlyKeys(2L, 1L, 3L);
+        assertThat(new ArrayList<>(result.keySet())).containsExactly(2L, 1L, 3L);
+        assertThat(result.get(1L)).containsExactly("banana", "apple");
+        assertThat(result.get(2L)).containsExactly("cherry");
+        assertThat(result.get(3L)).isEmpty();
+        assertThat(statements).containsExactly("SELECT prefetch_lines");
+    }
+
+    @Test
+    public void shouldCombineWithQueryConditions() {
+        Map<Long, List<String>> result = lines.where("line_number", 1)
+                .prefetch("order_id", Arrays.asList(1L, 2L), row -> row.getString("product"));
+        assertThat(result.get(1L)).containsExactly("banana");
+        assertThat(result.get(2L)).containsExactly("cherry");
+    }
+
+    @Test
+    public void shouldSplitKeysIntoChunks() {
+        List<Long> keys = LongStream.rangeClosed(1, 12_000).boxed().collect(Collectors.toList());
+        Map<Long, List<String>> result = lines.prefetch("order_id", keys, row -> row.getString("product"));
+        assertThat(result).hasSize(12_000);
+        assertThat(result.get(1L)).containsExactlyInAnyOrder("apple", "banana");
+        assertThat(result.get(10_500L)).containsExactly("durian");
+        assertThat(statements).hasSize(2);
+    }
+
+    @Test
+    public void shouldNotQueryForNoKeys() {
+        assertThat(lines.prefetch("order_id", Collections.<Long>emptyList(), row -> row.getString("product"))).isEmpty();
+        assertThat(statements).isEmpty();
+    }
+
+    @Test
+    public void shouldReadKeysAsTypeOfRequestedKeys() {
+        Map<Integer, List<String>> result = lines.prefetch("order_id", Arrays.asList(1, 2), row -> row.getString("product"));
+        assertThat(result.get(2)).containsExactly("cherry");
+        Map<String, List<String>> byString = lines.prefetch("product", Arrays.asList("apple", "cherry"), row -> row.getString("product"));
+        assertThat(byString.get("apple")).containsExactly("apple");
+    }
+
+    @Test
+    public void shouldRejectNullKeys() {
+        assertThatThrownBy(() -> lines.prefetch("order_id", Arrays.asList(1L, null), row -> row.getString("product")))
+                .isInstanceOf(NullPointerException.class);
+    }
+
+    private void saveLine(long orderId, String product, int lineNumber) {
+        lines.insert().setField("order_id", orderId).setField("product", product).setField("line_number", lineNumber).execute();
+    }
+}
@@ -0,0 +1,163 @@
+package org.fluentjdbc;
+
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DbContextWhereInTest {
+
+    private final DataSource dataSource;
+    private final Map<String, String> replacements;
+    private final List<String> statements = new ArrayList<>();
+    private final DbContext dbContext = new DbContext(
+            new DatabaseStatementFactory(tableName -> operation -> (query, timing) -> statements.add(query.getStatement())),
+            DatabaseTransactionReporter.LOGGING_REPORTER
+    );
+    private final DbContextTable table = dbContext.table("where_in_table");
+    private final List<UUID> uuids = new ArrayList<>();
+    private DbContextConnection connection;
+    private DatabaseDialect dialect;
+
+    public DbContextWhereInTest() {
+        this(H2TestDatabase.createDataSource(), H2TestDatabase.REPLACEMENTS);
+    }
+
+    protected DbContextWhereInTest(DataSource dataSource, Map<String, String> replacements) {
+        this.dataSource = dataSource;
+        this.replacements = replacements;
+    }
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "where_in_table");
+            createTable(connection, "create table where_in_table (id bigint primary key, uuid uuid not null, name varchar(50) not null)", replacements);
+        }
+        connection = dbContext.startConnection(dataSource);
+        dialect = DatabaseDialect.fromConnection(dbContext.getThreadConnection());
+        table.bulkInsert(LongStream.rangeClosed(1, 3000).boxed())
+                .setField("id", id -> id)
+                .setField("uuid", id -> {
+                    UUID uuid = UUID.randomUUID();
+                    uuids.add(uuid);
+                    return uuid;
+                })
+                .setField("name", id -> "name " + id)
+                .execute();
+        statements.clear();
+    }
+
+    @After
+    public void closeConnection() {
+        connection.close();
+    }
+
+    @Test
+    public void shouldBindLongsAsArray() {
+        assertThat(table.whereIn("id", Arrays.asList(3L, 1L, 2999L), dialect).orderBy("id").listLongs("id"))
+                .containsExactly(1L, 3L, 2999L);
+        if (dialect.supportsArrayParameters()) {
+            assertThat(statements).containsExactly("select * from where_in_table WHERE (id = ANY(?)) order by id");
+        } else {
+            assertThat(statements).containsExactly("select * from where_in_table WHERE (id IN (?, ?, ?, ?)) order by id");
+        }
+    }
+
+    @Test
+    public void shouldBindUuidsAndStringsAsArray() {
+        assertThat(table.whereIn("uuid", Arrays.asList(uuids.get(4), uuids.get(9)), dialect).orderBy("id").listLongs("id"))
+                .containsExactly(5L, 10L);
+        assertThat(table.whereIn("name", Arrays.asList("name 7", "name 8", "nothing"), dialect).orderBy("id").listLongs("id"))
+                .containsExactly(7L, 8L);
+    }
+
+    @Test
+    public void shouldPadInListToPowerOfTwo() {
+        assertThat(table.whereIn("id", Arrays.asList(1L, 2L, 3L), DatabaseDialect.UNKNOWN).listLongs("id"))
+                .containsOnly(1L, 2L, 3L);
+        assertThat(table.whereIn("id", Arrays.asList(4L, 5L, 6L, 7L), DatabaseDialect.UNKNOWN).listLongs("id"))
+                .containsOnly(4L, 5L, 6L, 7L);
+        assertThat(statements).containsOnly("select * from where_in_table WHERE (id IN (?, ?, ?, ?))");
+
+        DatabaseQueryParameter parameter = DatabaseInListStrategy.PADDED.createParameter("id", Arrays.asList(1, 2, 3, 4, 5), DatabaseDialect.UNKNOWN);
+        assertThat(parameter.getParameters().toString()).isEqualTo("[1, 2, 3, 4, 5, 5, 5, 5]");
+    }
+
+    @Test
+    public void shouldSplitLargeInLists() {
+        List<Long> ids = LongStream.rangeClosed(1, 2600).boxed().collect(Collectors.toList());
+        DatabaseQueryParameter parameter = DatabaseInListStrategy.PADDED.createParameter("id", ids, DatabaseDialect.ORACLE);
+        assertThat(parameter.getParameters()).hasSize(1000 + 1000 + 1000);
+        assertThat(parameter.getWhereExpression()).matches("\\(id IN \\([?, ]+\\) OR id IN \\([?, ]+\\) OR id IN \\([?, ]+\\)\\)");
+
+        assertThat(table.query().where(parameter).listLongs("id")).hasSize(2600);
+    }
+
+    @Test
+    public void shouldRejectMoreParametersThanStatementAllows() {
+        List<Long> ids = LongStream.rangeClosed(1, 2600).boxed().collect(Collectors.toList());
+        assertThatThrownBy(() -> table.whereIn("id", ids, DatabaseDialect.SQL_SERVER))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("2100");
+        assertThatThrownBy(() -> table.whereIn(Collections.singletonList("id"), ids.stream().map(Collections::singletonList).collect(Collectors.toList()), DatabaseDialect.SQLITE))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        List<Long> found = table.query().listByKeys(
+                Collections.singletonList("id"), ids.stream().map(Collections::singletonList).collect(Collectors.toList()), row -> row.getLong("id")
+        );
+        assertThat(found).hasSize(2600);
+    }
+
+    @Test
+    public void shouldListWhereInWithOneQueryPerChunk() {
+        List<Long> ids = LongStream.rangeClosed(1, 2600).boxed().collect(Collectors.toList());
+        DatabaseTableQueryBuilder query = new DatabaseTableImpl("where_in_table", dbContext.getStatementFactory()).query()
+                .where("name", "name 1");
+        List<Long> found = query.listWhereIn(
+                dbContext.getThreadConnection(), "id", ids, DatabaseDialect.SQL_SERVER, row -> row.getLong("id")
+        );
+        assertThat(found).containsExactly(1L);
+        assertThat(statements).hasSize(3);
+        for (String statement : statements) {
+            assertThat(statement.chars().filter(c -> c == '?').count()).isLessThanOrEqualTo(2100);
+        }
+
+        statements.clear();
+        assertThat(table.query().orderBy("id").listWhereIn("id", ids, row -> row.getLong("id"))).isEqualTo(ids);
+        if (dialect.getMaxStatementParameters() == Integer.MAX_VALUE || dialect.supportsArrayParameters()) {
+            assertThat(statements).hasSize(1);
+        }
+        assertThat(table.listWhereIn("id", Collections.emptyList(), row -> row.getLong("id"))).isEmpty();
+    }
+
+    @Test
+    public void shouldFallBackToInListForOtherTypes() {
+        List<Object> mixed = Arrays.asList(1L, 2);
+        assertThat(DatabaseInListStrategy.forDialect(DatabaseDialect.H2, mixed)).isEqualTo(DatabaseInListStrategy.PADDED);
+        assertThat(DatabaseInListStrategy.forDialect(DatabaseDialect.H2, Arrays.asList(1L, 2L))).isEqualTo(DatabaseInListStrategy.ARRAY);
+        assertThat(DatabaseInListStrategy.forDialect(DatabaseDialect.SQL_SERVER, Arrays.asList(1L, 2L))).isEqualTo(DatabaseInListStrategy.PADDED);
+    }
+
+    @Test
+    public void shouldReturnNothingForEmptyList() {
+        assertThat(table.whereIn("id", Collections.emptyList(), dialect).listLongs("id")).isEmpty();
+    }
+}
@@ -0,0 +1,73 @@
+package org.fluentjdbc.benchmark;
+
+import org.fluentjdbc.DatabaseMetricsReporter;
+import org.fluentjdbc.DatabaseStatement;
+import org.fluentjdbc.DatabaseTableOperationReporter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of recording a query in {@link DatabaseMetricsReporter}, compared to a reporter
+ * which does nothing, with one thread and with eight threads reporting to the same table. Run with
+ * <code>mvn test-compile exec:java -Dexec.mainClass=org.fluentjdbc.benchmark.DatabaseMetricsReporterBenchmark
+ * -Dexec.classpathScope=test</code> or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatabaseMetricsReporterBenchmark {
+
+    private final DatabaseMetricsReporter metrics = new DatabaseMetricsReporter();
+    private final DatabaseTableOperationReporter noop = (query, timing) -> {};
+    private final DatabaseStatement statement = new DatabaseStatement(
+            "benchmark_table", "select * from benchmark_table", Collections.emptyList(), noop
+    );
+
+    @Benchmark
+    public long baseline() {
+        long timing = ThreadLocalRandom.current().nextLong(1, 10);
+        noop.reportQuery(statement, timing);
+        return timing;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long baselineContended() {
+        return baseline();
+    }
+
+    @Benchmark
+    public long record() {
+        long timing = ThreadLocalRandom.current().nextLong(1, 10);
+        metrics.table("benchmark_table").operation("SELECT").reportQuery(statement, timing);
+        return timing;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long recordContended() {
+        return record();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DatabaseMetricsReporterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
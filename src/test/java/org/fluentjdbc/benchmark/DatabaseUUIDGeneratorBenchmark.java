@@ -0,0 +1,91 @@
+package org.fluentjdbc.benchmark;
+
+import org.fluentjdbc.DatabaseReporter;
+import org.fluentjdbc.DatabaseStatementFactory;
+import org.fluentjdbc.DatabaseTableImpl;
+import org.fluentjdbc.DatabaseUUIDGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the insert throughput into a table with a UUID primary key, with random (version 4)
+ * and time-ordered (version 7) keys from {@link DatabaseUUIDGenerator}, on file based H2 and
+ * HSQLDB databases in <code>target/benchmark</code>. Each iteration inserts into a table which
+ * keeps growing, so the difference increases as the index outgrows the cache. Run with
+ * <code>mvn test-compile exec:java -Dexec.mainClass=org.fluentjdbc.benchmark.DatabaseUUIDGeneratorBenchmark
+ * -Dexec.classpathScope=test</code> or from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class DatabaseUUIDGeneratorBenchmark {
+
+    @Param({"h2", "hsqldb"})
+    public String database;
+
+    @Param({"RANDOM", "TIME_ORDERED"})
+    public String generator;
+
+    private Connection connection;
+    private DatabaseTableImpl table;
+
+    @Setup(Level.Trial)
+    public void createTable() throws SQLException {
+        String path = "target/benchmark/uuid-" + generator;
+        if (database.equals("h2")) {
+            connection = DriverManager.getConnection("jdbc:h2:file:./" + path + "-h2");
+        } else {
+            connection = DriverManager.getConnection("jdbc:hsqldb:file:" + path + "-hsqldb;hsqldb.default_table_type=cached");
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("drop table if exists uuid_benchmark");
+            statement.executeUpdate("create table uuid_benchmark (id uuid primary key, name varchar(100) not null)");
+        }
+        table = new DatabaseTableImpl("uuid_benchmark", new DatabaseStatementFactory(DatabaseReporter.LOGGING_REPORTER))
+                .setUUIDGenerator(generator.equals("RANDOM") ? DatabaseUUIDGenerator.RANDOM : DatabaseUUIDGenerator.TIME_ORDERED);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeConnection() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("drop table uuid_benchmark");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public UUID insert() {
+        return table.newSaveBuilderWithUUID("id", null)
+                .setField("name", "row inserted by benchmark")
+                .execute(connection)
+                .getId();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DatabaseUUIDGeneratorBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -80,6 +80,42 @@ public final class HsqldbTests {
         }
     }
 
+    public static class DbContextListWithTotalTest extends org.fluentjdbc.DbContextListWithTotalTest {
+        public DbContextListWithTotalTest() {
+            super(getDataSource(), REPLACEMENTS);
+        }
+    }
+
+    public static class DbContextWhereInTest extends org.fluentjdbc.DbContextWhereInTest {
+        public DbContextWhereInTest() {
+            super(getDataSource(), REPLACEMENTS);
+        }
+    }
+
+    public static class DbContextCompositeKeyTest extends org.fluentjdbc.DbContextCompositeKeyTest {
+        public DbContextCompositeKeyTest() {
+            super(getDataSource(), REPLACEMENTS);
+        }
+    }
+
+    public static class DbContextIdAllocatorTest extends org.fluentjdbc.DbContextIdAllocatorTest {
+        public DbContextIdAllocatorTest() {
+            super(getDataSource(), REPLACEMENTS);
+        }
+    }
+
+    public static class DbContextBinaryStreamTest extends org.fluentjdbc.DbContextBinaryStreamTest {
+        public DbContextBinaryStreamTest() {
+            super(getDataSource(), REPLACEMENTS);
+        }
+    }
+
+    public static class DbContextColumnBatchTest extends org.fluentjdbc.DbContextColumnBatchTest {
+        public DbContextColumnBatchTest() {
+            super(getDataSource(), REPLACEMENTS);
+        }
+    }
+
     public static class UsageDemonstrationTest extends org.fluentjdbc.usage.context.UsageDemonstrationTest {
         public UsageDemonstrationTest() {
             super(getDataSource(), REPLACEMENTS);
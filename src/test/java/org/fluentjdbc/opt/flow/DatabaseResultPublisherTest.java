@@ -0,0 +1,248 @@
+package org.fluentjdbc.opt.flow;
+
+import org.fluentjdbc.DbContextTable;
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.fluentjdbc.opt.junit.DbContextRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DatabaseResultPublisherTest {
+
+    private final DataSource dataSource = H2TestDatabase.createDataSource();
+
+    @Rule
+    public final DbContextRule dbContext = new DbContextRule(dataSource);
+
+    private final DbContextTable table = dbContext.table("publisher_table");
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final List<Connection> connections = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "publisher_table");
+            createTable(connection, "create table publisher_table (id ${INTEGER_PK}, code integer not null, name varchar(50) null)", H2TestDatabase.REPLACEMENTS);
+        }
+        for (int i = 1; i <= 10; i++) {
+            table.insert().setField("code", i).setField("name", "row " + i).execute();
+        }
+    }
+
+    @After
+    public void shutdownExecutor() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldDeliverOnlyRequestedRows() throws InterruptedException {
+        TestSubscriber subscriber = new TestSubscriber();
+        createPublisher().subscribe(subscriber);
+
+        subscriber.subscription.request(3);
+        subscriber.awaitItems(3);
+        assertThat(subscriber.items).containsExactly(1, 2, 3);
+        Thread.sleep(50);
+        assertThat(subscriber.items).hasSize(3);
+        assertThat(subscriber.completed.getCount()).isEqualTo(1);
+
+        subscriber.subscription.request(4);
+        subscriber.awaitItems(7);
+        assertThat(subscriber.items).containsExactly(1, 2, 3, 4, 5, 6, 7);
+    }
+
+    @Test
+    public void shouldCompleteAndCloseConnection() throws InterruptedException, SQLException {
+        TestSubscriber subscriber = new TestSubscriber();
+        createPublisher().subscribe(subscriber);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertThat(subscriber.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.items).hasSize(10);
+        assertThat(subscriber.error).isNull();
+        assertThat(connections).hasSize(1);
+        assertThat(connections.get(0).isClosed()).isTrue();
+    }
+
+    @Test
+    public void shouldCloseConnectionOnCancel() throws InterruptedException, SQLException {
+        TestSubscriber subscriber = new TestSubscriber();
+        createPublisher().subscribe(subscriber);
+
+        subscriber.subscription.request(2);
+        subscriber.awaitItems(2);
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(5);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(subscriber.items).containsExactly(1, 2);
+        assertThat(connections.get(0).isClosed()).isTrue();
+        assertThat(subscriber.completed.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldOpenConnectionPerSubscriber() throws InterruptedException {
+        DatabaseResultPublisher<Integer> publisher = createPublisher();
+        TestSubscriber first = new TestSubscriber();
+        TestSubscriber second = new TestSubscriber();
+        publisher.subscribe(first);
+        publisher.subscribe(second);
+
+        first.subscription.request(Long.MAX_VALUE);
+        second.subscription.request(Long.MAX_VALUE);
+        assertThat(first.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(first.items).isEqualTo(second.items).hasSize(10);
+        assertThat(connections).hasSize(2);
+    }
+
+    @Test
+    public void shouldSignalErrorOnInvalidRequest() throws InterruptedException {
+        TestSubscriber subscriber = new TestSubscriber();
+        createPublisher().subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+        assertThat(subscriber.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.error).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void shouldSignalQueryErrors() throws InterruptedException, SQLException {
+        TestSubscriber subscriber = new TestSubscriber();
+        new DatabaseResultPublisher<>(
+                this::getConnection,
+                dbContext.table("missing_table").query().getDatabaseStatement(),
+                row -> row.getInt("code"),
+                executor
+        ).subscribe(subscriber);
+
+        subscriber.subscription.request(1);
+        assertThat(subscriber.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.error).isInstanceOf(SQLException.class);
+        assertThat(connections.get(0).isClosed()).isTrue();
+    }
+
+    @Test
+    public void shouldCloseConnectionWhenRollbackFails() throws InterruptedException, SQLException {
+        TestSubscriber subscriber = new TestSubscriber();
+        new DatabaseResultPublisher<>(
+                () -> failingRollback(getConnection()),
+                table.query().orderBy("code").getDatabaseStatement(),
+                row -> row.getInt("code"),
+                executor
+        ).subscribe(subscriber);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        assertThat(subscriber.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.items).hasSize(10);
+        assertThat(connections.get(0).isClosed()).isTrue();
+    }
+
+    @Test
+    public void shouldReleaseConnectionWhenExecutorRejects() throws InterruptedException, SQLException {
+        TestSubscriber subscriber = new TestSubscriber();
+        createPublisher().subscribe(subscriber);
+
+        subscriber.subscription.request(2);
+        subscriber.awaitItems(2);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        subscriber.subscription.request(1);
+
+        assertThat(subscriber.completed.getCount()).isZero();
+        assertThat(subscriber.error).isInstanceOf(RejectedExecutionException.class);
+        assertThat(subscriber.items).containsExactly(1, 2);
+        assertThat(connections.get(0).isClosed()).isTrue();
+    }
+
+    private DatabaseResultPublisher<Integer> createPublisher() {
+        return new DatabaseResultPublisher<>(
+                this::getConnection,
+                table.query().orderBy("code").getDatabaseStatement(),
+                row -> row.getInt("code"),
+                executor
+        ).fetchSize(2);
+    }
+
+    private Connection getConnection() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        connections.add(connection);
+        return connection;
+    }
+
+    private static Connection failingRollback(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("rollback")) {
+                        throw new SQLException("Connection is broken");
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                }
+        );
+    }
+
+    private static class TestSubscriber implements Flow.Subscriber<Integer> {
+        private final List<Integer> items = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile Flow.Subscription subscription;
+        private volatile Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            this.error = throwable;
+            completed.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed.countDown();
+        }
+
+        private void awaitItems(int count) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (items.size() < count && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(items).hasSizeGreaterThanOrEqualTo(count);
+        }
+    }
+}
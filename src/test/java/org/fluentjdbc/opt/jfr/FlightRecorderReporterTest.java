@@ -0,0 +1,115 @@
+package org.fluentjdbc.opt.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.fluentjdbc.DatabaseStatementFactory;
+import org.fluentjdbc.DbContext;
+import org.fluentjdbc.DbContextConnection;
+import org.fluentjdbc.DbContextTable;
+import org.fluentjdbc.DbTransaction;
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class FlightRecorderReporterTest {
+
+    private final DataSource dataSource = H2TestDatabase.createDataSource();
+    private final FlightRecorderReporter reporter = new FlightRecorderReporter();
+    private final DbContext dbContext = new DbContext(new DatabaseStatementFactory(reporter), reporter);
+    private final DbContextTable table = dbContext.table("jfr_table");
+    private final Recording recording = new Recording();
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        dbContext.setConnectionReporter(reporter);
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "jfr_table");
+            createTable(connection, "create table jfr_table (id ${INTEGER_PK}, code integer not null, name varchar(50) null)", H2TestDatabase.REPLACEMENTS);
+        }
+        recording.enable("org.fluentjdbc.Statement");
+        recording.enable("org.fluentjdbc.Transaction");
+        recording.enable("org.fluentjdbc.Connection");
+        recording.start();
+    }
+
+    @After
+    public void closeRecording() {
+        recording.close();
+    }
+
+    @Test
+    public void shouldRecordStatements() throws IOException {
+        try (DbContextConnection ignored = dbContext.startConnection(dataSource)) {
+            table.insert().setField("code", 1).setField("name", "one").execute();
+            table.bulkInsert(Arrays.asList(2, 3, 4)).setField("code", c -> c).setField("name", c -> "row " + c).execute();
+            assertThat(table.query().listStrings("name")).hasSize(4);
+        }
+
+        List<RecordedEvent> events = readEvents("org.fluentjdbc.Statement");
+        assertThat(events).extracting(e -> e.getString("operation")).containsExactly("INSERT", "INSERT", "SELECT");
+        assertThat(events).extracting(e -> e.getString("table")).containsOnly("jfr_table");
+        assertThat(events.get(0).getInt("updateCount")).isEqualTo(1);
+        assertThat(events.get(1).getInt("batchSize")).isEqualTo(3);
+        assertThat(events.get(1).getInt("updateCount")).isEqualTo(3);
+
+        RecordedEvent select = events.get(2);
+        assertThat(select.getString("sql")).startsWith("select * from jfr_table");
+        assertThat(select.getInt("rowCount")).isEqualTo(4);
+        assertThat(select.getLong("estimatedBytes")).isPositive();
+        assertThat(select.getDuration().toNanos()).isPositive();
+        assertThat(select.getStackTrace()).isNotNull();
+    }
+
+    @Test
+    public void shouldRecordTransactionsAndConnections() throws IOException {
+        try (DbContextConnection ignored = dbContext.startConnection(dataSource)) {
+            try (DbTransaction tx = dbContext.ensureTransaction()) {
+                table.insert().setField("code", 1).setField("name", "one").execute();
+                tx.setComplete();
+            }
+            try (DbTransaction ignoredTx = dbContext.ensureTransaction()) {
+                table.insert().setField("code", 2).setField("name", "two").execute();
+            }
+        }
+
+        assertThat(readEvents("org.fluentjdbc.Transaction"))
+                .extracting(e -> e.getBoolean("commit"))
+                .containsExactly(true, false);
+        List<RecordedEvent> connections = readEvents("org.fluentjdbc.Connection");
+        assertThat(connections).extracting(e -> e.getString("action")).containsExactly("acquire", "release");
+        assertThat(connections.get(1).getDuration("heldTime").toNanos()).isPositive();
+    }
+
+    private List<RecordedEvent> readEvents(String eventName) throws IOException {
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        Path file = Files.createTempFile("fluent-jdbc", ".jfr");
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals(eventName))
+                    .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package org.fluentjdbc.oracle;
 
 import oracle.jdbc.pool.OracleConnectionPoolDataSource;
+import org.fluentjdbc.DatabaseDialect;
 import org.fluentjdbc.DatabaseSaveResult;
 import org.fluentjdbc.util.ExceptionUtil;
 import org.junit.Assume;
@@ -12,10 +13,15 @@ import org.junit.runner.RunWith;
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
 /**
  * Not supported:
  *
@@ -99,6 +105,18 @@ public class OracleTests {
         }
     }
 
+    public static class DbContextIdAllocatorTest extends org.fluentjdbc.DbContextIdAllocatorTest {
+        public DbContextIdAllocatorTest() throws SQLException {
+            super(getDataSource(), REPLACEMENTS);
+        }
+    }
+
+    public static class DbContextCompositeKeyTest extends org.fluentjdbc.DbContextCompositeKeyTest {
+        public DbContextCompositeKeyTest() throws SQLException {
+            super(getDataSource(), REPLACEMENTS);
+        }
+    }
+
     public static class UsageDemonstrationTest extends org.fluentjdbc.usage.context.UsageDemonstrationTest {
         public UsageDemonstrationTest() throws SQLException {
             super(getDataSource(), REPLACEMENTS);
@@ -111,6 +129,22 @@ public class OracleTests {
         }
     }
 
+    public static class ExplainTest {
+        @Test
+        public void shouldExplainQueryWithParameters() throws SQLException {
+            try (Connection connection = getConnection()) {
+                dropTableIfExists(connection, "explain_table");
+                createTable(connection, "create table explain_table (id integer primary key, name varchar(50) not null)", REPLACEMENTS);
+                String plan = DatabaseDialect.ORACLE.explain(
+                        connection,
+                        "select * from explain_table where id = ? and name <> '?' and name = ?",
+                        Arrays.asList(1, "one")
+                );
+                assertThat(plan).containsIgnoringCase("explain_table");
+            }
+        }
+    }
+
     static Connection getConnection() throws SQLException {
         return getDataSource().getConnection();
     }
@@ -80,6 +80,24 @@ public class PostgresTests {
         }
     }
 
+    public static class DbContextWhereInTest extends org.fluentjdbc.DbContextWhereInTest {
+        public DbContextWhereInTest() {
+            super(getDataSource(), REPLACEMENTS);
+        }
+    }
+
+    public static class DbContextIdAllocatorTest extends org.fluentjdbc.DbContextIdAllocatorTest {
+        public DbContextIdAllocatorTest() {
+            super(getDataSource(), REPLACEMENTS);
+        }
+    }
+
+    public static class DbContextCompositeKeyTest extends org.fluentjdbc.DbContextCompositeKeyTest {
+        public DbContextCompositeKeyTest() {
+            super(getDataSource(), REPLACEMENTS);
+        }
+    }
+
     public static class UsageDemonstrationTest extends org.fluentjdbc.usage.context.UsageDemonstrationTest {
         public UsageDemonstrationTest() {
             super(getDataSource(), REPLACEMENTS);
@@ -74,6 +74,18 @@ public class SqliteTests {
         }
     }
 
+    public static class DbContextIdAllocatorTest extends org.fluentjdbc.DbContextIdAllocatorTest {
+        public DbContextIdAllocatorTest() {
+            super(getDataSource(), REPLACEMENTS);
+        }
+    }
+
+    public static class DbContextCompositeKeyTest extends org.fluentjdbc.DbContextCompositeKeyTest {
+        public DbContextCompositeKeyTest() {
+            super(getDataSource(), REPLACEMENTS);
+        }
+    }
+
     public static class UsageDemonstrationTest extends org.fluentjdbc.usage.context.UsageDemonstrationTest {
         public UsageDemonstrationTest() {
             super(getDataSource(), REPLACEMENTS);
@@ -148,6 +148,18 @@ public class SqlServerTests {
         }
     }
 
+    public static class DbContextIdAllocatorTest extends org.fluentjdbc.DbContextIdAllocatorTest {
+        public DbContextIdAllocatorTest() {
+            super(getDataSource(), REPLACEMENTS);
+        }
+    }
+
+    public static class DbContextCompositeKeyTest extends org.fluentjdbc.DbContextCompositeKeyTest {
+        public DbContextCompositeKeyTest() {
+            super(getDataSource(), REPLACEMENTS);
+        }
+    }
+
     public static class UsageDemonstrationTest extends org.fluentjdbc.usage.context.UsageDemonstrationTest {
         public UsageDemonstrationTest() {
             super(getDataSource(), REPLACEMENTS);
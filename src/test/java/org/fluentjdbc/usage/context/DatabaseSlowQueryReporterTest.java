@@ -0,0 +1,142 @@
+package org.fluentjdbc.usage.context;
+
+import org.fluentjdbc.DatabaseDialect;
+import org.fluentjdbc.DatabaseReporter;
+import org.fluentjdbc.DatabaseSlowQuery;
+import org.fluentjdbc.DatabaseSlowQueryReporter;
+import org.fluentjdbc.DatabaseStatementFactory;
+import org.fluentjdbc.DatabaseTableImpl;
+import org.fluentjdbc.DatabaseTransactionReporter;
+import org.fluentjdbc.DbContextTable;
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.fluentjdbc.opt.junit.DbContextRule;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DatabaseSlowQueryReporterTest {
+
+    private final DataSource dataSource = H2TestDatabase.createDataSource();
+
+    private final List<DatabaseSlowQuery> slowQueries = new ArrayList<>();
+
+    private final DatabaseSlowQueryReporter reporter = new DatabaseSlowQueryReporter(DatabaseReporter.LOGGING_REPORTER, 0)
+            .setListener(slowQueries::add);
+
+    @Rule
+    public final DbContextRule dbContext = new DbContextRule(
+            dataSource, new DatabaseStatementFactory(reporter), DatabaseTransactionReporter.LOGGING_REPORTER
+    );
+
+    private final DbContextTable table = dbContext.table("slow_table");
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "slow_table");
+            createTable(connection, "create table slow_table (id ${INTEGER_PK}, code integer not null, name varchar(50) null)", H2TestDatabase.REPLACEMENTS);
+        }
+    }
+
+    @Test
+    public void shouldReportQueriesOverThreshold() {
+        table.insert().setField("code", 1).setField("name", "one").execute();
+        assertThat(table.where("code", 1).listStrings("name")).containsExactly("one");
+
+        assertThat(slowQueries).extracting(DatabaseSlowQuery::getOperation).containsExactly("INSERT", "SELECT");
+        DatabaseSlowQuery select = slowQueries.get(1);
+        assertThat(select.getTableName()).isEqualTo("slow_table");
+        assertThat(select.getStatement()).isEqualTo("select * from slow_table WHERE (code = ?)");
+        assertThat(select.getParameters()).containsExactly(1);
+        assertThat(select.getExecution().getRowCount()).isEqualTo(1);
+        assertThat(select.getPlan()).isNull();
+        assertThat(select.getCallSite()).isNotNull();
+        assertThat(select.getCallSite().getClassName()).isEqualTo(getClass().getName());
+        assertThat(select.getCallSite().getMethodName()).isEqualTo("shouldReportQueriesOverThreshold");
+    }
+
+    @Test
+    public void shouldIgnoreFastQueries() {
+        List<DatabaseSlowQuery> reported = new ArrayList<>();
+        DatabaseSlowQueryReporter slowReporter = new DatabaseSlowQueryReporter(DatabaseReporter.LOGGING_REPORTER, 60_000)
+                .setListener(reported::add);
+        DbContextTable fastTable = dbContext.table(new DatabaseTableImpl("slow_table", new DatabaseStatementFactory(slowReporter)));
+        fastTable.insert().setField("code", 1).setField("name", "one").execute();
+        assertThat(fastTable.query().listStrings("name")).containsExactly("one");
+        assertThat(reported).isEmpty();
+    }
+
+    @Test
+    public void shouldRedactParameters() {
+        reporter.setParameterRedactor(DatabaseSlowQueryReporter.REDACT_STRINGS);
+        table.insert().setField("code", 1).setField("name", "secret").execute();
+        assertThat(slowQueries.get(0).getParameters()).containsExactly(1, "***");
+        assertThat(slowQueries.get(0).toString()).doesNotContain("secret");
+    }
+
+    @Test
+    public void shouldAttachPlanForSampledQueries() {
+        reporter.setExplainSampling(dataSource::getConnection, 1.0, Runnable::run);
+        table.insert().setField("code", 1).setField("name", "one").execute();
+        assertThat(table.where("code", 1).listStrings("name")).containsExactly("one");
+
+        assertThat(slowQueries).extracting(DatabaseSlowQuery::getOperation).containsExactly("INSERT", "SELECT");
+        assertThat(slowQueries.get(0).getPlan()).isNull();
+        assertThat(slowQueries.get(1).getPlan()).containsIgnoringCase("slow_table");
+    }
+
+    @Test
+    public void shouldNotExplainInsertWithGeneratedKeys() {
+        reporter.setExplainSampling(dataSource::getConnection, 1.0, Runnable::run);
+        Long id = table.insert().setPrimaryKey("id", (Long) null).setField("code", 1).execute();
+        assertThat(id).isNotNull();
+
+        assertThat(slowQueries).extracting(DatabaseSlowQuery::getOperation).containsExactly("INSERT");
+        assertThat(slowQueries.get(0).getExecution().getUpdateCount()).isNegative();
+        assertThat(slowQueries.get(0).getPlan()).isNull();
+    }
+
+    @Test
+    public void shouldNotWaitForPlan() throws InterruptedException {
+        CountDownLatch explained = new CountDownLatch(1);
+        List<Runnable> tasks = new ArrayList<>();
+        Executor executor = tasks::add;
+        reporter.setExplainSampling(dataSource::getConnection, 1.0, executor)
+                .setListener(slowQuery -> {
+                    slowQueries.add(slowQuery);
+                    explained.countDown();
+                });
+        assertThat(table.query().listStrings("name")).isEmpty();
+        assertThat(table.query().listStrings("name")).isEmpty();
+
+        assertThat(tasks).hasSize(1);
+        assertThat(slowQueries).hasSize(1);
+        assertThat(slowQueries.get(0).getPlan()).isNull();
+        tasks.get(0).run();
+        explained.await();
+        assertThat(slowQueries).hasSize(2);
+        assertThat(slowQueries.get(1).getPlan()).isNotEmpty();
+    }
+
+    @Test
+    public void shouldDetectDialect() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            assertThat(DatabaseDialect.fromConnection(connection)).isEqualTo(DatabaseDialect.H2);
+        }
+        assertThat(DatabaseDialect.fromProductName("PostgreSQL")).isEqualTo(DatabaseDialect.POSTGRESQL);
+        assertThat(DatabaseDialect.fromProductName("Microsoft SQL Server").supportsExplain()).isFalse();
+        assertThat(DatabaseDialect.fromProductName("Something else")).isEqualTo(DatabaseDialect.UNKNOWN);
+    }
+}
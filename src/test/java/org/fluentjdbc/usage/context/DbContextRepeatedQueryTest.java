@@ -0,0 +1,109 @@
+package org.fluentjdbc.usage.context;
+
+import org.fluentjdbc.DbContextConnection;
+import org.fluentjdbc.DbContextTable;
+import org.fluentjdbc.h2.H2TestDatabase;
+import org.fluentjdbc.opt.junit.DbContextRule;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.Description;
+import org.junit.runners.model.Statement;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.fluentjdbc.AbstractDatabaseTest.createTable;
+import static org.fluentjdbc.AbstractDatabaseTest.dropTableIfExists;
+
+public class DbContextRepeatedQueryTest {
+
+    private final DataSource dataSource = H2TestDatabase.createDataSource();
+    private final DbContextRule dbContext = new DbContextRule(dataSource);
+    private final DbContextTable table = dbContext.table("repeated_table");
+    private final List<String> repeated = new ArrayList<>();
+    private final List<StackTraceElement> callSites = new ArrayList<>();
+
+    @Before
+    public void setupDatabase() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            dropTableIfExists(connection, "repeated_table");
+            createTable(connection, "create table repeated_table (id ${INTEGER_PK}, code integer not null, name varchar(50) null)", H2TestDatabase.REPLACEMENTS);
+        }
+        dbContext.setRepeatedQueryThreshold(3, (statement, executions, callSite) -> {
+            repeated.add(statement + " x" + executions);
+            callSites.add(callSite);
+        });
+    }
+
+    @Test
+    public void shouldReportStatementExecutedInLoop() {
+        try (DbContextConnection ignored = dbContext.startConnection(dataSource)) {
+            for (int code = 0; code < 10; code++) {
+                table.insert().setField("code", code).setField("name", "row " + code).execute();
+            }
+            for (int code = 0; code < 5; code++) {
+                assertThat(table.where("code", code).singleString("name").isPresent()).isTrue();
+            }
+        }
+        assertThat(repeated).containsExactly(
+                "insert into repeated_table (code, name) values (?, ...) x4",
+                "select * from repeated_table WHERE (code = ?) x4"
+        );
+        assertThat(callSites).extracting(StackTraceElement::getMethodName)
+                .containsOnly("shouldReportStatementExecutedInLoop");
+    }
+
+    @Test
+    public void shouldNormalizeLiteralsAndInLists() {
+        try (DbContextConnection ignored = dbContext.startConnection(dataSource)) {
+            dbContext.statement("select * from repeated_table where code = 1 and name = 'a'").list(row -> row.getInt("code"));
+            dbContext.statement("select * from repeated_table where code = 22 and name = 'it''s'").list(row -> row.getInt("code"));
+            dbContext.statement("select * from repeated_table where code = 4.5 and name = 'b'").list(row -> row.getInt("code"));
+            table.whereIn("code", Arrays.asList(1, 2)).listLongs("code");
+            table.whereIn("code", Arrays.asList(1, 2, 3)).listLongs("code");
+            table.whereIn("code", Arrays.asList(1, 2, 3, 4)).listLongs("code");
+            assertThat(repeated).isEmpty();
+            dbContext.statement("select * from repeated_table  where code = 333 and name = ''").list(row -> row.getInt("code"));
+            table.whereIn("code", Arrays.asList(5, 6)).listLongs("code");
+        }
+        assertThat(repeated).containsExactly(
+                "select * from repeated_table where code = ? and name = ? x4",
+                "select * from repeated_table WHERE (code IN (?, ...)) x4"
+        );
+    }
+
+    @Test
+    public void shouldCountPerConnection() {
+        for (int i = 0; i < 5; i++) {
+            try (DbContextConnection ignored = dbContext.startConnection(dataSource)) {
+                table.query().getCount();
+                table.query().getCount();
+            }
+        }
+        assertThat(repeated).isEmpty();
+    }
+
+    @Test
+    public void shouldFailTestWithRepeatedQueries() {
+        DbContextRule rule = new DbContextRule(dataSource).failOnRepeatedQueries(2);
+        DbContextTable ruleTable = rule.table("repeated_table");
+        Statement test = new Statement() {
+            @Override
+            public void evaluate() {
+                for (int i = 0; i < 3; i++) {
+                    ruleTable.where("id", i).singleString("name");
+                }
+            }
+        };
+        assertThatThrownBy(() -> rule.apply(test, Description.EMPTY).evaluate())
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("select * from repeated_table WHERE (id = ?)")
+                .hasMessageContaining(getClass().getName());
+    }
+}